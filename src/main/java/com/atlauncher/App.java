@@ -80,6 +80,8 @@ import com.atlauncher.managers.PackManager;
 import com.atlauncher.network.Download;
 import com.atlauncher.network.ErrorReporting;
 import com.atlauncher.themes.ATLauncherLaf;
+import com.atlauncher.utils.ArtifactStore;
+import com.atlauncher.utils.FileHashCache;
 import com.atlauncher.utils.Java;
 import com.atlauncher.utils.OS;
 import com.atlauncher.utils.Utils;
@@ -105,7 +107,8 @@ public class App {
     /**
      * The taskpool used to quickly add in tasks to do in the background.
      */
-    public static final ExecutorService TASKPOOL = Executors.newFixedThreadPool(2);
+    public static final ExecutorService TASKPOOL = Executors
+        .newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
 
     /**
      * The instance of toaster to show popups in the bottom right.
@@ -293,6 +296,12 @@ public class App {
             LogManager.logStackTrace("Error organising filesystem", e, false);
         }
 
+        // persist the hashes of files we've checked so unchanged files don't need to be hashed again
+        FileHashCache.setStorage(FileSystem.FILE_HASHES);
+
+        // shared store that mods and libraries are hard linked from into instances and servers
+        ArtifactStore.setRoot(FileSystem.ARTIFACTS);
+
         // Load the settings from json, convert old properties config and validate it
         loadSettings();
 
@@ -372,9 +381,17 @@ public class App {
         boolean open = true;
 
         if (autoLaunch != null) {
-            Optional<Instance> instance = InstanceManager.getInstances().stream().filter(
-                    i -> i.getName().equalsIgnoreCase(autoLaunch) || i.getSafeName().equalsIgnoreCase(autoLaunch))
-                .findFirst();
+            // use the instance index to load just the instance being launched rather than waiting for them all
+            Optional<Instance> instance = InstanceManager.getIndex().find(autoLaunch)
+                .map(entry -> InstanceManager.getOrLoadInstance(entry.folder));
+
+            if (!instance.isPresent()) {
+                launcher.waitForBackgroundStartup();
+
+                instance = InstanceManager.getInstances().stream().filter(
+                        i -> i.getName().equalsIgnoreCase(autoLaunch) || i.getSafeName().equalsIgnoreCase(autoLaunch))
+                    .findFirst();
+            }
             if (instance.isPresent()) {
                 LogManager.info("Opening Instance " + instance.get().launcher.name);
                 if (instance.get().launch()) {
@@ -26,6 +26,7 @@ import java.nio.file.StandardCopyOption;
 
 import com.atlauncher.constants.Constants;
 import com.atlauncher.managers.LogManager;
+import com.atlauncher.network.PartialDownload;
 import com.atlauncher.utils.FileUtils;
 import com.atlauncher.utils.OS;
 import com.atlauncher.utils.Utils;
@@ -40,7 +41,13 @@ public final class FileSystem {
     public static final Path APOLLO_CACHE = CACHE.resolve("apolloCache");
     public static final Path HTTP_CACHE = CACHE.resolve("http");
     public static final Path REMOTE_IMAGE_CACHE = CACHE.resolve("remote_image");
-    public static final Path FRACTURISER_SCANNED_HASHES = CACHE.resolve("fracturiser_scanned_hashes.json");
+    public static final Path FRACTURISER_SCANNED_HASHES = CACHE.resolve("fracturiser_scanned_hashes.bin");
+    public static final Path LEGACY_FRACTURISER_SCANNED_HASHES = CACHE
+        .resolve("fracturiser_scanned_hashes.json");
+    public static final Path FILE_HASHES = CACHE.resolve("file_hashes.json");
+    public static final Path INSTANCE_INDEX = CACHE.resolve("instance_index.json");
+    public static final Path LAUNCHER_FILES_SNAPSHOT = CACHE.resolve("launcher_files.json");
+    public static final Path PROCESSOR_OUTPUTS = CACHE.resolve("processor_outputs.json");
     public static final Path LOADERS = BASE_DIR.resolve("loaders");
     public static final Path RUNTIMES = BASE_DIR.resolve("runtimes");
     public static final Path MINECRAFT_RUNTIMES = RUNTIMES.resolve("minecraft");
@@ -61,6 +68,7 @@ public final class FileSystem {
     public static final Path RESOURCES_VIRTUAL_LEGACY = RESOURCES_VIRTUAL.resolve("legacy");
 
     public static final Path LIBRARIES = BASE_DIR.resolve("libraries");
+    public static final Path ARTIFACTS = BASE_DIR.resolve("artifacts");
 
     public static final Path DOWNLOADS = BASE_DIR.resolve("downloads");
     public static final Path TECHNIC_DOWNLOADS = DOWNLOADS.resolve("technic");
@@ -82,6 +90,8 @@ public final class FileSystem {
 
         cleanTempDirectory();
 
+        cleanPartialDownloads();
+
         renameDirectories();
 
         createDirectories();
@@ -184,6 +194,15 @@ public final class FileSystem {
         Utils.deleteContents(TEMP.toFile());
     }
 
+    private static void cleanPartialDownloads() {
+        int deleted = PartialDownload.deleteStale(DOWNLOADS, PartialDownload.STALE_AFTER_MS)
+                + PartialDownload.deleteStale(LIBRARIES, PartialDownload.STALE_AFTER_MS);
+
+        if (deleted != 0) {
+            LogManager.info("Deleted " + deleted + " stale partial download files");
+        }
+    }
+
     private static void renameDirectories() throws IOException {
         renameDirectory(BASE_DIR.resolve("Backups"), BACKUPS);
         renameDirectory(BASE_DIR.resolve("Instances"), INSTANCES);
@@ -235,6 +254,7 @@ public final class FileSystem {
         FileUtils.createDirectory(REMOTE_IMAGE_CACHE);
         FileUtils.createDirectory(INSTANCES);
         FileUtils.createDirectory(LIBRARIES);
+        FileUtils.createDirectory(ARTIFACTS);
         FileUtils.createDirectory(LOADERS);
         FileUtils.createDirectory(LOGS);
         FileUtils.createDirectory(RUNTIMES);
@@ -42,28 +42,27 @@ import com.atlauncher.builders.HTMLBuilder;
 import com.atlauncher.constants.Constants;
 import com.atlauncher.data.DownloadableFile;
 import com.atlauncher.data.Instance;
+import com.atlauncher.data.LauncherFilesSnapshot;
 import com.atlauncher.data.LauncherVersion;
 import com.atlauncher.gui.dialogs.ProgressDialog;
 import com.atlauncher.gui.tabs.PacksBrowserTab;
 import com.atlauncher.managers.AccountManager;
 import com.atlauncher.managers.ConfigManager;
-import com.atlauncher.managers.CurseForgeUpdateManager;
 import com.atlauncher.managers.DialogManager;
-import com.atlauncher.managers.FTBUpdateManager;
+import com.atlauncher.managers.ExternalPackUpdateManager;
 import com.atlauncher.managers.InstanceManager;
 import com.atlauncher.managers.LWJGLManager;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.managers.MinecraftManager;
-import com.atlauncher.managers.ModrinthModpackUpdateManager;
 import com.atlauncher.managers.NewsManager;
 import com.atlauncher.managers.PackManager;
 import com.atlauncher.managers.PerformanceManager;
 import com.atlauncher.managers.ServerManager;
-import com.atlauncher.managers.TechnicModpackUpdateManager;
 import com.atlauncher.network.DownloadPool;
 import com.atlauncher.network.NetworkClient;
 import com.atlauncher.utils.Java;
 import com.atlauncher.utils.OS;
+import com.atlauncher.utils.TaskGraph;
 import com.google.gson.JsonIOException;
 import com.google.gson.JsonSyntaxException;
 import com.google.gson.reflect.TypeToken;
@@ -79,8 +78,8 @@ public class Launcher {
     private JFrame parent; // Parent JFrame of the actual Launcher
     private PacksBrowserTab packsBrowserPanel; // The packs browser panel
 
-    // Update thread
-    private Thread updateThread;
+    // Loads instances and servers while the launcher window is shown
+    private Thread backgroundStartupThread;
 
     // Minecraft tracking variables
     private Process minecraftProcess = null; // The process minecraft is running on
@@ -88,28 +87,36 @@ public class Launcher {
     public Instance lastInstanceCrash = null; // The last instance that crashed
     public Date lastInstanceCrashTime = null; // The time the last instance crashed
 
+    /**
+     * Loads everything the launcher needs. Loaders which don't depend on each other are run at the same time, and
+     * loading instances and servers is left running in the background so the launcher window can be shown sooner,
+     * with them published to their subjects as they finish loading.
+     */
     public void loadEverything() {
         PerformanceManager.start();
 
-        ConfigManager.loadConfig(); // Load the config
-
-        NewsManager.loadNews(); // Load the news
-
-        MinecraftManager.loadMinecraftVersions(); // Load info about the different Minecraft versions
-        MinecraftManager.loadJavaRuntimes(); // Load info about the different java runtimes
-        LWJGLManager.loadLWJGLVersions(); // Load info about the different LWJGL versions
-
-        AccountManager.loadAccounts(); // Load the saved Accounts
-
-        PackManager.loadPacks(); // Load the Packs available in the Launcher
-
-        PackManager.loadUsers(); // Load the Testers and Allowed Players for the packs
-
-        InstanceManager.loadInstances(); // Load the users installed Instances
-
-        ServerManager.loadServers(); // Load the users installed servers
-
-        PackManager.removeUnusedImages(); // remove unused pack images
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        // everything needed before the launcher window can be shown
+        TaskGraph startup = new TaskGraph("Startup", threads)
+            .add("config", ConfigManager::loadConfig)
+            .add("news", NewsManager::loadNews, "config")
+            .add("minecraftVersions", MinecraftManager::loadMinecraftVersions, "config")
+            .add("javaRuntimes", MinecraftManager::loadJavaRuntimes, "config")
+            .add("lwjglVersions", LWJGLManager::loadLWJGLVersions, "config")
+            .add("accounts", AccountManager::loadAccounts)
+            .add("packs", PackManager::loadPacks, "config")
+            .add("users", PackManager::loadUsers, "packs");
+        runStartupTasks(startup);
+
+        TaskGraph backgroundStartup = new TaskGraph("BackgroundStartup", threads)
+            .add("instances", InstanceManager::loadInstances)
+            .add("servers", ServerManager::loadServers)
+            .add("removeUnusedImages", PackManager::removeUnusedImages)
+            .add("externalPackUpdates", ExternalPackUpdateManager::start, "instances");
+        backgroundStartupThread = new Thread(() -> runStartupTasks(backgroundStartup), "ATL-Background-Startup");
+        backgroundStartupThread.setDaemon(true);
+        backgroundStartupThread.start();
 
         if (OS.isWindows() && !Java.is64Bit() && OS.is64Bit()) {
             LogManager.warn("You're using 32 bit Java on a 64 bit Windows install!");
@@ -126,12 +133,36 @@ public class Launcher {
             }
         }
 
-        checkForExternalPackUpdates();
-
         System.gc();
         PerformanceManager.end();
     }
 
+    private void runStartupTasks(TaskGraph tasks) {
+        try {
+            tasks.run(null);
+        } catch (Exception e) {
+            LogManager.logStackTrace("Error loading launcher", e);
+        }
+
+        LogManager.debug(tasks.getTimeline());
+    }
+
+    /**
+     * Waits for the loading left running in the background by {@link #loadEverything()} to finish, such as before
+     * looking up an instance.
+     */
+    public void waitForBackgroundStartup() {
+        if (backgroundStartupThread == null) {
+            return;
+        }
+
+        try {
+            backgroundStartupThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     public boolean launcherHasUpdate() {
         try (InputStreamReader fileReader = new InputStreamReader(
             Files.newInputStream(FileSystem.JSON.resolve("version.json")), StandardCharsets.UTF_8)) {
@@ -272,45 +303,52 @@ public class Launcher {
     public boolean checkForUpdatedFiles() {
         this.launcherFiles = null;
 
-        App.TASKPOOL.execute(this::checkForExternalPackUpdates);
+        App.TASKPOOL.execute(() -> ExternalPackUpdateManager.checkForUpdates(false));
 
         return hasUpdatedFiles();
     }
 
     /**
-     * This checks the servers hashes.json file and looks for new/updated files that differ from what the user has
+     * This checks the servers hashes.json file and looks for new/updated files that differ from what the user has.
+     * <p>
+     * Files which haven't changed since they were last verified are skipped, and the rest are verified in parallel.
      */
     public boolean hasUpdatedFiles() {
+        PerformanceManager.start();
         LogManager.info("Checking for updated files!");
         List<com.atlauncher.network.Download> downloads = getLauncherFiles();
 
         if (downloads == null) {
+            PerformanceManager.end();
             return false;
         }
 
-        return downloads.stream().anyMatch(com.atlauncher.network.Download::needToDownload);
-    }
+        LauncherFilesSnapshot snapshot = LauncherFilesSnapshot.load(FileSystem.LAUNCHER_FILES_SNAPSHOT);
+        List<com.atlauncher.network.Download> changed = downloads.stream().filter(dl -> !snapshot.isUnchanged(dl))
+            .collect(Collectors.toList());
+        LogManager.debug(String.format("%d of %d launcher files need verifying", changed.size(), downloads.size()));
 
-    public void checkForExternalPackUpdates() {
-        if (updateThread != null && updateThread.isAlive()) {
-            updateThread.interrupt();
+        if (changed.isEmpty()) {
+            PerformanceManager.end();
+            return false;
         }
 
-        updateThread = new Thread(() -> {
-            if (InstanceManager.getInstances().stream().anyMatch(Instance::isFTBPack)) {
-                FTBUpdateManager.checkForUpdates();
-            }
-            if (InstanceManager.getInstances().stream().anyMatch(Instance::isCurseForgePack)) {
-                CurseForgeUpdateManager.checkForUpdates();
-            }
-            if (InstanceManager.getInstances().stream().anyMatch(Instance::isTechnicPack)) {
-                TechnicModpackUpdateManager.checkForUpdates();
-            }
-            if (InstanceManager.getInstances().stream().anyMatch(Instance::isModrinthPack)) {
-                ModrinthModpackUpdateManager.checkForUpdates();
-            }
-        });
-        updateThread.start();
+        List<com.atlauncher.network.Download> updated = changed.parallelStream()
+            .filter(com.atlauncher.network.Download::needToDownload).collect(Collectors.toList());
+
+        LauncherFilesSnapshot verified = new LauncherFilesSnapshot();
+        downloads.stream().filter(dl -> !updated.contains(dl)).forEach(verified::record);
+        verified.save(FileSystem.LAUNCHER_FILES_SNAPSHOT);
+
+        PerformanceManager.end();
+        return !updated.isEmpty();
+    }
+
+    /**
+     * Checks for updates to external packs in the background, even if they were checked recently.
+     */
+    public void checkForExternalPackUpdates() {
+        App.TASKPOOL.execute(() -> ExternalPackUpdateManager.checkForUpdates(true));
     }
 
     public void updateData() {
@@ -335,14 +373,15 @@ public class Launcher {
         dialog.setResizable(false);
         dialog.add(new JLabel(GetText.tr("Updating Launcher. Please Wait")));
         App.TASKPOOL.execute(() -> {
-            checkForExternalPackUpdates();
+            waitForBackgroundStartup();
+            App.TASKPOOL.execute(() -> ExternalPackUpdateManager.checkForUpdates(false));
 
             ConfigManager.loadConfig(); // Load the config
             NewsManager.loadNews(); // Load the news
             PackManager.loadPacks(); // Load the Packs available in the Launcher
             reloadPacksBrowserPanel();// Reload packs browser panel
             PackManager.loadUsers(); // Load the Testers and Allowed Players for the packs
-            InstanceManager.loadInstances(); // Load the users installed Instances
+            InstanceManager.reloadInstances(); // Reload the users installed Instances
             dialog.setVisible(false); // Remove the dialog
             dialog.dispose(); // Dispose the dialog
         });
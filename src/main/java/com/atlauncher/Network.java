@@ -17,11 +17,9 @@
  */
 package com.atlauncher;
 
-import java.io.IOException;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
-import java.util.Collections;
-import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -35,6 +33,8 @@ import com.apollographql.apollo.ApolloClientAwarenessInterceptor;
 import com.atlauncher.constants.Constants;
 import com.atlauncher.interfaces.NetworkProgressable;
 import com.atlauncher.listener.ProgressListener;
+import com.atlauncher.network.CachePolicyInterceptor;
+import com.atlauncher.network.ConnectionTuning;
 import com.atlauncher.network.DebugLoggingInterceptor;
 import com.atlauncher.network.ErrorReportingInterceptor;
 import com.atlauncher.network.UserAgentInterceptor;
@@ -43,6 +43,7 @@ import com.atlauncher.utils.OS;
 import com.atlauncher.utils.ProgressResponseBody;
 
 import okhttp3.Cache;
+import okhttp3.ConnectionPool;
 import okhttp3.OkHttpClient;
 import okhttp3.Protocol;
 import okhttp3.Response;
@@ -73,8 +74,8 @@ public final class Network {
     static {
         Logger.getLogger(OkHttpClient.class.getName()).setLevel(Level.FINEST);
 
-        OkHttpClient baseClient = new OkHttpClient.Builder()
-                .protocols(Collections.singletonList(Protocol.HTTP_1_1))
+        OkHttpClient baseClient = ConnectionTuning
+                .apply(new OkHttpClient.Builder(), App.settings.enableHttp2, App.settings.concurrentConnections)
                 .addNetworkInterceptor(new UserAgentInterceptor())
                 .addInterceptor(new DebugLoggingInterceptor())
                 .addNetworkInterceptor(new ErrorReportingInterceptor())
@@ -90,7 +91,7 @@ public final class Network {
                         new ApolloClientAwarenessInterceptor("Launcher", Constants.VERSION.toStringForLogging()))
                 .build();
 
-        CACHED_CLIENT = baseClient.newBuilder().cache(CACHE).build();
+        CACHED_CLIENT = baseClient.newBuilder().cache(CACHE).addInterceptor(new CachePolicyInterceptor()).build();
     }
 
     public static void setConnectionTimeouts() {
@@ -107,6 +108,42 @@ public final class Network {
                 .writeTimeout(App.settings.connectionTimeout, TimeUnit.SECONDS).build();
     }
 
+    /**
+     * Resizes the connection pool and request limits shared by the clients to the concurrent connections setting.
+     */
+    public static void setConnectionLimits() {
+        ConnectionTuning.setLimits(CLIENT.dispatcher(), App.settings.concurrentConnections);
+
+        ConnectionPool connectionPool = ConnectionTuning.newConnectionPool(App.settings.concurrentConnections);
+        CLIENT.connectionPool().evictAll();
+
+        CLIENT = CLIENT.newBuilder().connectionPool(connectionPool).build();
+        GRAPHQL_CLIENT = GRAPHQL_CLIENT.newBuilder().connectionPool(connectionPool).build();
+        CACHED_CLIENT = CACHED_CLIENT.newBuilder().connectionPool(connectionPool).build();
+    }
+
+    /**
+     * Switches the clients between HTTP/2 and HTTP/1.1 to match the enable HTTP/2 setting. Pooled connections are
+     * evicted so downloads don't keep reusing ones negotiated with the old protocols.
+     */
+    public static void setProtocols() {
+        List<Protocol> protocols = ConnectionTuning.protocols(App.settings.enableHttp2);
+        CLIENT.connectionPool().evictAll();
+
+        CLIENT = CLIENT.newBuilder().protocols(protocols).build();
+        GRAPHQL_CLIENT = GRAPHQL_CLIENT.newBuilder().protocols(protocols).build();
+        CACHED_CLIENT = CACHED_CLIENT.newBuilder().protocols(protocols).build();
+    }
+
+    /**
+     * Opens connections to the host of the given url ahead of downloads from it starting.
+     *
+     * @see ConnectionTuning#prewarm(OkHttpClient, String, int)
+     */
+    public static void prewarm(String url, int connections) {
+        ConnectionTuning.prewarm(CLIENT, url, connections);
+    }
+
     public static OkHttpClient createProgressClient(final NetworkProgressable progressable) {
         final ProgressListener progressListener = (bytesRead, contentLength, done) -> {
             if (bytesRead > 0 && progressable != null) {
@@ -173,16 +210,15 @@ public final class Network {
         }
     }
 
+    /**
+     * Makes the next request for the given url through the cached client go to the network, replacing the cached
+     * response once it succeeds.
+     */
     public static void removeUrlFromCache(String url) {
-        try {
-            Iterator<String> urlIterator = Network.CACHE.urls();
-            while (urlIterator.hasNext()) {
-                if (urlIterator.next().equals(url)) {
-                    urlIterator.remove();
-                }
-            }
-        } catch (IOException e) {
-            // Ignore
-        }
+        CachePolicyInterceptor.invalidate(url);
+    }
+
+    public static String getCacheStats() {
+        return CachePolicyInterceptor.getStats(CACHE);
     }
 }
@@ -55,6 +55,7 @@ import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -156,6 +157,7 @@ import com.atlauncher.network.Analytics;
 import com.atlauncher.network.DownloadPool;
 import com.atlauncher.network.GraphqlClient;
 import com.atlauncher.network.analytics.AnalyticsEvent;
+import com.atlauncher.thread.MinecraftLogPump;
 import com.atlauncher.utils.ArchiveUtils;
 import com.atlauncher.utils.ComboItem;
 import com.atlauncher.utils.CommandExecutor;
@@ -164,6 +166,7 @@ import com.atlauncher.utils.CurseForgeUtils;
 import com.atlauncher.utils.FileUtils;
 import com.atlauncher.utils.Hashing;
 import com.atlauncher.utils.Java;
+import com.atlauncher.utils.LogRedactor;
 import com.atlauncher.utils.ModrinthApi;
 import com.atlauncher.utils.OS;
 import com.atlauncher.utils.Pair;
@@ -984,13 +987,27 @@ public class Instance extends MinecraftVersion implements ModManagement {
                 App.launcher.showKillMinecraft(process);
                 InputStream is = process.getInputStream();
                 InputStreamReader isr = new InputStreamReader(is, StandardCharsets.UTF_8);
-                StringBuilder sb = new StringBuilder();
                 BufferedReader br = new BufferedReader(isr);
                 String line;
                 int detectedError = 0;
                 boolean crashedWithoutKnownResolution = false;
 
-                String replaceUUID = account.uuid.replace("-", "");
+                Map<String, String> redactions = new HashMap<>();
+                if (!LogManager.showDebug) {
+                    redactions.put(account.minecraftUsername, "**MINECRAFTUSERNAME**");
+                    redactions.put(account.username, "**MINECRAFTUSERNAME**");
+                    redactions.put(account.uuid, "**UUID**");
+                    redactions.put(account.uuid.replace("-", ""), "**UUID**");
+                }
+                if (account.getAccessToken() != null) {
+                    redactions.put(account.getAccessToken(), "**ACCESSTOKEN**");
+                }
+
+                // redacting, classifying and showing the output is done on another thread so the process's output is
+                // always read as fast as it's written
+                MinecraftLogPump logPump = new MinecraftLogPump(
+                    new LogRedactor(redactions, !LogManager.showDebug));
+                logPump.start();
 
                 while ((line = br.readLine()) != null) {
                     if (line.contains("java.lang.OutOfMemoryError")
@@ -1022,41 +1039,9 @@ public class Instance extends MinecraftVersion implements ModManagement {
                         crashedWithoutKnownResolution = true;
                     }
 
-                    if (!LogManager.showDebug) {
-                        line = line.replaceAll(account.minecraftUsername, "**MINECRAFTUSERNAME**");
-                        line = line.replaceAll(account.username, "**MINECRAFTUSERNAME**");
-                        line = line.replaceAll(account.uuid, "**UUID**");
-                        line = line.replaceAll(replaceUUID, "**UUID**");
-                        line = line.replaceAll("\\b(?:\\d{1,3}\\.){3}\\d{1,3}\\b", "**IPADDRESS**");
-                    }
-
-                    if (account.getAccessToken() != null) {
-                        line = line.replaceAll(account.getAccessToken(), "**ACCESSTOKEN**");
-                    }
-
-                    if (line.contains("log4j:")) {
-                        try {
-                            // start of a new event so clear string builder
-                            if (line.contains("<log4j:Event>")) {
-                                sb.setLength(0);
-                            }
-
-                            sb.append(line);
-
-                            // end of the xml object so parse it
-                            if (line.contains("</log4j:Event>")) {
-                                LogManager.minecraftLog4j(sb.toString());
-                                sb.setLength(0);
-                            }
-
-                            continue;
-                        } catch (Exception e) {
-                            // ignored
-                        }
-                    }
-
-                    LogManager.minecraft(line);
+                    logPump.add(line);
                 }
+                logPump.finish();
                 App.launcher.hideKillMinecraft();
                 if (App.launcher.getParent() != null && App.settings.keepLauncherOpen) {
                     App.launcher.getParent().setVisible(true);
@@ -1997,6 +1982,8 @@ public class Instance extends MinecraftVersion implements ModManagement {
         } catch (JsonIOException | IOException e) {
             LogManager.logStackTrace(e);
         }
+
+        InstanceManager.instanceSaved(this);
     }
 
     public File getAssetsDir() {
@@ -2807,16 +2794,22 @@ public class Instance extends MinecraftVersion implements ModManagement {
         // files to scan
         List<Path> files = new ArrayList<>();
 
+        // if the content folders are being watched, only what's changed since the last scan needs looking at
+        Optional<Set<Path>> changedFiles = InstanceManager.takeContentChanges(this);
+        List<Path> contentFolders = InstanceManager.CONTENT_FOLDERS.stream().map(ROOT::resolve)
+            .collect(Collectors.toList());
+
         // find the mods that have been added by the user manually
-        for (Path path : Arrays.asList(ROOT.resolve("mods"), ROOT.resolve("disabledmods"),
-            ROOT.resolve("resourcepacks"), ROOT.resolve("shaderpacks"), ROOT.resolve("jarmods"))) {
+        for (Path path : contentFolders) {
             if (!Files.exists(path)) {
                 continue;
             }
 
             Type fileType = getTypeOfFileFromPath(path);
 
-            try (Stream<Path> stream = Files.list(path)) {
+            try (Stream<Path> stream = changedFiles.isPresent()
+                ? changedFiles.get().stream().filter(file -> file.getParent().equals(path) && Files.exists(file))
+                : Files.list(path)) {
                 files.addAll(stream
                     .filter(file -> !Files.isDirectory(file) && Utils.isAcceptedModFile(file)).filter(
                         file -> launcher.mods.stream()
@@ -2833,159 +2826,173 @@ public class Instance extends MinecraftVersion implements ModManagement {
                 GetText.tr("Scanning New Mods"), parent);
 
             progressDialog.addThread(new Thread(() -> {
-                List<DisableableMod> mods = files.parallelStream()
-                    .map(file -> {
-                        Type fileType = getTypeOfFileFromPath(file.getParent());
-
-                        return DisableableMod.generateMod(file.toFile(), fileType,
-                            !file.getParent().equals(ROOT.resolve("disabledmods")));
-                    })
-                    .collect(Collectors.toList());
-
-                if (!App.settings.dontCheckModsOnCurseForge) {
-                    Map<Long, DisableableMod> murmurHashes = new HashMap<>();
-
-                    mods.stream()
-                        .filter(dm -> dm.curseForgeProject == null && dm.curseForgeFile == null)
-                        .filter(dm -> dm.getFile(ROOT, id) != null).forEach(dm -> {
-                            try {
-                                long hash = Hashing
-                                    .murmur(dm.disabled ? dm.getDisabledFile(this).toPath()
-                                        : dm
-                                            .getFile(ROOT, id).toPath());
-                                murmurHashes.put(hash, dm);
-                            } catch (IOException e) {
-                                LogManager.logStackTrace(e);
+                boolean added = false;
+
+                try {
+                    // read each file once, getting every hash we need to look the mods up on CurseForge and Modrinth
+                    List<Hashing.HashType> hashTypes = new ArrayList<>();
+                    if (!App.settings.dontCheckModsOnCurseForge) {
+                        hashTypes.add(Hashing.HashType.MURMUR);
+                    }
+                    if (!App.settings.dontCheckModsOnModrinth) {
+                        hashTypes.add(Hashing.HashType.SHA1);
+                    }
+
+                    Map<DisableableMod, Hashing.FileHashes> modHashes = new ConcurrentHashMap<>();
+                    List<DisableableMod> mods = files.parallelStream()
+                        .map(file -> {
+                            Type fileType = getTypeOfFileFromPath(file.getParent());
+
+                            DisableableMod dm = DisableableMod.generateMod(file.toFile(), fileType,
+                                !file.getParent().equals(ROOT.resolve("disabledmods")));
+
+                            if (!hashTypes.isEmpty()) {
+                                try {
+                                    modHashes.put(dm, Hashing.hashes(file, hashTypes.toArray(new Hashing.HashType[0])));
+                                } catch (IOException e) {
+                                    LogManager.logStackTrace(e);
+                                }
                             }
-                        });
-
-                    if (!murmurHashes.isEmpty()) {
-                        CurseForgeFingerprint fingerprintResponse = CurseForgeApi
-                            .checkFingerprints(murmurHashes.keySet().stream().toArray(Long[]::new));
-
-                        if (fingerprintResponse != null && fingerprintResponse.exactMatches != null) {
-                            int[] projectIdsFound = fingerprintResponse.exactMatches.stream().mapToInt(em -> em.id)
-                                .toArray();
-
-                            if (projectIdsFound.length != 0) {
-                                Map<Integer, CurseForgeProject> foundProjects = CurseForgeApi
-                                    .getProjectsAsMap(projectIdsFound);
-
-                                if (foundProjects != null) {
-                                    fingerprintResponse.exactMatches.stream()
-                                        .filter(em -> em != null && em.file != null
-                                            && murmurHashes.containsKey(em.file.packageFingerprint))
-                                        .forEach(foundMod -> {
-                                            DisableableMod dm = murmurHashes
-                                                .get(foundMod.file.packageFingerprint);
-
-                                            CurseForgeProject curseForgeProject = foundProjects
-                                                .get(foundMod.id);
-
-                                            if (curseForgeProject != null && curseForgeProject.status == 4) {
-                                                dm.curseForgeProjectId = foundMod.id;
-                                                dm.curseForgeFile = foundMod.file;
-                                                dm.curseForgeFileId = foundMod.file.id;
-                                                dm.curseForgeProject = curseForgeProject;
-                                                dm.name = curseForgeProject.name;
-                                                dm.description = curseForgeProject.summary;
-
-                                                LogManager.debug("Found matching mod from CurseForge called "
-                                                    + dm.curseForgeFile.displayName);
-                                            }
 
-                                            // reset if the file is not approved
-                                            if (curseForgeProject != null && curseForgeProject.status != 4) {
-                                                dm.curseForgeProjectId = null;
-                                                dm.curseForgeFile = null;
-                                                dm.curseForgeFileId = null;
-                                                dm.curseForgeProject = null;
-
-                                                File path = dm.getFile(this);
-                                                MCMod mcMod = Utils.getMCModForFile(path);
-                                                if (mcMod != null) {
-                                                    dm.name = Optional.ofNullable(mcMod.name)
-                                                        .orElse(path.getName());
-                                                    dm.description = mcMod.description;
-                                                } else {
-                                                    FabricMod fabricMod = Utils.getFabricModForFile(path);
-                                                    if (fabricMod != null) {
-                                                        dm.name = Optional.ofNullable(fabricMod.name)
+                            return dm;
+                        })
+                        .collect(Collectors.toList());
+
+                    LogManager.debug("Scanned new mods: " + Hashing.getThroughputSummary());
+
+                    if (!App.settings.dontCheckModsOnCurseForge) {
+                        Map<Long, DisableableMod> murmurHashes = new HashMap<>();
+
+                        mods.stream()
+                            .filter(dm -> dm.curseForgeProject == null && dm.curseForgeFile == null)
+                            .filter(dm -> modHashes.containsKey(dm))
+                            .forEach(dm -> murmurHashes.put(modHashes.get(dm).murmur(), dm));
+
+                        if (!murmurHashes.isEmpty()) {
+                            CurseForgeFingerprint fingerprintResponse = CurseForgeApi
+                                .checkFingerprints(murmurHashes.keySet().stream().toArray(Long[]::new));
+
+                            if (fingerprintResponse != null && fingerprintResponse.exactMatches != null) {
+                                int[] projectIdsFound = fingerprintResponse.exactMatches.stream().mapToInt(em -> em.id)
+                                    .toArray();
+
+                                if (projectIdsFound.length != 0) {
+                                    Map<Integer, CurseForgeProject> foundProjects = CurseForgeApi
+                                        .getProjectsAsMap(projectIdsFound);
+
+                                    if (foundProjects != null) {
+                                        fingerprintResponse.exactMatches.stream()
+                                            .filter(em -> em != null && em.file != null
+                                                && murmurHashes.containsKey(em.file.packageFingerprint))
+                                            .forEach(foundMod -> {
+                                                DisableableMod dm = murmurHashes
+                                                    .get(foundMod.file.packageFingerprint);
+
+                                                CurseForgeProject curseForgeProject = foundProjects
+                                                    .get(foundMod.id);
+
+                                                if (curseForgeProject != null && curseForgeProject.status == 4) {
+                                                    dm.curseForgeProjectId = foundMod.id;
+                                                    dm.curseForgeFile = foundMod.file;
+                                                    dm.curseForgeFileId = foundMod.file.id;
+                                                    dm.curseForgeProject = curseForgeProject;
+                                                    dm.name = curseForgeProject.name;
+                                                    dm.description = curseForgeProject.summary;
+
+                                                    LogManager.debug("Found matching mod from CurseForge called "
+                                                        + dm.curseForgeFile.displayName);
+                                                }
+
+                                                // reset if the file is not approved
+                                                if (curseForgeProject != null && curseForgeProject.status != 4) {
+                                                    dm.curseForgeProjectId = null;
+                                                    dm.curseForgeFile = null;
+                                                    dm.curseForgeFileId = null;
+                                                    dm.curseForgeProject = null;
+
+                                                    File path = dm.getFile(this);
+                                                    MCMod mcMod = Utils.getMCModForFile(path);
+                                                    if (mcMod != null) {
+                                                        dm.name = Optional.ofNullable(mcMod.name)
                                                             .orElse(path.getName());
-                                                        dm.description = fabricMod.description;
+                                                        dm.description = mcMod.description;
+                                                    } else {
+                                                        FabricMod fabricMod = Utils.getFabricModForFile(path);
+                                                        if (fabricMod != null) {
+                                                            dm.name = Optional.ofNullable(fabricMod.name)
+                                                                .orElse(path.getName());
+                                                            dm.description = fabricMod.description;
+                                                        }
                                                     }
                                                 }
-                                            }
-                                        });
+                                            });
+                                    }
                                 }
                             }
                         }
                     }
-                }
 
-                if (!App.settings.dontCheckModsOnModrinth) {
-                    Map<String, DisableableMod> sha1Hashes = new HashMap<>();
-
-                    mods.stream()
-                        .filter(dm -> dm.modrinthProject == null && dm.modrinthVersion == null)
-                        .filter(dm -> dm.getFile(ROOT, id) != null).forEach(dm -> {
-                            try {
-                                sha1Hashes.put(Hashing
-                                    .sha1(dm.disabled ? dm.getDisabledFile(this).toPath()
-                                        : dm
-                                            .getFile(ROOT, id).toPath())
-                                    .toString(), dm);
-                            } catch (Throwable t) {
-                                LogManager.logStackTrace(t);
-                            }
-                        });
+                    if (!App.settings.dontCheckModsOnModrinth) {
+                        Map<String, DisableableMod> sha1Hashes = new HashMap<>();
 
-                    if (!sha1Hashes.isEmpty()) {
-                        Set<String> keys = sha1Hashes.keySet();
-                        Map<String, ModrinthVersion> modrinthVersions = ModrinthApi
-                            .getVersionsFromSha1Hashes(keys.toArray(new String[0]));
+                        mods.stream()
+                            .filter(dm -> dm.modrinthProject == null && dm.modrinthVersion == null)
+                            .filter(dm -> modHashes.containsKey(dm))
+                            .forEach(dm -> sha1Hashes.put(modHashes.get(dm).get(Hashing.HashType.SHA1).toString(), dm));
 
-                        if (modrinthVersions != null && !modrinthVersions.isEmpty()) {
-                            String[] projectIdsFound = modrinthVersions.values().stream().map(mv -> mv.projectId)
-                                .toArray(String[]::new);
+                        if (!sha1Hashes.isEmpty()) {
+                            Set<String> keys = sha1Hashes.keySet();
+                            Map<String, ModrinthVersion> modrinthVersions = ModrinthApi
+                                .getVersionsFromSha1Hashes(keys.toArray(new String[0]));
 
-                            if (projectIdsFound.length != 0) {
-                                Map<String, ModrinthProject> foundProjects = ModrinthApi
-                                    .getProjectsAsMap(projectIdsFound);
+                            if (modrinthVersions != null && !modrinthVersions.isEmpty()) {
+                                String[] projectIdsFound = modrinthVersions.values().stream().map(mv -> mv.projectId)
+                                    .toArray(String[]::new);
 
-                                if (foundProjects != null) {
-                                    for (Map.Entry<String, ModrinthVersion> entry : modrinthVersions.entrySet()) {
-                                        ModrinthVersion version = entry.getValue();
-                                        ModrinthProject project = foundProjects.get(version.projectId);
+                                if (projectIdsFound.length != 0) {
+                                    Map<String, ModrinthProject> foundProjects = ModrinthApi
+                                        .getProjectsAsMap(projectIdsFound);
 
-                                        if (project != null) {
-                                            DisableableMod dm = sha1Hashes.get(entry.getKey());
+                                    if (foundProjects != null) {
+                                        for (Map.Entry<String, ModrinthVersion> entry : modrinthVersions.entrySet()) {
+                                            ModrinthVersion version = entry.getValue();
+                                            ModrinthProject project = foundProjects.get(version.projectId);
 
-                                            // add Modrinth information
-                                            dm.modrinthProject = project;
-                                            dm.modrinthVersion = version;
+                                            if (project != null) {
+                                                DisableableMod dm = sha1Hashes.get(entry.getKey());
 
-                                            if (!dm.isFromCurseForge()
-                                                || App.settings.defaultModPlatform == ModPlatform.MODRINTH) {
-                                                dm.name = project.title;
-                                                dm.description = project.description;
-                                            }
+                                                // add Modrinth information
+                                                dm.modrinthProject = project;
+                                                dm.modrinthVersion = version;
+
+                                                if (!dm.isFromCurseForge()
+                                                    || App.settings.defaultModPlatform == ModPlatform.MODRINTH) {
+                                                    dm.name = project.title;
+                                                    dm.description = project.description;
+                                                }
 
-                                            LogManager.debug(String.format(
-                                                "Found matching mod from Modrinth called %s with file %s",
-                                                project.title, version.name));
+                                                LogManager.debug(String.format(
+                                                    "Found matching mod from Modrinth called %s with file %s",
+                                                    project.title, version.name));
+                                            }
                                         }
                                     }
                                 }
                             }
                         }
                     }
-                }
 
-                mods.forEach(mod -> LogManager.info("Found extra mod with name of " + mod.file));
-                launcher.mods.addAll(mods);
-                save();
-                progressDialog.close();
+                    mods.forEach(mod -> LogManager.info("Found extra mod with name of " + mod.file));
+                    launcher.mods.addAll(mods);
+                    added = true;
+                    save();
+                    progressDialog.close();
+                } finally {
+                    // the new files weren't added, so the next scan needs to look at them again
+                    if (!added) {
+                        changedFiles.ifPresent(changes -> InstanceManager.restoreContentChanges(this, changes));
+                    }
+                }
             }));
 
             progressDialog.start();
@@ -3000,11 +3007,19 @@ public class Instance extends MinecraftVersion implements ModManagement {
                 return false;
             }
 
-            if (mod.disabled) {
-                return (mod.getDisabledFile(this) != null && !mod.getDisabledFile(this).exists());
-            } else {
-                return (mod.getFile(this) != null && !mod.getFile(this).exists());
+            File file = mod.disabled ? mod.getDisabledFile(this) : mod.getFile(this);
+
+            if (file == null) {
+                return false;
+            }
+
+            // a file in a watched folder which hasn't changed is still there
+            if (changedFiles.isPresent() && contentFolders.contains(file.toPath().getParent())
+                && !changedFiles.get().contains(file.toPath())) {
+                return false;
             }
+
+            return !file.exists();
         }).collect(Collectors.toList());
 
         if (!removedMods.isEmpty()) {
@@ -0,0 +1,93 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.data;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import com.atlauncher.Gsons;
+import com.atlauncher.annot.Json;
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.utils.FileUtils;
+
+/**
+ * The folder and name of each installed instance, saved whenever the instances change so that the instance to launch
+ * with --launch can be found at startup without reading every instance's full instance.json.
+ *
+ * Nothing else uses this. The instances list itself still needs every instance.json to be loaded, as the instance cards
+ * and everything behind them work with full instances.
+ */
+@Json
+public class InstanceIndex {
+    public List<Entry> instances = new ArrayList<>();
+
+    @Json
+    public static class Entry {
+        /**
+         * The name of the instance's folder in the instances directory.
+         */
+        public String folder;
+        public String name;
+
+        public String getSafeName() {
+            return name.replaceAll("[^A-Za-z0-9]", "");
+        }
+    }
+
+    /**
+     * Finds an instance by its name or safe name, ignoring case.
+     */
+    public Optional<Entry> find(String name) {
+        return instances.stream()
+            .filter(e -> e.name != null
+                && (e.name.equalsIgnoreCase(name) || e.getSafeName().equalsIgnoreCase(name)))
+            .findFirst();
+    }
+
+    /**
+     * Loads the index from the given file, or returns an empty index if it doesn't exist or can't be read.
+     */
+    public static InstanceIndex load(Path file) {
+        try {
+            InstanceIndex index = FileUtils.readJson(file, Gsons.DEFAULT, InstanceIndex.class);
+
+
+            if (index != null && index.instances != null) {
+                return index;
+            }
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to read the instance index", e, false);
+        }
+
+        return new InstanceIndex();
+    }
+
+    /**
+     * Saves the index to the given file.
+     */
+    public void save(Path file) {
+        try {
+            FileUtils.writeJsonAtomically(file, Gsons.DEFAULT, this);
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to save the instance index", e, false);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.data;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.atlauncher.Gsons;
+import com.atlauncher.annot.Json;
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.network.Download;
+import com.atlauncher.utils.FileHashCache;
+import com.atlauncher.utils.FileUtils;
+
+/**
+ * The launcher's own files as they were when they were last verified against files.json, so that on the next check
+ * only files which have changed on disk, or whose expected hash has changed, need to be read and hashed again.
+ */
+@Json
+public class LauncherFilesSnapshot {
+    public Map<String, Entry> files = new HashMap<>();
+
+    @Json
+    public static class Entry {
+        public String hash;
+        public long size;
+        public long lastModified;
+    }
+
+    /**
+     * Checks if the download's file is the same as when it was verified with the same expected hash.
+     */
+    public boolean isUnchanged(Download download) {
+        if (download.to == null) {
+            return false;
+        }
+
+        Entry entry = files.get(download.to.toAbsolutePath().normalize().toString());
+        BasicFileAttributes attributes = FileHashCache.attributes(download.to);
+
+        return entry != null && attributes != null && entry.hash != null && entry.hash.equals(download.getHash())
+            && entry.size == attributes.size() && entry.lastModified == attributes.lastModifiedTime().toMillis();
+    }
+
+    /**
+     * Records that the download's file has been verified as it is now.
+     */
+    public void record(Download download) {
+        BasicFileAttributes attributes = download.to == null ? null : FileHashCache.attributes(download.to);
+
+        if (attributes == null || download.getHash() == null) {
+            return;
+        }
+
+        Entry entry = new Entry();
+        entry.hash = download.getHash();
+        entry.size = attributes.size();
+        entry.lastModified = attributes.lastModifiedTime().toMillis();
+
+        files.put(download.to.toAbsolutePath().normalize().toString(), entry);
+    }
+
+    /**
+     * Loads the snapshot from the given file, or returns an empty snapshot if it doesn't exist or can't be read.
+     */
+    public static LauncherFilesSnapshot load(Path file) {
+        try {
+            LauncherFilesSnapshot snapshot = FileUtils.readJson(file, Gsons.DEFAULT, LauncherFilesSnapshot.class);
+
+
+            if (snapshot != null && snapshot.files != null) {
+                return snapshot;
+            }
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to read the launcher files snapshot", e, false);
+        }
+
+        return new LauncherFilesSnapshot();
+    }
+
+    /**
+     * Saves the snapshot to the given file.
+     */
+    public void save(Path file) {
+        try {
+            FileUtils.writeJsonAtomically(file, Gsons.DEFAULT, this);
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to save the launcher files snapshot", e, false);
+        }
+    }
+}
@@ -87,6 +87,7 @@ import com.atlauncher.managers.LogManager;
 import com.atlauncher.managers.MinecraftManager;
 import com.atlauncher.managers.PackManager;
 import com.atlauncher.managers.PerformanceManager;
+import com.atlauncher.managers.ServerManager;
 import com.atlauncher.network.Analytics;
 import com.atlauncher.network.analytics.AnalyticsEvent;
 import com.atlauncher.utils.ArchiveUtils;
@@ -700,6 +701,8 @@ public class Server implements ModManagement {
         } catch (JsonIOException | IOException e) {
             LogManager.logStackTrace(e);
         }
+
+        ServerManager.serverSaved(this);
     }
 
     @Override
@@ -84,6 +84,7 @@ public class Settings {
     public boolean disableCustomFonts = false;
     public boolean useNativeFilePicker = OS.isMac();
     public boolean useRecycleBin = true;
+    public boolean useArtifactStore = false;
     public boolean enableArmSupport = true;
 
     // Mods
@@ -112,6 +113,8 @@ public class Settings {
     public boolean disableLegacyLaunching = false;
     public boolean useSystemGlfw = false;
     public boolean useSystemOpenAl = false;
+    public boolean runProcessorsInWorker = false;
+    public int processorWorkerMaximumMemory = 2048;
 
     // Environment Variables
     public Map<String, String> environmentVariables = new HashMap<>();
@@ -119,6 +122,10 @@ public class Settings {
     // Network
     public int concurrentConnections = 8;
     public int connectionTimeout = 60;
+    public boolean enableSegmentedDownloads = true;
+    public int segmentedDownloadMinSizeMb = 32;
+    public int maxDownloadSegments = 4;
+    public boolean enableHttp2 = false;
     public String modrinthApiKey = null;
     public boolean enableProxy = false;
     public String proxyHost = "";
@@ -128,6 +135,8 @@ public class Settings {
 
     // Logging
     public boolean enableLogs = true;
+    public boolean spillLogsToDisk = false;
+    public int consoleMaxLines = 10000;
     public boolean enableAnalytics = true;
     public String analyticsClientId = UUID.randomUUID().toString();
 
@@ -307,6 +316,10 @@ public class Settings {
 
         validateConnectionTimeout();
 
+        validateSegmentedDownloads();
+
+        validateConsoleMaxLines();
+
         validateDateFormat();
 
         validateInstanceTitleFormat();
@@ -517,6 +530,28 @@ public class Settings {
         }
     }
 
+    private void validateSegmentedDownloads() {
+        if (segmentedDownloadMinSizeMb < 1) {
+            LogManager.warn("Tried to set the minimum size for segmented downloads to " + segmentedDownloadMinSizeMb
+                + " which is not valid! Must be at least 1. Setting back to default of 32!");
+            segmentedDownloadMinSizeMb = 32;
+        }
+
+        if (maxDownloadSegments < 1 || maxDownloadSegments > 16) {
+            LogManager.warn("Tried to set the maximum number of download segments to " + maxDownloadSegments
+                + " which is not valid! Must be between 1 and 16. Setting back to default of 4!");
+            maxDownloadSegments = 4;
+        }
+    }
+
+    private void validateConsoleMaxLines() {
+        if (consoleMaxLines < 1000 || consoleMaxLines > 1_000_000) {
+            LogManager.warn("Tried to set the maximum number of lines in the console to " + consoleMaxLines
+                + " which is not valid! Must be between 1000 and 1000000. Setting back to default of 10000!");
+            consoleMaxLines = 10000;
+        }
+    }
+
     private void validateDateFormat() {
         if (!Arrays.asList(Constants.DATE_FORMATS).contains(dateFormat)) {
             LogManager.warn("Tried to set the date format to " + dateFormat + " which is not valid! Setting "
@@ -52,6 +52,20 @@ public class VersionManifestVersion {
     public static DateTime release_1_18_1 = ISODateTimeFormat.dateTimeParser()
             .parseDateTime("2021-12-10T08:23:00+00:00");
 
+    /**
+     * Parsed from the release time the first time it's needed, as parsing is slow enough to matter when comparing
+     * every version.
+     */
+    private transient DateTime parsedReleaseTime;
+
+    public DateTime getReleaseTime() {
+        if (parsedReleaseTime == null) {
+            parsedReleaseTime = ISODateTimeFormat.dateTimeParser().parseDateTime(releaseTime);
+        }
+
+        return parsedReleaseTime;
+    }
+
     private boolean isBeforeOrEqualDate(DateTime a, DateTime b) {
         return a.isBefore(b) || a.isEqual(b);
     }
@@ -61,35 +75,35 @@ public class VersionManifestVersion {
     }
 
     public boolean is1132OrOlder() {
-        DateTime parsedReleaseTime = ISODateTimeFormat.dateTimeParser().parseDateTime(releaseTime);
+        DateTime parsedReleaseTime = getReleaseTime();
 
         // check if the release is before or equal to 1.13.2 release time
         return isBeforeOrEqualDate(parsedReleaseTime, release_1_13_2);
     }
 
     public boolean hasServer() {
-        DateTime parsedReleaseTime = ISODateTimeFormat.dateTimeParser().parseDateTime(releaseTime);
+        DateTime parsedReleaseTime = getReleaseTime();
 
         // check if the release is after 1.2.5 release time
         return isAfterOrEqualDate(parsedReleaseTime, release_1_2_5);
     }
 
     public boolean hasInitSettings() {
-        DateTime parsedReleaseTime = ISODateTimeFormat.dateTimeParser().parseDateTime(releaseTime);
+        DateTime parsedReleaseTime = getReleaseTime();
 
         // check if the release is after 18w48a release time
         return isAfterOrEqualDate(parsedReleaseTime, release_18w48a);
     }
 
     public boolean isLog4ShellExploitable() {
-        DateTime parsedReleaseTime = ISODateTimeFormat.dateTimeParser().parseDateTime(releaseTime);
+        DateTime parsedReleaseTime = getReleaseTime();
 
         // check if the release is after 1.7 and before 1.18.1 release time
         return isAfterOrEqualDate(parsedReleaseTime, release_1_7) && parsedReleaseTime.isBefore(release_1_18_1);
     }
 
     public String getLog4JFile() {
-        DateTime parsedReleaseTime = ISODateTimeFormat.dateTimeParser().parseDateTime(releaseTime);
+        DateTime parsedReleaseTime = getReleaseTime();
 
         // 1.7 to 1.11.2
         if (isAfterOrEqualDate(parsedReleaseTime, release_1_7) && parsedReleaseTime.isBefore(release_1_11_2)) {
@@ -100,7 +114,7 @@ public class VersionManifestVersion {
     }
 
     public String getLog4JFileForge() {
-        DateTime parsedReleaseTime = ISODateTimeFormat.dateTimeParser().parseDateTime(releaseTime);
+        DateTime parsedReleaseTime = getReleaseTime();
 
         // 1.7 to 1.12
         if (isAfterOrEqualDate(parsedReleaseTime, release_1_7) && parsedReleaseTime.isBefore(release_1_12)) {
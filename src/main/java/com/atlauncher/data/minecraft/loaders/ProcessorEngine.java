@@ -0,0 +1,360 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.data.minecraft.loaders;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import com.atlauncher.App;
+import com.atlauncher.FileSystem;
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.utils.Hashing;
+import com.atlauncher.utils.TaskGraph;
+import com.atlauncher.workers.InstanceInstaller;
+
+/**
+ * Runs the processors of a Forge/NeoForge install.
+ *
+ * Processors which don't share any files are run at the same time. Class loaders are reused between processors with
+ * the same classpath (such as the several tasks run from Forge's installer tools) and closed once all the processors
+ * have run, unless processors are set to run in a child JVM instead (see {@link ProcessorWorkerPool}). Processors
+ * which have been run before with the same arguments and inputs, and whose outputs are still as they left them, are
+ * skipped.
+ */
+public class ProcessorEngine {
+    /**
+     * Processors can use a lot of memory (such as when patching the Minecraft jar), so only run a few at once.
+     */
+    private static final int MAX_CONCURRENT_PROCESSORS = Math.max(1,
+        Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+
+    private static ProcessorOutputCache outputCache;
+
+    private final InstanceInstaller instanceInstaller;
+    private final Map<String, String> placeholders = new LinkedHashMap<>();
+    private final List<Step> steps = new ArrayList<>();
+    private final Map<List<File>, Deque<URLClassLoader>> idleClassLoaders = new HashMap<>();
+    private boolean closed = false;
+
+    @FunctionalInterface
+    public interface JobSupplier {
+        @Nullable
+        ProcessorJob get() throws IOException;
+    }
+
+    private static final class Step {
+        private final String name;
+        private final String jar;
+        private final Set<String> files;
+        private final JobSupplier jobSupplier;
+
+        private Step(String name, String jar, Set<String> files, JobSupplier jobSupplier) {
+            this.name = name;
+            this.jar = jar;
+            this.files = files;
+            this.jobSupplier = jobSupplier;
+        }
+    }
+
+    private static final class FileState {
+        private final long size;
+        private final long lastModified;
+
+        private FileState(File file) {
+            this.size = file.length();
+            this.lastModified = file.lastModified();
+        }
+
+        private boolean isSameAs(File file) {
+            return file.isFile() && file.length() == size && file.lastModified() == lastModified;
+        }
+    }
+
+    public ProcessorEngine(InstanceInstaller instanceInstaller) {
+        this.instanceInstaller = instanceInstaller;
+
+        // the temp and instance folders are different for every install, so leave them out of the output cache
+        this.placeholders.put("${temp}", instanceInstaller.temp.toAbsolutePath().toString());
+        this.placeholders.put("${root}", instanceInstaller.root.toAbsolutePath().toString());
+    }
+
+    private static synchronized ProcessorOutputCache getOutputCache() {
+        if (outputCache == null) {
+            outputCache = ProcessorOutputCache.load(FileSystem.PROCESSOR_OUTPUTS);
+        }
+
+        return outputCache;
+    }
+
+    /**
+     * Adds a processor, to be run after all the processors added before it which share any of its files.
+     *
+     * @param jar         the maven identifier of the processor's jar
+     * @param files       the files the processor reads or writes, or null if not known, in which case it runs on its
+     *                    own
+     * @param jobSupplier resolves the job to run, once the processors it depends on have run
+     */
+    public void add(String jar, @Nullable Set<String> files, JobSupplier jobSupplier) {
+        steps.add(new Step(steps.size() + ":" + jar, jar, files, jobSupplier));
+    }
+
+    /**
+     * Runs all the processors, cancelling the install if any of them fail. Once they've all finished, any class
+     * loaders created for them are closed.
+     */
+    public void run() {
+        TaskGraph graph = new TaskGraph("Processor", MAX_CONCURRENT_PROCESSORS);
+
+        for (int i = 0; i < steps.size(); i++) {
+            Step step = steps.get(i);
+            List<String> dependencies = new ArrayList<>();
+
+            for (Step earlier : steps.subList(0, i)) {
+                if (step.files == null || earlier.files == null || !Collections.disjoint(step.files, earlier.files)) {
+                    dependencies.add(earlier.name);
+                }
+            }
+
+            graph.add(step.name, () -> runStep(step), dependencies.toArray(new String[0]));
+        }
+
+        try {
+            graph.run(instanceInstaller::isCancelled);
+        } catch (Exception e) {
+            LogManager.logStackTrace(e);
+            LogManager.error("Failed to run processors");
+            instanceInstaller.cancel(true);
+        } finally {
+            // the graph only returns once every processor has stopped, even if interrupted, so nothing is still using
+            // the class loaders
+            closeClassLoaders();
+            LogManager.debug(graph.getTimeline());
+            getOutputCache().save(FileSystem.PROCESSOR_OUTPUTS);
+        }
+    }
+
+    private void runStep(Step step) {
+        if (instanceInstaller.isCancelled()) {
+            return;
+        }
+
+        ProcessorJob job;
+        try {
+            job = step.jobSupplier.get();
+        } catch (IOException e) {
+            LogManager.logStackTrace(e);
+            LogManager.error("Failed to process processor with jar " + step.jar);
+            instanceInstaller.cancel(true);
+            return;
+        }
+
+        if (job == null) {
+            return;
+        }
+
+        ProcessorOutputCache cache = getOutputCache();
+        if (cache.isUpToDate(job, placeholders)) {
+            LogManager.debug(
+                "No need to run processor " + job.jar + " since it's already been run with the same inputs");
+            return;
+        }
+
+        // any files in the arguments which the processor creates or changes are its outputs, the rest are inputs
+        Map<File, FileState> before = new LinkedHashMap<>();
+        for (String arg : job.args) {
+            File file = new File(arg);
+
+            if (file.isAbsolute() && !file.isDirectory()) {
+                before.put(file, file.isFile() ? new FileState(file) : null);
+            }
+        }
+
+        if (!(App.settings.runProcessorsInWorker ? runInWorker(job) : runInProcess(job))) {
+            instanceInstaller.cancel(true);
+            return;
+        }
+
+        ProcessorOutputCache.Entry entry = new ProcessorOutputCache.Entry();
+        for (File file : job.classpath) {
+            entry.inputs.put(ProcessorOutputCache.normalise(file.getAbsolutePath(), placeholders),
+                Hashing.sha1(file.toPath()).toString());
+        }
+
+        before.forEach((file, state) -> {
+            if (!file.isFile()) {
+                return;
+            }
+
+            String path = ProcessorOutputCache.normalise(file.getAbsolutePath(), placeholders);
+            String hash = Hashing.sha1(file.toPath()).toString();
+            if (state != null && state.isSameAs(file)) {
+                entry.inputs.put(path, hash);
+            } else {
+                entry.outputs.put(path, hash);
+            }
+        });
+
+        // without any outputs to check, there's no way to know the processor doesn't need running again
+        if (!entry.outputs.isEmpty()) {
+            cache.record(job, entry, placeholders);
+        }
+    }
+
+    /**
+     * Runs the processor in a child JVM, falling back to running it in this JVM if a worker can't be started.
+     *
+     * @return if the processor ran successfully
+     */
+    private boolean runInWorker(ProcessorJob job) {
+        try {
+            return ProcessorWorkerPool.run(job, instanceInstaller::isCancelled);
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to start a processor worker, running processor in the launcher instead",
+                e, false);
+            return runInProcess(job);
+        }
+    }
+
+    /**
+     * Runs the processor's main method in this JVM.
+     *
+     * @return if the processor ran successfully
+     */
+    private boolean runInProcess(ProcessorJob job) {
+        URLClassLoader cl;
+        try {
+            cl = borrowClassLoader(job.classpath);
+        } catch (IOException e) {
+            LogManager.logStackTrace(e);
+            LogManager.error("Failed to process processor with jar " + job.jar);
+            return false;
+        }
+
+        Thread currentThread = Thread.currentThread();
+        ClassLoader threadClassloader = currentThread.getContextClassLoader();
+        currentThread.setContextClassLoader(cl);
+
+        try {
+            LogManager.debug("Running processor with args \"" + String.join(" ", job.args) + "\"");
+            Class<?> cls = Class.forName(job.mainClass, true, cl);
+            Method main = cls.getDeclaredMethod("main", String[].class);
+            main.invoke(null, (Object) job.args.toArray(new String[0]));
+
+            return true;
+        } catch (InvocationTargetException ite) {
+            Throwable e = ite.getCause();
+            LogManager.logStackTrace(e);
+            LogManager.error(
+                "Failed to process processor with jar " + job.jar + " as there was an error invoking the jar");
+        } catch (Throwable e) {
+            LogManager.logStackTrace(e);
+            LogManager.error(
+                "Failed to process processor with jar " + job.jar + " as there was an error invoking the jar");
+        } finally {
+            currentThread.setContextClassLoader(threadClassloader);
+            returnClassLoader(job.classpath, cl);
+        }
+
+        return false;
+    }
+
+    /**
+     * Gets an idle class loader for the given classpath, or creates one. A class loader is only used by one processor
+     * at a time, as processors may keep state in static fields.
+     */
+    private URLClassLoader borrowClassLoader(List<File> classpath) throws IOException {
+        synchronized (idleClassLoaders) {
+            if (closed) {
+                throw new IOException("Processor engine has already finished");
+            }
+
+            Deque<URLClassLoader> idle = idleClassLoaders.get(classpath);
+
+            if (idle != null && !idle.isEmpty()) {
+                return idle.pop();
+            }
+        }
+
+        List<URL> urls = new ArrayList<>();
+        for (File file : classpath) {
+            urls.add(file.toURI().toURL());
+        }
+
+        return new URLClassLoader(urls.toArray(new URL[0]), getParentClassLoader());
+    }
+
+    private void returnClassLoader(List<File> classpath, URLClassLoader cl) {
+        synchronized (idleClassLoaders) {
+            if (closed) {
+                closeClassLoader(cl);
+                return;
+            }
+
+            idleClassLoaders.computeIfAbsent(classpath, c -> new ArrayDeque<>()).push(cl);
+        }
+    }
+
+    /**
+     * Processors get the platform class loader (on Java 9+) as their parent, so they don't see the launcher's classes.
+     */
+    private static @Nullable ClassLoader getParentClassLoader() {
+        try {
+            Method getPlatform = ClassLoader.class.getDeclaredMethod("getPlatformClassLoader");
+            return (ClassLoader) getPlatform.invoke(null);
+        } catch (Exception e) {
+            // ignored
+        }
+
+        return null;
+    }
+
+    /**
+     * Closes the class loaders not in use, with any still in use being closed once they're given back.
+     */
+    private void closeClassLoaders() {
+        synchronized (idleClassLoaders) {
+            closed = true;
+
+            idleClassLoaders.values().forEach(idle -> idle.forEach(ProcessorEngine::closeClassLoader));
+            idleClassLoaders.clear();
+        }
+    }
+
+    private static void closeClassLoader(URLClassLoader cl) {
+        try {
+            cl.close();
+        } catch (IOException e) {
+            LogManager.debug("Failed to close processor class loader: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.data.minecraft.loaders;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import javax.annotation.Nullable;
+
+import com.atlauncher.FileSystem;
+import com.atlauncher.utils.Utils;
+
+/**
+ * Works out which files a Forge/NeoForge processor works on from its arguments, for the {@link ProcessorEngine}.
+ */
+public final class ProcessorFiles {
+    private ProcessorFiles() {
+    }
+
+    /**
+     * The files the given processor arguments refer to, so that processors which don't share any files can be run at
+     * the same time.
+     *
+     * @param args the processor's arguments, before being resolved
+     * @param data resolves a data key (such as ROOT) to its value for the side being installed, or null if there's no
+     *             such key
+     * @return the files, or null if the processor works on whole folders or its files can't be worked out, and so must
+     *         run on its own
+     */
+    public static @Nullable Set<String> fromArgs(List<String> args, Function<String, String> data) {
+        // the DEOBF_REALMS task is given the whole libraries folder
+        if (args.contains("DEOBF_REALMS")) {
+            return null;
+        }
+
+        Set<String> files = new HashSet<>();
+
+        for (String arg : args) {
+            if (arg.contains("{ROOT}")) {
+                String root = data.apply("ROOT");
+                if (root == null) {
+                    return null;
+                }
+
+                arg = arg.replace("{ROOT}", root);
+            }
+
+            if (arg.isEmpty()) {
+                continue;
+            }
+
+            char start = arg.charAt(0);
+            char end = arg.charAt(arg.length() - 1);
+
+            if (start == '{' && end == '}') {
+                String value = data.apply(arg.substring(1, arg.length() - 1));
+                if (value == null) {
+                    return null;
+                }
+
+                // data can also be literal values, such as hashes or the side, which aren't files
+                if (!value.isEmpty() && (value.charAt(0) == '/' || new File(value).isAbsolute())) {
+                    files.add(value);
+                }
+            } else if (start == '[' && end == ']') {
+                files.add(Utils.convertMavenIdentifierToFile(arg.substring(1, arg.length() - 1),
+                    FileSystem.LIBRARIES.toFile()).getAbsolutePath());
+            } else if (new File(arg).isAbsolute()) {
+                files.add(arg);
+            }
+        }
+
+        return files;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.data.minecraft.loaders;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A single run of a Forge/NeoForge install processor, with its classpath and arguments fully resolved.
+ */
+public class ProcessorJob {
+    public final String jar;
+    public final String mainClass;
+    public final List<File> classpath;
+    public final List<String> args;
+
+    /**
+     * @param jar       the maven identifier of the processor's jar, used for logging
+     * @param mainClass the class whose main method runs the processor
+     * @param classpath the processor's jar followed by its libraries
+     * @param args      the arguments to pass to the main method
+     */
+    public ProcessorJob(String jar, String mainClass, List<File> classpath, List<String> args) {
+        this.jar = jar;
+        this.mainClass = mainClass;
+        this.classpath = Collections.unmodifiableList(classpath);
+        this.args = Collections.unmodifiableList(args);
+    }
+}
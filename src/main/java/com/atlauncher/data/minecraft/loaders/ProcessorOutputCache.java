@@ -0,0 +1,162 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.data.minecraft.loaders;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.atlauncher.Gsons;
+import com.atlauncher.annot.Json;
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.utils.FileUtils;
+import com.atlauncher.utils.Hashing;
+
+/**
+ * The files each processor run read and wrote, by the processor's jar and arguments, so that a processor doesn't need
+ * to be run again (such as when installing the same Forge version for another instance) if none of the files it
+ * read have changed and the files it wrote are still there as it left them.
+ *
+ * Paths inside folders which are different for every install (such as the install's temp folder) are stored with a
+ * placeholder in place of the folder, so runs from one install can be matched against runs from another.
+ */
+@Json
+public class ProcessorOutputCache {
+    /**
+     * The most runs to remember, dropping the least recently used ones beyond this.
+     */
+    private static final int MAX_ENTRIES = 256;
+
+    public Map<String, Entry> runs = new HashMap<>();
+
+    @Json
+    public static class Entry {
+        /**
+         * The sha1 of each file the processor read, including its classpath.
+         */
+        public Map<String, String> inputs = new HashMap<>();
+
+        /**
+         * The sha1 of each file the processor wrote.
+         */
+        public Map<String, String> outputs = new HashMap<>();
+
+        /**
+         * When the run was recorded or last matched.
+         */
+        public long lastUsed;
+    }
+
+    /**
+     * Replaces the given folders in a path (or argument containing one) with their placeholders.
+     *
+     * @param placeholders the folders which differ per install, by their placeholder
+     */
+    public static String normalise(String value, Map<String, String> placeholders) {
+        for (Map.Entry<String, String> placeholder : placeholders.entrySet()) {
+            value = value.replace(placeholder.getValue(), placeholder.getKey());
+        }
+
+        return value;
+    }
+
+    private static String resolve(String value, Map<String, String> placeholders) {
+        for (Map.Entry<String, String> placeholder : placeholders.entrySet()) {
+            value = value.replace(placeholder.getKey(), placeholder.getValue());
+        }
+
+        return value;
+    }
+
+    public static String getKey(ProcessorJob job, Map<String, String> placeholders) {
+        return Hashing.md5(job.jar + "\n" + job.mainClass + "\n"
+            + job.args.stream().map(arg -> normalise(arg, placeholders)).collect(Collectors.joining("\n")))
+            .toString();
+    }
+
+    /**
+     * Checks if the job has been run before with the same inputs, and its outputs haven't changed since.
+     */
+    public synchronized boolean isUpToDate(ProcessorJob job, Map<String, String> placeholders) {
+        Entry entry = runs.get(getKey(job, placeholders));
+
+        if (entry == null || entry.outputs.isEmpty() || !matches(entry.inputs, placeholders)
+            || !matches(entry.outputs, placeholders)) {
+            return false;
+        }
+
+        entry.lastUsed = System.currentTimeMillis();
+        return true;
+    }
+
+    private static boolean matches(Map<String, String> files, Map<String, String> placeholders) {
+        return files.entrySet().stream().allMatch(file -> {
+            Path path = Paths.get(resolve(file.getKey(), placeholders));
+
+            return Files.isRegularFile(path) && Hashing.sha1(path).toString().equals(file.getValue());
+        });
+    }
+
+    /**
+     * Records a run of the job. The entry's paths should already have been normalised with the same placeholders.
+     */
+    public synchronized void record(ProcessorJob job, Entry entry, Map<String, String> placeholders) {
+        entry.lastUsed = System.currentTimeMillis();
+        runs.put(getKey(job, placeholders), entry);
+
+        if (runs.size() > MAX_ENTRIES) {
+            runs.entrySet().stream().sorted(Comparator.comparingLong(e -> e.getValue().lastUsed))
+                .limit(runs.size() - MAX_ENTRIES).map(Map.Entry::getKey).collect(Collectors.toList())
+                .forEach(runs::remove);
+        }
+    }
+
+    /**
+     * Loads the cache from the given file, or returns an empty cache if it doesn't exist or can't be read.
+     */
+    public static ProcessorOutputCache load(Path file) {
+        try {
+            ProcessorOutputCache cache = FileUtils.readJson(file, Gsons.DEFAULT, ProcessorOutputCache.class);
+
+
+            if (cache != null && cache.runs != null) {
+                return cache;
+            }
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to read the processor output cache", e, false);
+        }
+
+        return new ProcessorOutputCache();
+    }
+
+    /**
+     * Saves the cache to the given file.
+     */
+    public synchronized void save(Path file) {
+        try {
+            FileUtils.writeJsonAtomically(file, Gsons.DEFAULT, this);
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to save the processor output cache", e, false);
+        }
+    }
+}
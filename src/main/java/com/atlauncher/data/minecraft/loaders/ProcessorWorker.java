@@ -0,0 +1,225 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.data.minecraft.loaders;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs processors in a separate JVM, started by {@link ProcessorWorkerPool}, so that they don't take up the launcher's
+ * heap or leave their classes behind in it.
+ *
+ * Jobs are read from stdin and the result of each is written to stdout, one at a time. Anything the processors
+ * themselves print to stdout goes to stderr instead. The worker exits once stdin is closed, so it never outlives the
+ * launcher.
+ *
+ * This runs outside of the launcher, so it must only use classes from the JDK.
+ */
+public final class ProcessorWorker {
+    /**
+     * Written by the worker once it's started, so the launcher knows it's talking to a worker.
+     */
+    static final int HELLO = 0x41544C50;
+
+    /**
+     * How many class loaders to keep around for reuse by processors with the same classpath.
+     */
+    private static final int MAX_CLASS_LOADERS = 8;
+
+    private final Map<List<File>, URLClassLoader> classLoaders = new LinkedHashMap<>(16, 0.75f, true);
+
+    ProcessorWorker() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        OutputStream stdout = new FileOutputStream(FileDescriptor.out);
+        System.setOut(System.err);
+
+        new ProcessorWorker().serve(new FileInputStream(FileDescriptor.in), stdout);
+        System.exit(0);
+    }
+
+    /**
+     * Runs jobs read from the given input, writing the result of each to the given output, until the input is closed.
+     */
+    void serve(InputStream in, OutputStream out) throws IOException {
+        DataInputStream input = new DataInputStream(new BufferedInputStream(in));
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(out));
+
+        output.writeInt(HELLO);
+        output.flush();
+
+        try {
+            while (true) {
+                ProcessorJob job;
+                try {
+                    job = readJob(input);
+                } catch (EOFException e) {
+                    return;
+                }
+
+                String error = run(job);
+                output.writeBoolean(error == null);
+                writeString(output, error == null ? "" : error);
+                output.flush();
+            }
+        } finally {
+            for (URLClassLoader cl : classLoaders.values()) {
+                cl.close();
+            }
+        }
+    }
+
+    /**
+     * Runs the processor's main method.
+     *
+     * @return null if the processor ran successfully, otherwise what went wrong
+     */
+    private String run(ProcessorJob job) {
+        Thread currentThread = Thread.currentThread();
+        ClassLoader threadClassloader = currentThread.getContextClassLoader();
+
+        try {
+            URLClassLoader cl = getClassLoader(job.classpath);
+            currentThread.setContextClassLoader(cl);
+
+            Class<?> cls = Class.forName(job.mainClass, true, cl);
+            Method main = cls.getDeclaredMethod("main", String[].class);
+            main.invoke(null, (Object) job.args.toArray(new String[0]));
+
+            return null;
+        } catch (InvocationTargetException ite) {
+            return getStackTrace(ite.getCause());
+        } catch (Throwable e) {
+            return getStackTrace(e);
+        } finally {
+            currentThread.setContextClassLoader(threadClassloader);
+        }
+    }
+
+    private URLClassLoader getClassLoader(List<File> classpath) throws IOException {
+        URLClassLoader cl = classLoaders.get(classpath);
+
+        if (cl == null) {
+            List<URL> urls = new ArrayList<>();
+            for (File file : classpath) {
+                urls.add(file.toURI().toURL());
+            }
+
+            cl = new URLClassLoader(urls.toArray(new URL[0]), getParentClassLoader());
+            classLoaders.put(classpath, cl);
+
+            if (classLoaders.size() > MAX_CLASS_LOADERS) {
+                Iterator<URLClassLoader> eldest = classLoaders.values().iterator();
+                eldest.next().close();
+                eldest.remove();
+            }
+        }
+
+        return cl;
+    }
+
+    private static ClassLoader getParentClassLoader() {
+        try {
+            Method getPlatform = ClassLoader.class.getDeclaredMethod("getPlatformClassLoader");
+            return (ClassLoader) getPlatform.invoke(null);
+        } catch (Exception e) {
+            // ignored
+        }
+
+        return null;
+    }
+
+    private static String getStackTrace(Throwable t) {
+        StringWriter stackTrace = new StringWriter();
+        t.printStackTrace(new PrintWriter(stackTrace));
+
+        return stackTrace.toString();
+    }
+
+    static void writeJob(DataOutputStream output, ProcessorJob job) throws IOException {
+        writeString(output, job.jar);
+        writeString(output, job.mainClass);
+
+        output.writeInt(job.classpath.size());
+        for (File file : job.classpath) {
+            writeString(output, file.getAbsolutePath());
+        }
+
+        output.writeInt(job.args.size());
+        for (String arg : job.args) {
+            writeString(output, arg);
+        }
+    }
+
+    static ProcessorJob readJob(DataInputStream input) throws IOException {
+        String jar = readString(input);
+        String mainClass = readString(input);
+
+        int classpathSize = input.readInt();
+        List<File> classpath = new ArrayList<>(classpathSize);
+        for (int i = 0; i < classpathSize; i++) {
+            classpath.add(new File(readString(input)));
+        }
+
+        int argsSize = input.readInt();
+        List<String> args = new ArrayList<>(argsSize);
+        for (int i = 0; i < argsSize; i++) {
+            args.add(readString(input));
+        }
+
+        return new ProcessorJob(jar, mainClass, classpath, args);
+    }
+
+    // DataOutputStream.writeUTF is limited to 64KB, which stack traces can go over
+    static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    static String readString(DataInputStream input) throws IOException {
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,355 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.data.minecraft.loaders;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import com.atlauncher.App;
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.utils.Java;
+import com.atlauncher.utils.OS;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Runs processors in child JVMs (see {@link ProcessorWorker}) rather than in the launcher.
+ *
+ * Each worker runs one processor at a time, so processors run at the same time (such as the client and server side
+ * tasks) each get their own worker, up to as many workers as fit in half of the system's memory. Workers are kept
+ * around after an install for a short while so that installing several instances in a row doesn't pay for starting and
+ * warming up a JVM each time.
+ */
+public final class ProcessorWorkerPool {
+    private static final long IDLE_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(2);
+    private static final long START_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(1);
+    private static final long PROCESSOR_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(10);
+    private static final long POLL_INTERVAL_MS = 50;
+    private static final int MAX_WORKERS = 4;
+    private static final int MIN_MEMORY_MB = 512;
+
+    private static final Deque<Worker> IDLE = new ArrayDeque<>();
+    private static final List<Worker> ALL = new ArrayList<>();
+
+    /**
+     * Workers which are starting up, which aren't in {@link #ALL} yet but still count towards the maximum. Guarded by
+     * {@link #IDLE}.
+     */
+    private static int starting = 0;
+
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setNameFormat("ProcessorWorkerReaper").setDaemon(true).build());
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(ProcessorWorkerPool::shutdown));
+    }
+
+    private ProcessorWorkerPool() {
+    }
+
+    private static final class Worker {
+        private final Process process;
+        private final DataInputStream input;
+        private final DataOutputStream output;
+        private long lastUsed;
+
+        private Worker(Process process) {
+            this.process = process;
+            this.input = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+            this.output = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+        }
+
+        private void destroy() {
+            process.destroy();
+        }
+    }
+
+    /**
+     * Runs the job in a worker, starting a new worker if there's none free, or waiting for one to become free if
+     * there's already as many workers as there's memory for.
+     *
+     * @param cancelled checked while waiting on the worker, which is stopped if this returns true
+     * @return if the processor ran successfully
+     * @throws IOException if a worker couldn't be started
+     */
+    public static boolean run(ProcessorJob job, BooleanSupplier cancelled) throws IOException {
+        Worker worker;
+        try {
+            worker = borrow(cancelled);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        if (worker == null) {
+            return false;
+        }
+
+        boolean success;
+        String error;
+        try {
+            LogManager.debug("Running processor in worker with args \"" + String.join(" ", job.args) + "\"");
+            ProcessorWorker.writeJob(worker.output, job);
+            worker.output.flush();
+
+            if (!awaitResponse(worker, PROCESSOR_TIMEOUT_MS, cancelled)) {
+                LogManager.warn("Stopping processor worker running processor with jar " + job.jar
+                    + (cancelled.getAsBoolean() ? " as the install was cancelled" : " as it took too long"));
+                discard(worker);
+                return false;
+            }
+
+            success = worker.input.readBoolean();
+            error = ProcessorWorker.readString(worker.input);
+        } catch (InterruptedException e) {
+            discard(worker);
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (IOException e) {
+            // the worker died (such as running out of memory), so don't reuse it
+            LogManager.logStackTrace("Processor worker stopped while running processor with jar " + job.jar, e, false);
+            discard(worker);
+            return false;
+        }
+
+        giveBack(worker);
+
+        if (!success) {
+            LogManager.error(error);
+            LogManager.error(
+                "Failed to process processor with jar " + job.jar + " as there was an error invoking the jar");
+        }
+
+        return success;
+    }
+
+    /**
+     * Waits until the worker has started sending its response, without blocking on the read itself so that the wait
+     * can be given up on.
+     *
+     * @return if there's a response to read, or the worker has stopped (so reading will fail), rather than the wait
+     *         being cancelled or timing out
+     */
+    private static boolean awaitResponse(Worker worker, long timeoutMs, BooleanSupplier cancelled)
+        throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+
+        while (worker.input.available() == 0 && worker.process.isAlive()) {
+            if (cancelled.getAsBoolean() || System.nanoTime() - deadline > 0) {
+                return false;
+            }
+
+            Thread.sleep(POLL_INTERVAL_MS);
+        }
+
+        return true;
+    }
+
+    /**
+     * @return a worker to run a processor in, or null if cancelled while waiting for one
+     */
+    private static Worker borrow(BooleanSupplier cancelled) throws IOException, InterruptedException {
+        int maxWorkers = getMaxWorkers();
+
+        synchronized (IDLE) {
+            while (IDLE.isEmpty() && ALL.size() + starting >= maxWorkers) {
+                if (cancelled.getAsBoolean()) {
+                    return null;
+                }
+
+                IDLE.wait(POLL_INTERVAL_MS * 10);
+            }
+
+            Worker worker = IDLE.poll();
+
+            if (worker != null) {
+                return worker;
+            }
+
+            starting++;
+        }
+
+        Worker worker = null;
+        try {
+            worker = start(cancelled);
+        } finally {
+            synchronized (IDLE) {
+                starting--;
+
+                if (worker != null) {
+                    ALL.add(worker);
+                }
+
+                IDLE.notifyAll();
+            }
+        }
+
+        return worker;
+    }
+
+    private static void giveBack(Worker worker) {
+        synchronized (IDLE) {
+            worker.lastUsed = System.currentTimeMillis();
+            IDLE.push(worker);
+            IDLE.notifyAll();
+        }
+
+        SCHEDULER.schedule(ProcessorWorkerPool::reapIdleWorkers, IDLE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private static void discard(Worker worker) {
+        synchronized (IDLE) {
+            ALL.remove(worker);
+            IDLE.notifyAll();
+        }
+
+        worker.destroy();
+    }
+
+    private static void reapIdleWorkers() {
+        long idleSince = System.currentTimeMillis() - IDLE_TIMEOUT_MS;
+
+        synchronized (IDLE) {
+            for (Iterator<Worker> it = IDLE.iterator(); it.hasNext();) {
+                Worker worker = it.next();
+
+                if (worker.lastUsed <= idleSince) {
+                    it.remove();
+                    ALL.remove(worker);
+                    worker.destroy();
+                }
+            }
+        }
+    }
+
+    private static void shutdown() {
+        synchronized (IDLE) {
+            ALL.forEach(Worker::destroy);
+            ALL.clear();
+            IDLE.clear();
+        }
+    }
+
+    /**
+     * The heap each worker is given, which is the setting but no more than half of the system's memory.
+     */
+    private static int getWorkerMemory() {
+        int memory = Math.max(MIN_MEMORY_MB, App.settings.processorWorkerMaximumMemory);
+        int available = OS.getSafeMaximumRam();
+
+        return available <= 0 ? memory : Math.max(MIN_MEMORY_MB, Math.min(memory, available));
+    }
+
+    /**
+     * How many workers can be running at once, so that between them they use no more than half of the system's
+     * memory, or just one if the system's memory isn't known.
+     */
+    private static int getMaxWorkers() {
+        int available = OS.getSafeMaximumRam();
+
+        if (available <= 0) {
+            return 1;
+        }
+
+        return Math.max(1, Math.min(MAX_WORKERS, available / getWorkerMemory()));
+    }
+
+    private static Worker start(BooleanSupplier cancelled) throws IOException, InterruptedException {
+        String classpath;
+        try {
+            classpath = Paths.get(ProcessorWorker.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+                .toString();
+        } catch (URISyntaxException | RuntimeException e) {
+            throw new IOException("Couldn't find the launcher's classpath", e);
+        }
+
+        List<String> arguments = new ArrayList<>();
+        arguments.add(Java.getPathToSystemJavaExecutable());
+        arguments.add("-Xmx" + getWorkerMemory() + "M");
+        // processors are short bursts of work through code that's mostly run once, so compiling with just C1 gets the
+        // worker up to speed sooner than waiting on C2 compiles which would rarely pay off
+        arguments.add("-XX:+TieredCompilation");
+        arguments.add("-XX:TieredStopAtLevel=1");
+        arguments.add("-Djava.awt.headless=true");
+        arguments.add("-Dfile.encoding=UTF-8");
+        arguments.add("-cp");
+        arguments.add(classpath);
+        arguments.add(ProcessorWorker.class.getName());
+
+        LogManager.debug("Starting processor worker with arguments \"" + String.join(" ", arguments) + "\"");
+        Process process = new ProcessBuilder(arguments).start();
+        logOutput(process);
+
+        Worker worker = new Worker(process);
+        try {
+            if (!awaitResponse(worker, START_TIMEOUT_MS, cancelled)) {
+                worker.destroy();
+
+                if (cancelled.getAsBoolean()) {
+                    return null;
+                }
+
+                throw new IOException("Processor worker didn't start in time");
+            }
+
+            if (worker.input.readInt() != ProcessorWorker.HELLO) {
+                throw new IOException("Processor worker sent an unexpected greeting");
+            }
+        } catch (IOException | InterruptedException e) {
+            worker.destroy();
+            throw e;
+        }
+
+        return worker;
+    }
+
+    /**
+     * Logs anything printed by the worker, which includes anything printed by the processors it runs.
+     */
+    private static void logOutput(Process process) {
+        Thread thread = new Thread(() -> {
+            try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    LogManager.debug("[ProcessorWorker] " + line);
+                }
+            } catch (IOException e) {
+                // the worker has stopped
+            }
+        }, "ProcessorWorkerOutput");
+        thread.setDaemon(true);
+        thread.start();
+    }
+}
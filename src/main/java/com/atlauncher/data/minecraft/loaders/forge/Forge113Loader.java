@@ -32,6 +32,7 @@ import com.atlauncher.Gsons;
 import com.atlauncher.data.minecraft.ArgumentRule;
 import com.atlauncher.data.minecraft.Arguments;
 import com.atlauncher.data.minecraft.Library;
+import com.atlauncher.data.minecraft.loaders.ProcessorEngine;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.utils.FileUtils;
 import com.atlauncher.utils.Utils;
@@ -96,17 +97,12 @@ public class Forge113Loader extends ForgeLoader {
     public void runProcessors() {
         ForgeInstallProfile installProfile = this.getInstallProfile();
 
-        installProfile.processors.forEach(processor -> {
-            if (!instanceInstaller.isCancelled()) {
-                try {
-                    processor.process(installProfile, this.tempDir, instanceInstaller);
-                } catch (IOException e) {
-                    LogManager.logStackTrace(e);
-                    LogManager.error("Failed to process processor with jar " + processor.getJar());
-                    instanceInstaller.cancel(true);
-                }
-            }
-        });
+        ProcessorEngine engine = new ProcessorEngine(instanceInstaller);
+        installProfile.processors.forEach(processor -> engine.add(processor.getJar(),
+            processor.getFiles(installProfile, instanceInstaller),
+            () -> processor.getJob(installProfile, this.tempDir, instanceInstaller)));
+
+        engine.run();
     }
 
     @Override
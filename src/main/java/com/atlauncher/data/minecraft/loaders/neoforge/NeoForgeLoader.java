@@ -37,6 +37,7 @@ import com.atlauncher.data.minecraft.Arguments;
 import com.atlauncher.data.minecraft.Library;
 import com.atlauncher.data.minecraft.loaders.Loader;
 import com.atlauncher.data.minecraft.loaders.LoaderVersion;
+import com.atlauncher.data.minecraft.loaders.ProcessorEngine;
 import com.atlauncher.graphql.GetNeoForgeLoaderVersionsForMinecraftVersionQuery;
 import com.atlauncher.managers.ConfigManager;
 import com.atlauncher.managers.LogManager;
@@ -204,17 +205,12 @@ public class NeoForgeLoader implements Loader {
     public void runProcessors() {
         NeoForgeInstallProfile installProfile = this.getInstallProfile();
 
-        installProfile.processors.forEach(processor -> {
-            if (!instanceInstaller.isCancelled()) {
-                try {
-                    processor.process(installProfile, this.tempDir, instanceInstaller);
-                } catch (IOException e) {
-                    LogManager.logStackTrace(e);
-                    LogManager.error("Failed to process processor with jar " + processor.getJar());
-                    instanceInstaller.cancel(true);
-                }
-            }
-        });
+        ProcessorEngine engine = new ProcessorEngine(instanceInstaller);
+        installProfile.processors.forEach(processor -> engine.add(processor.getJar(),
+            processor.getFiles(installProfile, instanceInstaller),
+            () -> processor.getJob(installProfile, this.tempDir, instanceInstaller)));
+
+        engine.run();
     }
 
     @Override
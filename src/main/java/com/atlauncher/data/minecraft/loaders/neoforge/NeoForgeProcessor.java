@@ -19,20 +19,21 @@ package com.atlauncher.data.minecraft.loaders.neoforge;
 
 import java.io.File;
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.net.URL;
-import java.net.URLClassLoader;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.jar.Attributes;
 import java.util.jar.JarFile;
 
+import javax.annotation.Nullable;
+
 import com.atlauncher.FileSystem;
 import com.atlauncher.annot.Json;
+import com.atlauncher.data.minecraft.loaders.ProcessorFiles;
+import com.atlauncher.data.minecraft.loaders.ProcessorJob;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.utils.Hashing;
 import com.atlauncher.utils.Utils;
@@ -66,11 +67,17 @@ public class NeoForgeProcessor {
         return this.outputs != null && !this.outputs.isEmpty();
     }
 
-    public void process(NeoForgeInstallProfile installProfile, File extractedDir, InstanceInstaller instanceInstaller)
-            throws IOException {
+    /**
+     * Resolves the jar, classpath and arguments to run this processor with.
+     *
+     * @return the job to run, or null if the processor doesn't need to run or can't be run (in which case the install
+     *         is cancelled)
+     */
+    public @Nullable ProcessorJob getJob(NeoForgeInstallProfile installProfile, File extractedDir,
+            InstanceInstaller instanceInstaller) throws IOException {
         // delete any outputs that are invalid. They still need to run
         if (!this.needToRun(installProfile, extractedDir, instanceInstaller)) {
-            return;
+            return null;
         }
 
         File librariesDirectory = instanceInstaller.isServer ? instanceInstaller.root.resolve("libraries").toFile()
@@ -81,7 +88,7 @@ public class NeoForgeProcessor {
         if (!jarPath.exists() || !jarPath.isFile()) {
             LogManager.error("Failed to process processor with jar " + this.jar + " as the jar doesn't exist");
             instanceInstaller.cancel(true);
-            return;
+            return null;
         }
 
         JarFile jarFile = new JarFile(jarPath);
@@ -92,11 +99,11 @@ public class NeoForgeProcessor {
         if (mainClass == null || mainClass.isEmpty()) {
             LogManager.error("Failed to process processor with jar " + this.jar + " as the mainclass wasn't found");
             instanceInstaller.cancel(true);
-            return;
+            return null;
         }
 
-        List<URL> classpath = new ArrayList<>();
-        classpath.add(jarPath.toURI().toURL());
+        List<File> classpath = new ArrayList<>();
+        classpath.add(jarPath);
 
         for (String classpathItem : this.getClasspath()) {
             LogManager.debug("Adding classpath " + classpathItem);
@@ -106,10 +113,10 @@ public class NeoForgeProcessor {
                 LogManager.error("Failed to process processor with jar " + this.jar
                         + " as the classpath item with file " + classpathFile.getAbsolutePath() + " doesn't exist");
                 instanceInstaller.cancel(true);
-                return;
+                return null;
             }
 
-            classpath.add(classpathFile.toURI().toURL());
+            classpath.add(classpathFile);
         }
 
         List<String> args = new ArrayList<>();
@@ -133,7 +140,7 @@ public class NeoForgeProcessor {
                     LogManager.error("Failed to process processor with jar " + this.jar + " as the argument with name "
                             + arg + " as the data item with key " + key + " was empty or null");
                     instanceInstaller.cancel(true);
-                    return;
+                    return null;
                 }
 
                 LogManager.debug("Got value of " + value);
@@ -153,7 +160,7 @@ public class NeoForgeProcessor {
                             LogManager.error("Failed to process argument with value of " + value + " as the local file "
                                     + localFile.getAbsolutePath() + " doesn't exist");
                             instanceInstaller.cancel(true);
-                            return;
+                            return null;
                         }
 
                         args.add(localFile.getAbsolutePath());
@@ -170,7 +177,7 @@ public class NeoForgeProcessor {
                     LogManager.error("Failed to process argument with value of " + arg + " as the file "
                             + artifactFile.getAbsolutePath() + " doesn't exist");
                     instanceInstaller.cancel(true);
-                    return;
+                    return null;
                 }
 
                 args.add(artifactFile.getAbsolutePath());
@@ -188,38 +195,25 @@ public class NeoForgeProcessor {
             args.add(FileSystem.LIBRARIES.toFile().getAbsolutePath());
         }
 
-        ClassLoader parentClassLoader = null;
-        try {
-            Method getPlatform = ClassLoader.class.getDeclaredMethod("getPlatformClassLoader");
-            parentClassLoader = (ClassLoader) getPlatform.invoke(null);
-        } catch (Exception e) {
-            // ignored
-        }
+        return new ProcessorJob(this.jar, mainClass, classpath, args);
+    }
 
-        ClassLoader cl = new URLClassLoader(classpath.toArray(new URL[0]), parentClassLoader);
-        Thread currentThread = Thread.currentThread();
-        ClassLoader threadClassloader = currentThread.getContextClassLoader();
-        currentThread.setContextClassLoader(cl);
-
-        try {
-            LogManager.debug("Running processor with args \"" + String.join(" ", args) + "\"");
-            Class<?> cls = Class.forName(mainClass, true, cl);
-            Method main = cls.getDeclaredMethod("main", String[].class);
-            main.invoke(null, (Object) args.toArray(new String[args.size()]));
-        } catch (InvocationTargetException ite) {
-            Throwable e = ite.getCause();
-            LogManager.logStackTrace(e);
-            LogManager.error(
-                    "Failed to process processor with jar " + this.jar + " as there was an error invoking the jar");
-            instanceInstaller.cancel(true);
-        } catch (Throwable e) {
-            LogManager.logStackTrace(e);
-            LogManager.error(
-                    "Failed to process processor with jar " + this.jar + " as there was an error invoking the jar");
-            instanceInstaller.cancel(true);
-        } finally {
-            currentThread.setContextClassLoader(threadClassloader);
-        }
+    /**
+     * The files this processor's arguments refer to, so that processors which don't share any files can be run at the
+     * same time.
+     *
+     * @return the files, or null if the processor must run on its own
+     * @see ProcessorFiles#fromArgs
+     */
+    public @Nullable Set<String> getFiles(NeoForgeInstallProfile installProfile, InstanceInstaller instanceInstaller) {
+        File librariesDirectory = instanceInstaller.isServer ? instanceInstaller.root.resolve("libraries").toFile()
+                : FileSystem.LIBRARIES.toFile();
+
+        return ProcessorFiles.fromArgs(this.getArgs(), key -> {
+            Data data = installProfile.data.get(key);
+
+            return data == null ? null : data.getValue(!instanceInstaller.isServer, librariesDirectory);
+        });
     }
 
     public boolean needToRun(NeoForgeInstallProfile installProfile, File extractedDir,
@@ -18,6 +18,10 @@
 package com.atlauncher.evnt;
 
 import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import javax.swing.UIManager;
 
@@ -35,6 +39,7 @@ public final class LogEvent {
     public final LogType type;
     public final String body;
     public final int meta;
+    private final List<LogEvent> batch;
 
     public LogEvent(LogType type, String body) {
         this(type, body, CONSOLE | LOG4J);
@@ -54,15 +59,69 @@ public final class LogEvent {
         this.body = (!body.endsWith("\n") ? body + "\n" : body);
 
         this.meta = meta;
+        this.batch = null;
+    }
+
+    private LogEvent(List<LogEvent> batch) {
+        this.type = LogType.INFO;
+        this.body = "";
+        this.meta = 0;
+        this.batch = batch;
+    }
+
+    /**
+     * Groups many events into one, so they can be handed to the logging thread together and are posted in order.
+     */
+    public static LogEvent batch(List<LogEvent> events) {
+        return new LogEvent(events);
+    }
+
+    public boolean isBatch() {
+        return this.batch != null;
+    }
+
+    /**
+     * The events this is made up of, which is just itself unless it's a batch.
+     */
+    public List<LogEvent> getEvents() {
+        return this.batch != null ? this.batch : Collections.singletonList(this);
     }
 
     public void post(Logger logger) {
+        postAll(getEvents(), logger);
+    }
+
+    /**
+     * Posts the given events in order, writing everything going to the console in one go.
+     */
+    public static void postAll(List<LogEvent> events, Logger logger) {
+        List<Console.Segment> segments = new ArrayList<>();
+
+        for (LogEvent event : events) {
+            for (LogEvent single : event.getEvents()) {
+                single.addConsoleSegments(segments);
+            }
+        }
+
+        if (!segments.isEmpty()) {
+            App.console.console.write(segments);
+        }
+
+        for (LogEvent event : events) {
+            for (LogEvent single : event.getEvents()) {
+                single.postToLog4j(logger);
+            }
+        }
+    }
+
+    private void addConsoleSegments(List<Console.Segment> segments) {
         if ((this.meta & CONSOLE) == CONSOLE) {
-            Console c = App.console.console;
-            c.setColor(this.type.color()).setBold(true).write("[" + Timestamper.now() + "] ");
-            c.setColor(UIManager.getColor("EditorPane.foreground")).setBold(false).write(this.body);
+            segments.add(new Console.Segment(this.type.color(), true, "[" + Timestamper.now() + "] "));
+            segments.add(new Console.Segment(UIManager.getColor("EditorPane.foreground"), false, this.body));
         }
+    }
 
+    private void postToLog4j(Logger logger) {
         if ((this.meta & LOG4J) == LOG4J) {
             switch (type) {
                 case WARN: {
@@ -88,6 +147,10 @@ public final class LogEvent {
 
     @Override
     public String toString() {
+        if (this.batch != null) {
+            return this.batch.stream().map(LogEvent::toString).collect(Collectors.joining());
+        }
+
         return "[" + Timestamper.now() + "] [" + this.type.name() + "]" + this.body;
     }
 
@@ -27,6 +27,8 @@ import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.io.IOException;
+import java.util.List;
 
 import javax.swing.JFrame;
 import javax.swing.JMenuItem;
@@ -36,6 +38,7 @@ import javax.swing.JScrollPane;
 import org.mini2Dx.gettext.GetText;
 
 import com.atlauncher.App;
+import com.atlauncher.FileSystem;
 import com.atlauncher.constants.Constants;
 import com.atlauncher.data.ConsoleState;
 import com.atlauncher.evnt.listener.RelocalizationListener;
@@ -44,6 +47,7 @@ import com.atlauncher.evnt.manager.RelocalizationManager;
 import com.atlauncher.gui.components.Console;
 import com.atlauncher.gui.components.ConsoleBottomBar;
 import com.atlauncher.managers.LogManager;
+import com.atlauncher.utils.ConsoleHistory;
 import com.atlauncher.utils.Utils;
 
 public class LauncherConsole extends JFrame implements RelocalizationListener {
@@ -76,6 +80,8 @@ public class LauncherConsole extends JFrame implements RelocalizationListener {
         }
 
         console = new Console();
+        console.setMaxLines(App.settings.consoleMaxLines);
+        console.setHistory(new ConsoleHistory(FileSystem.LOGS.resolve("console.log")));
 
         setupContextMenu(); // Setup the right click menu
 
@@ -153,7 +159,16 @@ public class LauncherConsole extends JFrame implements RelocalizationListener {
      * @return String Console Text
      */
     public String getLog() {
-        return console.getText();
+        return console.getLog();
+    }
+
+    /**
+     * Searches everything written to the console this session, including lines no longer shown in it.
+     *
+     * @return the most recent matching lines, oldest first
+     */
+    public List<String> searchLog(String query, int maxResults) throws IOException {
+        return console.getHistory().search(query, maxResults);
     }
 
     public void showKillMinecraft() {
@@ -172,7 +187,7 @@ public class LauncherConsole extends JFrame implements RelocalizationListener {
     }
 
     public void clearConsole() {
-        console.setText(null);
+        console.clear();
     }
 
     @Override
@@ -18,13 +18,19 @@
 package com.atlauncher.gui.components;
 
 import java.awt.Color;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import javax.swing.JTextPane;
+import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 import javax.swing.text.AbstractDocument;
 import javax.swing.text.BadLocationException;
 import javax.swing.text.BoxView;
 import javax.swing.text.ComponentView;
+import javax.swing.text.Document;
 import javax.swing.text.Element;
 import javax.swing.text.IconView;
 import javax.swing.text.LabelView;
@@ -36,10 +42,30 @@ import javax.swing.text.View;
 import javax.swing.text.ViewFactory;
 
 import com.atlauncher.App;
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.utils.ConsoleHistory;
 
+/**
+ * The launcher's console.
+ *
+ * Writes can come from any thread. They're queued up and applied to the document together on the event dispatch
+ * thread, so a burst of output only causes one relayout. The document only keeps the most recent lines, trimming the
+ * oldest once it goes over the limit, with everything written this session also kept in a {@link ConsoleHistory} on
+ * disk.
+ */
 public final class Console extends JTextPane {
+    public static final int DEFAULT_MAX_LINES = 10_000;
+
     private final SimpleAttributeSet attrs = new SimpleAttributeSet();
 
+    private final Object pendingLock = new Object();
+    private List<Segment> pending = new ArrayList<>();
+    private boolean flushScheduled = false;
+
+    private volatile int maxLines = DEFAULT_MAX_LINES;
+    private volatile boolean trimmed = false;
+    private ConsoleHistory history = null;
+
     public Console() {
         this.setEditable(false);
         this.setEditorKit(new WrapEditorKit());
@@ -56,19 +82,182 @@ public final class Console extends JTextPane {
         return this;
     }
 
+    /**
+     * Sets the most lines to keep in the console. Older lines are trimmed once it goes over this.
+     */
+    public void setMaxLines(int maxLines) {
+        this.maxLines = maxLines;
+    }
+
+    /**
+     * Sets where to keep everything written to the console, so it's still available once trimmed.
+     */
+    public void setHistory(ConsoleHistory history) {
+        this.history = history;
+    }
+
+    public ConsoleHistory getHistory() {
+        return history;
+    }
+
+    /**
+     * If lines have been trimmed from the console since it was last cleared.
+     */
+    public boolean hasTrimmedLines() {
+        return trimmed;
+    }
+
     @Override
     public boolean getScrollableTracksViewportWidth() {
         return true;
     }
 
     public void write(String str) {
+        Color color = (Color) this.attrs.getAttribute(StyleConstants.Foreground);
+
+        write(Collections.singletonList(new Segment(color, StyleConstants.isBold(this.attrs), str)));
+    }
+
+    /**
+     * Writes many pieces of differently styled text. This can be called from any thread, and the text is added to the
+     * console on the event dispatch thread along with anything else written before then.
+     */
+    public void write(List<Segment> segments) {
+        if (history != null) {
+            StringBuilder text = new StringBuilder();
+            for (Segment segment : segments) {
+                text.append(segment.text);
+            }
+            history.append(text.toString());
+        }
+
+        synchronized (pendingLock) {
+            pending.addAll(segments);
+
+            if (flushScheduled) {
+                return;
+            }
+
+            flushScheduled = true;
+        }
+
+        SwingUtilities.invokeLater(this::flush);
+    }
+
+    private void flush() {
+        List<Segment> segments;
+        synchronized (pendingLock) {
+            segments = pending;
+            pending = new ArrayList<>();
+            flushScheduled = false;
+        }
+
+        Document document = this.getDocument();
+
         try {
-            this.getDocument().insertString(this.getDocument().getLength(), str, this.attrs);
-            this.setCaretPosition(this.getDocument().getLength());
+            SimpleAttributeSet segmentAttrs = new SimpleAttributeSet();
+
+            for (int i = firstSegmentToKeep(segments); i < segments.size(); i++) {
+                Segment segment = segments.get(i);
+
+                if (segment.color == null) {
+                    segmentAttrs.removeAttribute(StyleConstants.Foreground);
+                } else {
+                    StyleConstants.setForeground(segmentAttrs, segment.color);
+                }
+                StyleConstants.setBold(segmentAttrs, segment.bold);
+
+                document.insertString(document.getLength(), segment.text, segmentAttrs);
+            }
+
+            trim(document);
+
+            this.setCaretPosition(document.getLength());
         } catch (BadLocationException ex) {
             ex.printStackTrace(System.err);
         }
     }
+
+    /**
+     * When more is written at once than the console can hold, skips the pieces that would be trimmed straight away.
+     */
+    private int firstSegmentToKeep(List<Segment> segments) {
+        int lines = 0;
+
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            String text = segments.get(i).text;
+
+            for (int j = 0; j < text.length(); j++) {
+                if (text.charAt(j) == '\n') {
+                    lines++;
+                }
+            }
+
+            if (lines > maxLines) {
+                trimmed = true;
+                return i + 1;
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * Removes the oldest lines once there's more than the maximum. A tenth of the maximum is removed beyond what's
+     * needed, so that a steady stream of output doesn't trim (and relayout) on every write.
+     */
+    private void trim(Document document) throws BadLocationException {
+        Element root = document.getDefaultRootElement();
+
+        // the document always ends with an empty line after the last newline
+        int lines = root.getElementCount() - 1;
+        if (lines <= maxLines) {
+            return;
+        }
+
+        int linesToRemove = Math.min(lines, lines - maxLines + maxLines / 10);
+        document.remove(0, root.getElement(linesToRemove - 1).getEndOffset());
+        trimmed = true;
+    }
+
+    /**
+     * Clears the console, including anything written but not yet shown. The history on disk is kept.
+     */
+    public void clear() {
+        synchronized (pendingLock) {
+            pending.clear();
+        }
+
+        this.setText(null);
+        trimmed = false;
+    }
+
+    /**
+     * Everything in the console, or if lines have been trimmed, everything written this session.
+     */
+    public String getLog() {
+        if (trimmed && history != null && history.isComplete()) {
+            try {
+                return history.read();
+            } catch (IOException e) {
+                LogManager.logStackTrace("Failed to read the console history", e);
+            }
+        }
+
+        return this.getText();
+    }
+
+    public static final class Segment {
+        public final Color color;
+        public final boolean bold;
+        public final String text;
+
+        public Segment(Color color, boolean bold, String text) {
+            this.color = color;
+            this.bold = bold;
+            this.text = text;
+        }
+    }
 }
 
 // https://stackoverflow.com/a/13375811
@@ -18,14 +18,19 @@
 package com.atlauncher.gui.components;
 
 import java.awt.BorderLayout;
+import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.Toolkit;
 import java.awt.datatransfer.Clipboard;
 import java.awt.datatransfer.StringSelection;
+import java.io.IOException;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 
 import javax.swing.JButton;
 import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
 import javax.swing.SwingUtilities;
 
 import org.mini2Dx.gettext.GetText;
@@ -43,11 +48,13 @@ import com.atlauncher.network.analytics.AnalyticsEvent;
 import com.atlauncher.thread.PasteUpload;
 
 public class ConsoleBottomBar extends BottomBar implements RelocalizationListener {
+    private static final int MAX_SEARCH_RESULTS = 1000;
 
     public final JPanel leftSide = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 13));
     private final JButton clearButton = new JButton(GetText.tr("Clear"));
     private final JButton copyLogButton = new JButton(GetText.tr("Copy Log"));
     private final JButton uploadLogButton = new JButton(GetText.tr("Upload Log"));
+    private final JButton searchLogButton = new JButton(GetText.tr("Search Log"));
     private final JButton killMinecraftButton = new JButton(GetText.tr("Kill Minecraft"));
 
     public ConsoleBottomBar() {
@@ -56,6 +63,7 @@ public class ConsoleBottomBar extends BottomBar implements RelocalizationListene
         leftSide.add(this.clearButton);
         leftSide.add(this.copyLogButton);
         leftSide.add(this.uploadLogButton);
+        leftSide.add(this.searchLogButton);
         leftSide.add(this.killMinecraftButton);
 
         this.killMinecraftButton.setVisible(false);
@@ -130,6 +138,54 @@ public class ConsoleBottomBar extends BottomBar implements RelocalizationListene
                 LogManager.error("Log failed to upload: " + result);
             }
         });
+        searchLogButton.addActionListener(e -> {
+            String query = DialogManager.okDialog().setTitle(GetText.tr("Search Log"))
+                    .setContent(GetText.tr("Enter the text to search for")).setParent(App.console)
+                    .setType(DialogManager.QUESTION).showInput();
+
+            if (query == null || query.trim().isEmpty()) {
+                return;
+            }
+
+            final ProgressDialog<List<String>> dialog = new ProgressDialog<>(GetText.tr("Searching Log"), 0,
+                    GetText.tr("Searching Log"), "Aborting Searching Log", App.console);
+
+            dialog.addThread(new Thread(() -> {
+                try {
+                    dialog.setReturnValue(App.console.searchLog(query.trim(), MAX_SEARCH_RESULTS));
+                } catch (IOException ex) {
+                    LogManager.logStackTrace("Exception while searching log", ex);
+                    dialog.setReturnValue(null);
+                }
+
+                dialog.close();
+            }));
+
+            dialog.start();
+            List<String> results = dialog.getReturnValue();
+
+            if (results == null) {
+                App.TOASTER.popError("Failed to search log!");
+                return;
+            }
+
+            if (results.isEmpty()) {
+                DialogManager.okDialog().setTitle(GetText.tr("Search Log")).setParent(App.console)
+                        .setContent(GetText.tr("No lines found matching \"{0}\".", query.trim()))
+                        .setType(DialogManager.INFO).show();
+                return;
+            }
+
+            JTextArea resultsArea = new JTextArea(String.join("\n", results));
+            resultsArea.setEditable(false);
+            resultsArea.setCaretPosition(resultsArea.getDocument().getLength());
+
+            JScrollPane scrollPane = new JScrollPane(resultsArea);
+            scrollPane.setPreferredSize(new Dimension(600, 300));
+
+            DialogManager.okDialog().setTitle(GetText.tr("Search Log")).setParent(App.console)
+                    .setContent(scrollPane).setType(DialogManager.INFO).show();
+        });
         killMinecraftButton.addActionListener(arg0 -> {
             int ret = DialogManager.yesNoDialog().setTitle(GetText.tr("Kill Minecraft") + "?")
                     .setContent(new HTMLBuilder().center().text(GetText.tr(
@@ -164,6 +220,7 @@ public class ConsoleBottomBar extends BottomBar implements RelocalizationListene
         clearButton.setText(GetText.tr("Clear"));
         copyLogButton.setText(GetText.tr("Copy Log"));
         uploadLogButton.setText(GetText.tr("Upload Log"));
+        searchLogButton.setText(GetText.tr("Search Log"));
         killMinecraftButton.setText(GetText.tr("Kill Minecraft"));
     }
 }
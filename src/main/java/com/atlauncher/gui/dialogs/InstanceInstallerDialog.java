@@ -36,7 +36,6 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
@@ -107,6 +106,7 @@ import com.atlauncher.managers.LogManager;
 import com.atlauncher.managers.MinecraftManager;
 import com.atlauncher.managers.PackManager;
 import com.atlauncher.network.Analytics;
+import com.atlauncher.network.CachePolicy;
 import com.atlauncher.network.NetworkClient;
 import com.atlauncher.utils.ComboItem;
 import com.atlauncher.utils.CurseForgeApi;
@@ -117,8 +117,6 @@ import com.atlauncher.utils.TechnicApi;
 import com.atlauncher.utils.Utils;
 import com.atlauncher.utils.WindowUtils;
 
-import okhttp3.CacheControl;
-
 public class InstanceInstallerDialog extends JDialog {
     private static final long serialVersionUID = -6984886874482721558L;
     private int versionLength = 0;
@@ -1019,7 +1017,7 @@ public class InstanceInstallerDialog extends JDialog {
                     String.format(Locale.ENGLISH, "%s/modpack/%d", Constants.FTB_API_URL,
                         instance.launcher.ftbPackManifest.id),
                     FTBPackManifest.class,
-                    new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build());
+                    CachePolicy.FTB.getCacheControl());
                 dialog.setReturnValue(packManifest);
                 dialog.close();
             }));
@@ -97,6 +97,26 @@ public class NetworkSettingsTab extends AbstractSettingsTab {
         JSpinner connectionTimeout = new JSpinner(connectionTimeoutModel);
         add(connectionTimeout, gbc);
 
+        // Enable HTTP/2
+        gbc.gridx = 0;
+        gbc.gridy++;
+        gbc.insets = UIConstants.LABEL_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_TRAILING;
+        JLabelWithHover enableHttp2Label = new JLabelWithHover(GetText.tr("Enable HTTP/2") + "?", HELP_ICON,
+            "<html>" + GetText.tr(
+                "This will download files from a server over a single shared connection when the server supports it.")
+                + "</html>");
+        add(enableHttp2Label, gbc);
+
+        gbc.gridx++;
+        gbc.insets = UIConstants.CHECKBOX_FIELD_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_LEADING;
+        JCheckBox enableHttp2 = new JCheckBox();
+        enableHttp2.addItemListener(itemEvent ->
+            viewModel.setEnableHttp2(itemEvent.getStateChange() == ItemEvent.SELECTED));
+        addDisposable(viewModel.getEnableHttp2().subscribe(enableHttp2::setSelected));
+        add(enableHttp2, gbc);
+
         // Modrinth Api Key Settings
         gbc.gridx = 0;
         gbc.gridy++;
@@ -0,0 +1,52 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.gui.tabs.tools;
+
+import java.util.Locale;
+
+import javax.swing.JLabel;
+
+import org.mini2Dx.gettext.GetText;
+
+import com.atlauncher.builders.HTMLBuilder;
+import com.atlauncher.managers.DialogManager;
+import com.atlauncher.utils.ArtifactStore;
+
+public class ArtifactStoreCleanerToolPanel extends AbstractToolPanel {
+
+    public ArtifactStoreCleanerToolPanel(ToolsViewModel viewModel) {
+        super(GetText.tr("Shared Files Cleaner"));
+
+        JLabel INFO_LABEL = new JLabel(new HTMLBuilder().center().split(70).text(GetText.tr(
+                "This tool removes mods and libraries shared between instances and servers that are no longer used by any of them. This will not affect any instances."))
+                .build());
+        MIDDLE_PANEL.add(INFO_LABEL);
+        BOTTOM_PANEL.add(LAUNCH_BUTTON);
+        LAUNCH_BUTTON.addActionListener(e -> {
+            if (e.getSource() == LAUNCH_BUTTON) {
+                ArtifactStore.GarbageCollectionResult result = viewModel.collectArtifactStoreGarbage();
+
+                DialogManager.okDialog().setType(DialogManager.INFO).setTitle(GetText.tr("Success"))
+                        .setContent(GetText.tr("Successfully removed {0} unused files, freeing {1} MB.",
+                                result.objectsRemoved,
+                                String.format(Locale.ENGLISH, "%.2f", result.bytesFreed / 1024.0 / 1024.0)))
+                        .show();
+            }
+        });
+    }
+}
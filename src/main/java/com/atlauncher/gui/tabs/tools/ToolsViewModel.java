@@ -35,6 +35,7 @@ import com.atlauncher.managers.LogManager;
 import com.atlauncher.network.Analytics;
 import com.atlauncher.network.Download;
 import com.atlauncher.network.analytics.AnalyticsEvent;
+import com.atlauncher.utils.ArtifactStore;
 import com.atlauncher.utils.OS;
 import com.atlauncher.utils.Utils;
 
@@ -99,6 +100,12 @@ public class ToolsViewModel implements SettingsListener {
         }
     }
 
+    public ArtifactStore.GarbageCollectionResult collectArtifactStoreGarbage() {
+        Analytics.trackEvent(AnalyticsEvent.forToolRun("artifact_store_cleaner"));
+
+        return ArtifactStore.collectGarbage();
+    }
+
     public void clearLogs() {
         Analytics.trackEvent(AnalyticsEvent.forToolRun("log_clearer"));
 
@@ -178,6 +178,8 @@ public class ConfigManager {
     }
 
     private static void afterConfigLoaded() {
+        MinecraftManager.invalidateDisabledVersions();
+
         if (!App.disableErrorReporting && ConfigManager.getConfigItem("errorReporting.enabled", true)) {
             ErrorReporting.ignoredMessages.clear();
             ErrorReporting.ignoredMessages
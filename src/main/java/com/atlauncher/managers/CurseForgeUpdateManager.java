@@ -18,10 +18,12 @@
 package com.atlauncher.managers;
 
 import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import com.atlauncher.App;
 import com.atlauncher.data.Instance;
@@ -88,29 +90,30 @@ public class CurseForgeUpdateManager {
         PerformanceManager.start();
         LogManager.info("Checking for updates to CurseForge instances");
 
-        int[] projectIdsFound = InstanceManager.getInstances().parallelStream()
+        // each project only needs fetching once, no matter how many instances there are of it
+        Map<Integer, List<Instance>> instancesByProject = InstanceManager.getInstances().stream()
             .filter(i -> i.isCurseForgePack() && i.hasCurseForgeProjectId())
-            .mapToInt(i -> i.launcher.curseForgeManifest != null
+            .collect(Collectors.groupingBy(i -> i.launcher.curseForgeManifest != null
                 ? i.launcher.curseForgeManifest.projectID
-                : i.launcher.curseForgeProject.id)
-            .toArray();
+                : i.launcher.curseForgeProject.id));
 
-        Map<Integer, CurseForgeProject> foundProjects = CurseForgeApi.getProjectsAsMap(projectIdsFound);
+        Map<Integer, CurseForgeProject> foundProjects = CurseForgeApi.getProjectsAsMap(
+            instancesByProject.keySet().stream().mapToInt(Integer::intValue).toArray());
 
         if (foundProjects != null) {
-            InstanceManager.getInstances().parallelStream()
-                .filter(i -> i.isCurseForgePack() && i.hasCurseForgeProjectId()).forEach(i -> {
-                    CurseForgeProject curseForgeMod = foundProjects.get(i.launcher.curseForgeManifest != null
-                        ? i.launcher.curseForgeManifest.projectID
-                        : i.launcher.curseForgeProject.id);
-
-                    if (curseForgeMod == null) {
-                        return;
-                    }
-
-                    CurseForgeFile latestVersion = curseForgeMod.latestFiles.stream()
-                        .sorted(Comparator.comparingInt((
-                            CurseForgeFile file) -> file.id).reversed())
+            instancesByProject.forEach((projectId, instances) -> {
+                CurseForgeProject curseForgeMod = foundProjects.get(projectId);
+
+                if (curseForgeMod == null) {
+                    return;
+                }
+
+                List<CurseForgeFile> newestFirst = curseForgeMod.latestFiles.stream()
+                    .sorted(Comparator.comparingInt((CurseForgeFile file) -> file.id).reversed())
+                    .collect(Collectors.toList());
+
+                instances.forEach(i -> {
+                    CurseForgeFile latestVersion = newestFirst.stream()
                         .filter(f -> {
                             if (i.launcher.curseForgeFile != null
                                 && !App.settings.allowCurseForgeAlphaBetaFiles) {
@@ -129,6 +132,7 @@ public class CurseForgeUpdateManager {
 
                     getSubject(i).onNext(Optional.ofNullable(latestVersion));
                 });
+            });
         }
 
         PerformanceManager.end();
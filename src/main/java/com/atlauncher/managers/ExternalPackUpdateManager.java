@@ -0,0 +1,176 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.managers;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import com.atlauncher.Network;
+import com.atlauncher.data.Instance;
+import com.atlauncher.utils.TaskGraph;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Checks for updates to instances of packs from external platforms (FTB, CurseForge, Technic and Modrinth).
+ * <p>
+ * Each platform is checked at the same time. Checks which aren't forced are skipped if the last check was recent, and
+ * once started, checks are also run periodically with some jitter so that launchers don't all check at once.
+ */
+public class ExternalPackUpdateManager {
+    /**
+     * How recently the last check must have been for a check which isn't forced to be skipped.
+     */
+    private static final long MIN_CHECK_INTERVAL_MS = TimeUnit.MINUTES.toMillis(10);
+
+    private static final long CHECK_INTERVAL_MS = TimeUnit.HOURS.toMillis(1);
+    private static final long MAX_JITTER_MS = TimeUnit.MINUTES.toMillis(10);
+
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setNameFormat("ExternalPackUpdateChecker").setDaemon(true).build());
+
+    private static final int MAX_CONCURRENT_LOOKUPS = 4;
+    private static final ExecutorService LOOKUPS = Executors.newFixedThreadPool(MAX_CONCURRENT_LOOKUPS,
+        new ThreadFactoryBuilder().setNameFormat("ExternalPackUpdateLookup-%d").setDaemon(true).build());
+
+    private static final AtomicBoolean STARTED = new AtomicBoolean(false);
+    private static final AtomicBoolean CHECKING = new AtomicBoolean(false);
+    private static final AtomicBoolean CHECK_AGAIN = new AtomicBoolean(false);
+    private static volatile long lastCheckedAt = 0;
+
+    /**
+     * Checks for updates in the background now, and then periodically after that.
+     */
+    public static void start() {
+        if (STARTED.compareAndSet(false, true)) {
+            SCHEDULER.execute(() -> checkForUpdates(true));
+            scheduleNextCheck();
+        }
+    }
+
+    private static void scheduleNextCheck() {
+        long delay = CHECK_INTERVAL_MS + ThreadLocalRandom.current().nextLong(MAX_JITTER_MS);
+
+        SCHEDULER.schedule(() -> {
+            try {
+                checkForUpdates(false);
+            } finally {
+                scheduleNextCheck();
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Checks for updates on the calling thread.
+     *
+     * @param force if the check should be made even if the last check was recent, such as when an instance has been
+     *              added or settings which change what's an update have changed. If a check is already running, another
+     *              is run once it's finished
+     */
+    public static void checkForUpdates(boolean force) {
+        if (!force && System.currentTimeMillis() - lastCheckedAt < MIN_CHECK_INTERVAL_MS) {
+            LogManager.debug("Skipping checking for updates to external packs as they were checked recently");
+            return;
+        }
+
+        if (!CHECKING.compareAndSet(false, true)) {
+            if (force) {
+                CHECK_AGAIN.set(true);
+            }
+            return;
+        }
+
+        while (true) {
+            try {
+                do {
+                    CHECK_AGAIN.set(false);
+                    runChecks();
+                    lastCheckedAt = System.currentTimeMillis();
+                } while (CHECK_AGAIN.get());
+            } finally {
+                CHECKING.set(false);
+            }
+
+            // a forced check may have asked for another check after the loop above ended but before it was marked as
+            // no longer checking, in which case nobody else will run it
+            if (!CHECK_AGAIN.get() || !CHECKING.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Runs the action for each item on a small pool of threads shared by all platforms, waiting for them all to finish.
+     * Lets the platform update managers look up several packs at once without blocking the common fork join pool on
+     * requests.
+     */
+    static <T> void forEachConcurrently(Collection<T> items, Consumer<T> action) {
+        List<Future<?>> futures = items.stream().map(item -> LOOKUPS.submit(() -> action.accept(item)))
+            .collect(Collectors.toList());
+
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                LogManager.logStackTrace("Error checking for updates to an external pack", e.getCause(), false);
+            } catch (InterruptedException e) {
+                futures.forEach(f -> f.cancel(true));
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static void runChecks() {
+        PerformanceManager.start();
+
+        TaskGraph checks = new TaskGraph("ExternalPackUpdates");
+
+        if (InstanceManager.getInstances().stream().anyMatch(Instance::isFTBPack)) {
+            checks.add("ftb", FTBUpdateManager::checkForUpdates);
+        }
+        if (InstanceManager.getInstances().stream().anyMatch(Instance::isCurseForgePack)) {
+            checks.add("curseforge", CurseForgeUpdateManager::checkForUpdates);
+        }
+        if (InstanceManager.getInstances().stream().anyMatch(Instance::isTechnicPack)) {
+            checks.add("technic", TechnicModpackUpdateManager::checkForUpdates);
+        }
+        if (InstanceManager.getInstances().stream().anyMatch(Instance::isModrinthPack)) {
+            checks.add("modrinth", ModrinthModpackUpdateManager::checkForUpdates);
+        }
+
+        try {
+            checks.run(null);
+        } catch (Exception e) {
+            LogManager.logStackTrace("Error checking for updates to external packs", e);
+        }
+
+        LogManager.debug(checks.getTimeline());
+        LogManager.debug(Network.getCacheStats());
+        PerformanceManager.end();
+    }
+}
@@ -18,23 +18,23 @@
 package com.atlauncher.managers;
 
 import java.util.Comparator;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import com.atlauncher.constants.Constants;
 import com.atlauncher.data.Instance;
 import com.atlauncher.data.ftb.FTBPackManifest;
 import com.atlauncher.data.ftb.FTBPackVersion;
+import com.atlauncher.network.CachePolicy;
 import com.atlauncher.network.NetworkClient;
 
 import io.reactivex.rxjava3.core.Observable;
 import io.reactivex.rxjava3.subjects.BehaviorSubject;
-import okhttp3.CacheControl;
 
 public class FTBUpdateManager {
     /**
@@ -90,29 +90,26 @@ public class FTBUpdateManager {
         PerformanceManager.start();
         LogManager.info("Checking for updates to FTB instances");
 
-        InstanceManager.getInstances().parallelStream()
+        // each pack only needs checking once, no matter how many instances there are of it
+        Map<Integer, List<Instance>> instancesByPack = InstanceManager.getInstances().stream()
             .filter(Instance::isFTBPack)
-            .map(i -> i.launcher.ftbPackManifest.id)
-            .distinct()
-            .collect(Collectors.toList())
-            .forEach(id -> {
+            .collect(Collectors.groupingBy(i -> i.launcher.ftbPackManifest.id));
 
-                FTBPackManifest packManifest = NetworkClient.getCached(
-                    String.format(Locale.ENGLISH, "%s/modpack/%d", Constants.FTB_API_URL, id),
-                    FTBPackManifest.class,
-                    new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build());
+        ExternalPackUpdateManager.forEachConcurrently(instancesByPack.entrySet(), entry -> {
+            FTBPackManifest packManifest = NetworkClient.getCached(
+                String.format(Locale.ENGLISH, "%s/modpack/%d", Constants.FTB_API_URL, entry.getKey()),
+                FTBPackManifest.class,
+                CachePolicy.FTB.getCacheControl());
 
-                if (packManifest == null) {
-                    return;
-                }
+            if (packManifest == null) {
+                return;
+            }
 
-                FTBPackVersion latestVersion = packManifest.versions.stream()
-                    .max(Comparator.comparingInt((FTBPackVersion version) -> version.id)).orElse(null);
+            FTBPackVersion latestVersion = packManifest.versions.stream()
+                .max(Comparator.comparingInt((FTBPackVersion version) -> version.id)).orElse(null);
 
-                InstanceManager.getInstances().stream()
-                    .filter(i -> i.isFTBPack() && i.launcher.ftbPackManifest.id == id)
-                    .forEach(i -> getSubject(i).onNext(Optional.ofNullable(latestVersion)));
-            });
+            entry.getValue().forEach(i -> getSubject(i).onNext(Optional.ofNullable(latestVersion)));
+        });
 
         PerformanceManager.end();
     }
@@ -22,21 +22,37 @@ import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+
+import com.atlauncher.App;
 import com.atlauncher.FileSystem;
 import com.atlauncher.Gsons;
 import com.atlauncher.data.Instance;
+import com.atlauncher.data.InstanceIndex;
 import com.atlauncher.data.MicrosoftAccount;
 import com.atlauncher.data.Pack;
 import com.atlauncher.exceptions.InvalidPack;
 import com.atlauncher.utils.CurseForgeApi;
+import com.atlauncher.utils.DirectoryWatcher;
 import com.atlauncher.utils.FileUtils;
 import com.atlauncher.utils.Utils;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.gson.JsonIOException;
 import com.google.gson.JsonSyntaxException;
 
@@ -51,6 +67,45 @@ public class InstanceManager {
      */
     private static final BehaviorSubject<List<Instance>> INSTANCES = BehaviorSubject.createDefault(new ArrayList<>());
 
+    /**
+     * Held while the instances list is being changed, see {@link #updateInstances(Predicate)}.
+     */
+    private static final Object INSTANCES_LOCK = new Object();
+
+    /**
+     * Instances loaded while the instances are still being loaded, so each is only loaded once.
+     */
+    private static final Map<String, Optional<Instance>> LOADING_INSTANCES = new ConcurrentHashMap<>();
+    private static volatile boolean instancesLoaded = false;
+
+    /**
+     * The folder and name of each instance in the index as last saved, so it's only saved again when they change.
+     */
+    private static Map<String, String> savedIndex = null;
+
+    /**
+     * The folders in an instance which mods and other content are added to.
+     */
+    public static final List<String> CONTENT_FOLDERS = Arrays.asList("mods", "disabledmods", "resourcepacks",
+        "shaderpacks", "jarmods");
+
+    /**
+     * Watches the instances folder, each instance's folder and their content folders, so that changes made outside of
+     * the launcher only need the instances they touched to be reloaded.
+     */
+    private static final DirectoryWatcher WATCHER = new DirectoryWatcher("InstanceWatcher");
+
+    /**
+     * When the launcher last saved each instance.json, so its own saves aren't mistaken for changes made elsewhere.
+     */
+    private static final Map<Path, FileTime> SAVED_TIMES = new ConcurrentHashMap<>();
+
+    /**
+     * Files in each instance's content folders which have changed since they were last scanned for missing mods. An
+     * instance not in here needs a full scan.
+     */
+    private static final Map<Path, Set<Path>> CONTENT_CHANGES = new ConcurrentHashMap<>();
+
     /**
      * @return Observable list of instances.
      */
@@ -68,119 +123,448 @@ public class InstanceManager {
     }
 
     /**
-     * Loads the user installed Instances
+     * Loads the user installed Instances.
+     * <p>
+     * Each instance.json is parsed in parallel, and anything which needs converting or fixing up is done in the
+     * background once the instances have been published, as that can involve network requests.
      */
     public static void loadInstances() {
         PerformanceManager.start();
         LogManager.debug("Loading instances");
+        instancesLoaded = false;
+
+        String[] folders = Optional.ofNullable(FileSystem.INSTANCES.toFile().list(Utils.getInstanceFileFilter()))
+            .orElse(new String[0]);
+
+        // parsing is mostly cpu bound, so use as many threads as there are cores
+        ExecutorService executor = Executors.newFixedThreadPool(
+            Math.max(1, Math.min(folders.length, Runtime.getRuntime().availableProcessors())),
+            new ThreadFactoryBuilder().setNameFormat("InstanceLoader-%d").setDaemon(true).build());
+
+        List<Future<Instance>> futures = new ArrayList<>();
+        for (String folder : folders) {
+            futures.add(executor.submit(() -> getOrLoadInstance(folder)));
+        }
+        executor.shutdown();
+
         List<Instance> newInstances = new ArrayList<>();
+        for (Future<Instance> future : futures) {
+            try {
+                Instance instance = future.get();
+
+                if (instance != null) {
+                    newInstances.add(instance);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                LogManager.logStackTrace("Failed to load instance", e.getCause(), false);
+            }
+        }
+
+        updateInstances(instances -> {
+            instances.clear();
+            instances.addAll(newInstances);
+            return true;
+        });
+        instancesLoaded = true;
+        LOADING_INSTANCES.clear();
+        saveIndex(newInstances);
+
+        CONTENT_CHANGES.clear();
+        watchInstances();
+
+        App.TASKPOOL.execute(() -> fixUpInstances(newInstances));
+
+        LogManager.debug("Finished loading instances");
+        PerformanceManager.end();
+    }
+
+    /**
+     * Gets the instance in the given folder, loading it if the instances haven't finished loading yet. An instance
+     * loaded this way is the same one the instances are later loaded with.
+     *
+     * @param folder the name of the instance's folder in the instances directory
+     * @return the instance, or null if it couldn't be loaded
+     */
+    public static Instance getOrLoadInstance(String folder) {
+        Path instanceDir = FileSystem.INSTANCES.resolve(folder);
+
+        if (instancesLoaded) {
+            return getInstances().stream().filter(i -> i.getRoot().equals(instanceDir)).findFirst()
+                .orElse(null);
+        }
+
+        return LOADING_INSTANCES.computeIfAbsent(folder, f -> loadInstance(instanceDir)).orElse(null);
+    }
 
-        for (String folder : Optional.ofNullable(FileSystem.INSTANCES.toFile().list(Utils.getInstanceFileFilter()))
-            .orElse(new String[0])) {
-            Path instanceDir = FileSystem.INSTANCES.resolve(folder);
+    private static Optional<Instance> loadInstance(Path instanceDir) {
+        try (InputStreamReader fileReader = new InputStreamReader(
+            Files.newInputStream(instanceDir.resolve("instance.json")), StandardCharsets.UTF_8)) {
+            Instance instance = Gsons.DEFAULT.fromJson(fileReader, Instance.class);
+            if (instance == null || instance.launcher == null) {
+                throw new JsonSyntaxException("Error parsing instance.json as Instance");
+            }
+
+            instance.ROOT = instanceDir;
+            LogManager.debug("Loaded instance from " + instanceDir);
 
-            Instance instance;
+            return Optional.of(instance);
+        } catch (JsonIOException | JsonSyntaxException | IOException e) {
+            LogManager.logStackTrace("Failed to load instance in the folder " + instanceDir, e, false);
+        }
 
+        return Optional.empty();
+    }
+
+    /**
+     * Reloads the instances after the launcher's data has been updated. If the instances are being watched they're
+     * already up to date with what's on disk, so only the fix ups which depend on the launcher's data are run again.
+     */
+    public static void reloadInstances() {
+        if (instancesLoaded && WATCHER.isWatching(FileSystem.INSTANCES)) {
+            fixUpInstances(getInstances());
+        } else {
+            loadInstances();
+        }
+    }
+
+    /**
+     * Converts instances saved by older versions of the launcher, and fixes up any which reference accounts or packs
+     * which have since changed.
+     */
+    private static void fixUpInstances(List<Instance> instances) {
+        PerformanceManager.start();
+        boolean changed = false;
+
+        List<Map<String, String>> movedPacks = ConfigManager.getConfigItem("movedPacks", new ArrayList<>());
+
+        for (Instance instance : instances) {
             try {
-                try (InputStreamReader fileReader = new InputStreamReader(
-                    Files.newInputStream(instanceDir.resolve("instance.json")), StandardCharsets.UTF_8)) {
-                    instance = Gsons.DEFAULT.fromJson(fileReader, Instance.class);
-                    if (instance == null) {
-                        throw new JsonSyntaxException("Error parsing instance.json as Instance");
-                    }
-                    instance.ROOT = instanceDir;
-                    LogManager.debug("Loaded instance from " + instanceDir);
+                changed |= fixUpInstance(instance, movedPacks);
+            } catch (Exception e) {
+                LogManager.logStackTrace("Failed to fix up instance " + instance.launcher.name, e, false);
+            }
+        }
+
+        if (changed) {
+            updateInstances(i -> true);
+            saveIndex(getInstances());
+        }
+
+        PerformanceManager.end();
+    }
 
-                    if (instance.launcher == null) {
-                        instance = null;
-                        throw new JsonSyntaxException("Error parsing instance.json as Instance");
+    private static boolean fixUpInstance(Instance instance, List<Map<String, String>> movedPacks) {
+        boolean changed = false;
+
+        if (instance.launcher.curseForgeManifest != null
+            && instance.launcher.curseForgeManifest.projectID != null
+            && instance.launcher.curseForgeManifest.fileID != null) {
+            LogManager.info(String.format("Converting instance \"%s\" CurseForge information",
+                instance.launcher.name));
+            instance.launcher.curseForgeProject = CurseForgeApi
+                .getProjectById(instance.launcher.curseForgeManifest.projectID);
+            instance.launcher.curseForgeFile = CurseForgeApi.getFileForProject(
+                instance.launcher.curseForgeManifest.projectID,
+                instance.launcher.curseForgeManifest.fileID);
+            instance.launcher.curseForgeManifest = null;
+
+            instance.save();
+            changed = true;
+        }
+
+        if (instance.launcher.numPlays == null) {
+            LogManager.info(String.format("Converting instance \"%s\" numPlays/lastPlayed",
+                instance.launcher.name));
+            instance.launcher.numPlays = instance.numPlays;
+            instance.launcher.lastPlayed = instance.lastPlayed;
+
+            instance.save();
+            changed = true;
+        }
+
+        if (instance.launcher.account != null
+            && !AccountManager.isAccountByName(instance.launcher.account)) {
+            LogManager.warn(
+                String.format("No account with name of %s, so setting instance account back to default",
+                    instance.launcher.account));
+            instance.launcher.account = null;
+            instance.save();
+            changed = true;
+        }
+
+        // convert all old system instances into just a Vanilla instance
+        if (instance.getPack() != null && instance.getPack().system) {
+            instance.launcher.vanillaInstance = true;
+            instance.launcher.packId = 0;
+            instance.launcher.pack = "Minecraft";
+
+            instance.save();
+            changed = true;
+        }
+
+        // convert packs marked as moved by ATLauncher to their new pack id & version
+        try {
+            if (instance.getPack() != null) {
+                Optional<Map<String, String>> packMove = movedPacks.stream()
+                    .filter(mp -> Integer.parseInt(mp.get("fromPack")) == instance.launcher.packId).findFirst();
+
+                if (packMove.isPresent()) {
+                    if (packMove.get().get("fromVersion").equals(instance.launcher.version)) {
+                        Pack newPack = PackManager.getPackByID(Integer.parseInt(packMove.get().get("toPack")));
+
+                        LogManager.info(String.format("Converting instance %s from pack %s to %s",
+                            instance.launcher.name, instance.launcher.pack, newPack.name));
+
+                        instance.launcher.packId = newPack.id;
+                        instance.launcher.pack = newPack.name;
+                        instance.launcher.description = newPack.description;
+                        instance.launcher.version = packMove.get().get("toVersion");
+
+                        instance.save();
+                        changed = true;
                     }
-                } catch (JsonIOException | JsonSyntaxException e) {
-                    LogManager.logStackTrace("Failed to load instance in the folder " + instanceDir, e, false);
-                    continue;
                 }
+            }
+        } catch (NumberFormatException | InvalidPack e) {
+            LogManager.logStackTrace("Error converting moved pack", e);
+        }
 
-                if (instance.launcher.curseForgeManifest != null
-                    && instance.launcher.curseForgeManifest.projectID != null
-                    && instance.launcher.curseForgeManifest.fileID != null) {
-                    LogManager.info(String.format("Converting instance \"%s\" CurseForge information",
-                        instance.launcher.name));
-                    instance.launcher.curseForgeProject = CurseForgeApi
-                        .getProjectById(instance.launcher.curseForgeManifest.projectID);
-                    instance.launcher.curseForgeFile = CurseForgeApi.getFileForProject(
-                        instance.launcher.curseForgeManifest.projectID,
-                        instance.launcher.curseForgeManifest.fileID);
-                    instance.launcher.curseForgeManifest = null;
-
-                    instance.save();
-                }
+        return changed;
+    }
 
-                if (instance.launcher.numPlays == null) {
-                    LogManager.info(String.format("Converting instance \"%s\" numPlays/lastPlayed",
-                        instance.launcher.name));
-                    instance.launcher.numPlays = instance.numPlays;
-                    instance.launcher.lastPlayed = instance.lastPlayed;
+    /**
+     * The folder and name of each installed instance as of when the instances were last loaded or changed, which is
+     * available straight away at startup, before {@link #loadInstances()} has finished. Only used by --launch.
+     */
+    public static InstanceIndex getIndex() {
+        return InstanceIndex.load(FileSystem.INSTANCE_INDEX);
+    }
 
-                    instance.save();
-                }
+    private static synchronized void saveIndex(List<Instance> instances) {
+        InstanceIndex index = new InstanceIndex();
+        Map<String, String> names = new LinkedHashMap<>();
 
-                if (instance.launcher.account != null
-                    && !AccountManager.isAccountByName(instance.launcher.account)) {
-                    LogManager.warn(
-                        String.format("No account with name of %s, so setting instance account back to default",
-                            instance.launcher.account));
-                    instance.launcher.account = null;
-                    instance.save();
-                }
+        for (Instance instance : instances) {
+            InstanceIndex.Entry entry = new InstanceIndex.Entry();
+            entry.folder = instance.getRoot().getFileName().toString();
+            entry.name = instance.launcher.name;
+
+            index.instances.add(entry);
+            names.put(entry.folder, entry.name);
+        }
+
+        // most changes to instances don't change their folders or names
+        if (names.equals(savedIndex)) {
+            return;
+        }
+
+        index.save(FileSystem.INSTANCE_INDEX);
+        savedIndex = names;
+    }
+
+    /**
+     * Records that the launcher has just saved the given instance's instance.json.
+     */
+    public static void instanceSaved(Instance instance) {
+        Path instanceJson = instance.getRoot().resolve("instance.json");
+
+        try {
+            SAVED_TIMES.put(instanceJson, Files.getLastModifiedTime(instanceJson));
+        } catch (IOException e) {
+            SAVED_TIMES.remove(instanceJson);
+        }
+    }
+
+    /**
+     * Gets the files in the instance's content folders which have been added, changed or removed since this was last
+     * called for the instance.
+     *
+     * @return the changed files, or empty if the content folders need to be scanned fully
+     */
+    public static Optional<Set<Path>> takeContentChanges(Instance instance) {
+        Path root = instance.getRoot();
+
+        if (!WATCHER.isWatching(root)) {
+            return Optional.empty();
+        }
+
+        // start tracking before the caller scans, so nothing changed during its scan is missed
+        Set<Path> changes = CONTENT_CHANGES.put(root, ConcurrentHashMap.newKeySet());
+
+        return Optional.ofNullable(changes);
+    }
+
+    /**
+     * Puts back changes taken by {@link #takeContentChanges(Instance)} which weren't dealt with, such as when a scan
+     * fails or is cancelled part way, so that the next scan looks at them again.
+     */
+    public static void restoreContentChanges(Instance instance, Set<Path> changes) {
+        CONTENT_CHANGES.computeIfPresent(instance.getRoot(), (root, current) -> {
+            current.addAll(changes);
+            return current;
+        });
+    }
 
-                newInstances.add(instance);
-            } catch (IOException e2) {
-                LogManager.logStackTrace("Failed to load instance in the folder " + instanceDir, e2, false);
+    /**
+     * Watches the instances folder and the folders of any instances not yet being watched, and stops watching
+     * folders of instances which are gone.
+     */
+    private static synchronized void watchInstances() {
+        if (!WATCHER.register(FileSystem.INSTANCES, (directory, changed, overflow) -> onInstancesChanged(
+            overflow ? null : changed))) {
+            return;
+        }
+
+        List<Path> roots = new ArrayList<>();
+        for (Instance instance : new ArrayList<>(getInstances())) {
+            Path root = instance.getRoot();
+            roots.add(root);
+
+            if (!WATCHER.isWatching(root)) {
+                CONTENT_CHANGES.remove(root);
+                WATCHER.register(root, (directory, changed, overflow) -> onInstanceChanged(directory, changed,
+                    overflow));
+
+                for (String folder : CONTENT_FOLDERS) {
+                    watchContentFolder(root, root.resolve(folder));
+                }
             }
         }
 
-        List<Map<String, String>> movedPacks = ConfigManager.getConfigItem("movedPacks", new ArrayList<>());
+        for (Path directory : WATCHER.getWatchedDirectories()) {
+            if (directory.equals(FileSystem.INSTANCES)) {
+                continue;
+            }
 
-        newInstances.forEach(instance -> {
-            // convert all old system instances into just a Vanilla instance
-            if (instance.getPack() != null && instance.getPack().system) {
-                instance.launcher.vanillaInstance = true;
-                instance.launcher.packId = 0;
-                instance.launcher.pack = "Minecraft";
+            Path root = directory.getParent().equals(FileSystem.INSTANCES) ? directory : directory.getParent();
 
-                instance.save();
+            if (!roots.contains(root)) {
+                WATCHER.unregister(directory);
+                CONTENT_CHANGES.remove(root);
             }
+        }
+    }
 
-            // convert packs marked as moved by ATLauncher to their new pack id & version
-            try {
-                if (instance.getPack() != null) {
-                    Optional<Map<String, String>> packMove = movedPacks.stream()
-                        .filter(mp -> Integer.parseInt(mp.get("fromPack")) == instance.launcher.packId).findFirst();
+    private static void watchContentFolder(Path root, Path folder) {
+        WATCHER.register(folder, (directory, changed, overflow) -> {
+            if (overflow) {
+                CONTENT_CHANGES.remove(root);
+            } else {
+                Optional.ofNullable(CONTENT_CHANGES.get(root)).ifPresent(changes -> changes.addAll(changed));
+            }
+        });
+    }
+
+    /**
+     * Adds or removes instances whose folders were added to or removed from the instances folder.
+     *
+     * @param changed the folders which changed, or null to check every folder
+     */
+    private static void onInstancesChanged(Set<Path> changed) {
+        Set<Path> folders = changed;
+
+        if (folders == null) {
+            folders = new HashSet<>();
+            for (String folder : Optional.ofNullable(FileSystem.INSTANCES.toFile()
+                .list(Utils.getInstanceFileFilter())).orElse(new String[0])) {
+                folders.add(FileSystem.INSTANCES.resolve(folder));
+            }
+            for (Instance instance : getInstances()) {
+                folders.add(instance.getRoot());
+            }
+        }
 
-                    if (packMove.isPresent()) {
-                        if (packMove.get().get("fromVersion").equals(instance.launcher.version)) {
-                            Pack newPack = PackManager.getPackByID(Integer.parseInt(packMove.get().get("toPack")));
+        // load new instances before changing the list, so reading from disk doesn't hold up other changes to it
+        Map<Path, Instance> loaded = new HashMap<>();
+        for (Path folder : folders) {
+            if (Files.exists(folder.resolve("instance.json"))
+                && getInstances().stream().noneMatch(i -> i.getRoot().equals(folder))) {
+                loadInstance(folder).ifPresent(instance -> loaded.put(folder, instance));
+            }
+        }
 
-                            LogManager.info(String.format("Converting instance %s from pack %s to %s",
-                                instance.launcher.name, instance.launcher.pack, newPack.name));
+        Set<Path> checkedFolders = folders;
+        boolean updated = updateInstances(instances -> {
+            boolean result = false;
 
-                            instance.launcher.packId = newPack.id;
-                            instance.launcher.pack = newPack.name;
-                            instance.launcher.description = newPack.description;
-                            instance.launcher.version = packMove.get().get("toVersion");
+            for (Path folder : checkedFolders) {
+                Optional<Instance> existing = instances.stream().filter(i -> i.getRoot().equals(folder))
+                    .findFirst();
+                Instance instance = loaded.get(folder);
 
-                            instance.save();
-                        }
+                if (!Files.exists(folder.resolve("instance.json"))) {
+                    if (existing.isPresent()) {
+                        LogManager.info("Instance folder " + folder + " was removed");
+                        instances.remove(existing.get());
+                        result = true;
+                    }
+                } else if (!existing.isPresent() && instance != null) {
+                    // a folder being copied, such as when cloning an instance, still has the original instance's uuid
+                    if (instances.stream().noneMatch(i -> i.getUUID().equals(instance.getUUID()))) {
+                        LogManager.info("Instance folder " + folder + " was added");
+                        instances.add(instance);
+                        result = true;
                     }
                 }
-            } catch (NumberFormatException | InvalidPack e) {
-                LogManager.logStackTrace("Error converting moved pack", e);
             }
+
+            return result;
         });
 
-        INSTANCES.onNext(newInstances);
-        LogManager.debug("Finished loading instances");
-        PerformanceManager.end();
+        if (updated) {
+            saveIndexInBackground();
+        }
+    }
+
+    /**
+     * Reloads an instance whose instance.json was changed outside of the launcher, and starts watching content folders
+     * which have been created.
+     */
+    private static void onInstanceChanged(Path root, Set<Path> changed, boolean overflow) {
+        for (String folder : CONTENT_FOLDERS) {
+            Path contentFolder = root.resolve(folder);
+
+            if (overflow || changed.contains(contentFolder)) {
+                // anything could have been added to the folder before it started being watched
+                CONTENT_CHANGES.remove(root);
+                watchContentFolder(root, contentFolder);
+            }
+        }
+
+        Path instanceJson = root.resolve("instance.json");
+        if (!(overflow || changed.contains(instanceJson)) || !Files.exists(instanceJson)) {
+            return;
+        }
+
+        try {
+            if (Files.getLastModifiedTime(instanceJson).equals(SAVED_TIMES.get(instanceJson))) {
+                return;
+            }
+        } catch (IOException e) {
+            return;
+        }
+
+        loadInstance(root).ifPresent(instance -> {
+            boolean replaced = updateInstances(instances -> {
+                for (int i = 0; i < instances.size(); i++) {
+                    if (instances.get(i).getRoot().equals(root)) {
+                        instances.set(i, instance);
+                        return true;
+                    }
+                }
+
+                return false;
+            });
+
+            if (replaced) {
+                LogManager.info("Reloaded instance " + instance.launcher.name + " as it was changed");
+                instanceSaved(instance);
+                saveIndexInBackground();
+            }
+        });
     }
 
     public static void setInstanceVisbility(Instance instance, boolean collapsed) {
@@ -206,11 +590,9 @@ public class InstanceManager {
      * @param instance Instance to remove
      */
     public static void removeInstance(Instance instance) {
-        List<Instance> instances = Optional.ofNullable(INSTANCES.getValue()).orElse(new ArrayList<>());
-
-        if (instances.remove(instance)) {
+        if (updateInstances(instances -> instances.remove(instance))) {
             FileUtils.delete(instance.getRoot(), true);
-            INSTANCES.onNext(instances);
+            saveIndexInBackground();
         }
     }
 
@@ -290,16 +672,12 @@ public class InstanceManager {
             Utils.copyDirectory(instance.getRoot().toFile(), clonedInstance.getRoot().toFile());
             clonedInstance.save();
 
-            List<Instance> instances = Optional.ofNullable(INSTANCES.getValue()).orElse(new ArrayList<>());
-            instances.add(clonedInstance);
-            INSTANCES.onNext(instances);
+            putInstance(clonedInstance);
         }
     }
 
     public static void addInstance(Instance instance) {
-        List<Instance> instances = Optional.ofNullable(INSTANCES.getValue()).orElse(new ArrayList<>());
-        instances.add(instance);
-        INSTANCES.onNext(instances);
+        putInstance(instance);
     }
 
     /**
@@ -308,9 +686,49 @@ public class InstanceManager {
      * @param instance Instance to update
      */
     public static void updateInstance(Instance instance) {
-        List<Instance> instances = Optional.ofNullable(INSTANCES.getValue()).orElse(new ArrayList<>());
-        instances.removeIf(it -> it.getUUID().equals(instance.getUUID()));
-        instances.add(instance);
-        INSTANCES.onNext(instances);
+        putInstance(instance);
+    }
+
+    /**
+     * Adds the instance, replacing any with the same uuid, such as one the watcher has already picked up from disk.
+     */
+    private static void putInstance(Instance instance) {
+        updateInstances(instances -> {
+            instances.removeIf(it -> it.getUUID().equals(instance.getUUID()));
+            instances.add(instance);
+            return true;
+        });
+        saveIndexInBackground();
+    }
+
+    /**
+     * Changes the instances list and publishes the result. The list is never changed in place, and every change goes
+     * through here, so changes made at the same time on different threads (such as from the watcher's thread) can't
+     * undo each other.
+     *
+     * @param update changes the given copy of the list, returning if anything was changed
+     * @return if anything was changed
+     */
+    private static boolean updateInstances(Predicate<List<Instance>> update) {
+        synchronized (INSTANCES_LOCK) {
+            List<Instance> instances = new ArrayList<>(Optional.ofNullable(INSTANCES.getValue())
+                .orElse(new ArrayList<>()));
+
+            if (!update.test(instances)) {
+                return false;
+            }
+
+            INSTANCES.onNext(instances);
+            return true;
+        }
+    }
+
+    private static void saveIndexInBackground() {
+        if (instancesLoaded) {
+            watchInstances();
+
+            List<Instance> instances = new ArrayList<>(getInstances());
+            App.TASKPOOL.execute(() -> saveIndex(instances));
+        }
     }
 }
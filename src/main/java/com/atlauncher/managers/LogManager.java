@@ -20,22 +20,24 @@ package com.atlauncher.managers;
 import java.io.CharArrayWriter;
 import java.io.PrintStream;
 import java.io.PrintWriter;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import com.atlauncher.App;
+import com.atlauncher.FileSystem;
 import com.atlauncher.Gsons;
 import com.atlauncher.evnt.LogEvent;
 import com.atlauncher.evnt.LogEvent.LogType;
 import com.atlauncher.exceptions.LocalException;
 import com.atlauncher.network.DownloadException;
 import com.atlauncher.network.ErrorReporting;
+import com.atlauncher.thread.LogEventQueue;
 import com.atlauncher.thread.LoggingThread;
 import com.atlauncher.utils.SystemOutInterceptor;
 
 public final class LogManager {
-    private static final BlockingQueue<LogEvent> queue = new ArrayBlockingQueue<>(128);
+    private static final LogEventQueue queue = new LogEventQueue(65_536);
     public static boolean showDebug = false;
 
     private static final Pattern LOG4J_THREAD_REGEX = Pattern.compile("<log4j:Event.*?thread=\"(.*?)\".*?>");
@@ -44,6 +46,11 @@ public final class LogManager {
             .compile("<log4j:Message><!\\[CDATA\\[(.*?)\\]\\]></log4j:Message>");
 
     public static void start() {
+        // in debug mode, keep everything even if it's logged faster than it can be written
+        if (showDebug || (App.settings != null && App.settings.spillLogsToDisk)) {
+            queue.setSpillFile(FileSystem.LOGS.resolve("overflow.jsonl"));
+        }
+
         new LoggingThread(queue).start();
 
         redirectSystemOutLogs();
@@ -57,6 +64,22 @@ public final class LogManager {
         System.setErr(new SystemOutInterceptor(origErr, LogType.ERROR));
     }
 
+    /**
+     * The number of log events which have been dropped since the launcher started, as they were logged faster than
+     * they could be written and spilling to disk isn't enabled.
+     */
+    public static long getDroppedCount() {
+        return queue.getDropped();
+    }
+
+    /**
+     * The number of log events which have been temporarily spilled to disk as they were logged faster than they could
+     * be written.
+     */
+    public static long getSpilledCount() {
+        return queue.getSpilled();
+    }
+
     /**
      * The level of debug logs to show. 1 being lowest, 2 being meh, 3 being
      * EXTREEEEEEEME and 5 being OMG WTF SO MUCH LOGS
@@ -92,8 +115,7 @@ public final class LogManager {
     }
 
     public static void minecraft(String message) {
-        Object[] value = prepareMessageForMinecraftLog(message);
-        queue.offer(new LogEvent((LogType) value[0], (String) value[1], LogEvent.CONSOLE));
+        queue.offer(prepareMinecraftLogEvent(message));
     }
 
     public static void logStackTrace(Throwable t) {
@@ -222,7 +244,27 @@ public final class LogManager {
         return new Object[] { type, message };
     }
 
+    /**
+     * Hands a batch of already prepared Minecraft log events to the logging thread in one go, waiting for room in the
+     * queue rather than dropping them.
+     */
+    public static void minecraft(List<LogEvent> events) throws InterruptedException {
+        if (!events.isEmpty()) {
+            queue.put(LogEvent.batch(events));
+        }
+    }
+
+    public static LogEvent prepareMinecraftLogEvent(String text) {
+        Object[] value = prepareMessageForMinecraftLog(text);
+
+        return new LogEvent((LogType) value[0], (String) value[1], LogEvent.CONSOLE);
+    }
+
     public static void minecraftLog4j(String string) {
+        queue.offer(prepareMinecraftLog4jEvent(string));
+    }
+
+    public static LogEvent prepareMinecraftLog4jEvent(String string) {
         String thread = "";
         String message = "";
         String levelString = "";
@@ -251,7 +293,6 @@ public final class LogManager {
             message = messageMatcher.group(1);
         }
 
-        queue.offer(new LogEvent(level, String.format("[%s/%s] %s", thread, levelString, message),
-                LogEvent.CONSOLE));
+        return new LogEvent(level, String.format("[%s/%s] %s", thread, levelString, message), LogEvent.CONSOLE);
     }
 }
@@ -23,12 +23,15 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
-import org.joda.time.format.ISODateTimeFormat;
-
 import com.atlauncher.Data;
 import com.atlauncher.FileSystem;
 import com.atlauncher.Gsons;
@@ -41,6 +44,20 @@ import com.google.gson.JsonIOException;
 import com.google.gson.JsonSyntaxException;
 
 public class MinecraftManager {
+    /**
+     * Every Minecraft version newest first, and the same split up by type and by major version for releases. These
+     * are rebuilt whenever the versions are loaded.
+     */
+    private static volatile List<VersionManifestVersion> sortedVersions = new ArrayList<>();
+    private static volatile Map<VersionManifestVersionType, List<VersionManifestVersion>> versionsByType =
+            new EnumMap<>(VersionManifestVersionType.class);
+    private static volatile Map<String, List<VersionManifestVersion>> releasesByMajorVersion = new HashMap<>();
+
+    /**
+     * The versions of each type which are disabled in the config.
+     */
+    private static final Map<VersionManifestVersionType, Set<String>> DISABLED_VERSIONS = new ConcurrentHashMap<>();
+
     /**
      * Loads info about the different Minecraft versions
      */
@@ -62,6 +79,8 @@ public class MinecraftManager {
             LogManager.logStackTrace(e);
         }
 
+        indexMinecraftVersions();
+
         LogManager.debug("Finished loading Minecraft versions");
         PerformanceManager.end();
     }
@@ -108,66 +127,88 @@ public class MinecraftManager {
             return singleList;
         }
 
-        return Data.MINECRAFT.entrySet().stream()
-                .filter(e -> {
-                    if (e.getValue().type != VersionManifestVersionType.RELEASE) {
-                        return false;
-                    }
+        return new ArrayList<>(releasesByMajorVersion.getOrDefault(getMajorVersion(version), new ArrayList<>()));
+    }
 
-                    // no patch version (for instance 1.19, 1.18, etc)
-                    if (version.split("\\.").length == 2) {
-                        return e.getKey().startsWith(version);
-                    }
+    /**
+     * Gets the major version a release belongs to, which is the version without its patch version (for instance 1.19
+     * for both 1.19 and 1.19.2).
+     */
+    static String getMajorVersion(String version) {
+        int firstDot = version.indexOf('.');
+        int lastDot = version.lastIndexOf('.');
+
+        // no patch version (for instance 1.19, 1.18, etc)
+        if (firstDot == lastDot) {
+            return version;
+        }
 
-                    return e.getKey().startsWith(version.substring(0, version.lastIndexOf(".")));
-                })
-                .map(Map.Entry::getValue).collect(Collectors.toList());
+        return version.substring(0, lastDot);
     }
 
     public static List<VersionManifestVersion> getFilteredMinecraftVersions(
             List<VersionManifestVersionType> filterTypes) {
-        List<String> disabledVersions = new ArrayList<>();
+        Set<String> disabledVersions = new HashSet<>();
+        filterTypes.forEach(ft -> disabledVersions.addAll(getDisabledVersions(ft)));
 
-        filterTypes.forEach(ft -> disabledVersions.addAll(ConfigManager.getConfigItem(
-                String.format("minecraft.%s.disabledVersions", ft.getValue()), new ArrayList<>())));
-
-        return Data.MINECRAFT.values().stream().filter(mv -> {
-            if (disabledVersions.contains(mv.id)) {
-                return false;
-            }
-
-            return filterTypes.contains(mv.type);
-        }).sorted(Comparator.comparingLong((VersionManifestVersion mv) ->
-            ISODateTimeFormat.dateTimeParser().parseDateTime(mv.releaseTime).getMillis() / 1000
-        ).reversed()).collect(Collectors.toList());
+        return sortedVersions.stream()
+                .filter(mv -> filterTypes.contains(mv.type) && !disabledVersions.contains(mv.id))
+                .collect(Collectors.toList());
     }
 
     public static List<VersionManifestVersion> getFilteredMinecraftVersions(VersionManifestVersionType filterType) {
-        List<String> disabledVersions = ConfigManager.getConfigItem(
-                String.format("minecraft.%s.disabledVersions", filterType.getValue()), new ArrayList<>());
-
-        return Data.MINECRAFT.values().stream().filter(mv -> {
-            if (disabledVersions.contains(mv.id)) {
-                return false;
-            }
+        Set<String> disabledVersions = getDisabledVersions(filterType);
 
-            return mv.type == filterType;
-        }).sorted(Comparator.comparingLong((VersionManifestVersion mv) ->
-            ISODateTimeFormat.dateTimeParser().parseDateTime(mv.releaseTime).getMillis() / 1000
-        ).reversed()).collect(Collectors.toList());
+        return versionsByType.getOrDefault(filterType, new ArrayList<>()).stream()
+                .filter(mv -> !disabledVersions.contains(mv.id)).collect(Collectors.toList());
     }
 
     public static List<VersionManifestVersion> getMinecraftVersions() {
-        List<String> disabledVersions = new ArrayList<>();
+        Set<String> disabledVersions = new HashSet<>();
 
         for (VersionManifestVersionType vt : VersionManifestVersionType.values()) {
-            disabledVersions.addAll(ConfigManager.getConfigItem(
-                    String.format("minecraft.%s.disabledVersions", vt.getValue()), new ArrayList<>()));
+            disabledVersions.addAll(getDisabledVersions(vt));
+        }
+
+        return sortedVersions.stream().filter(mv -> !disabledVersions.contains(mv.id)).collect(Collectors.toList());
+    }
+
+    private static Set<String> getDisabledVersions(VersionManifestVersionType type) {
+        return DISABLED_VERSIONS.computeIfAbsent(type, t -> new HashSet<>(ConfigManager.getConfigItem(
+                String.format("minecraft.%s.disabledVersions", t.getValue()), new ArrayList<String>())));
+    }
+
+    /**
+     * Forgets the disabled versions read from the config, so they're read again after the config is reloaded.
+     */
+    public static void invalidateDisabledVersions() {
+        DISABLED_VERSIONS.clear();
+    }
+
+    /**
+     * Builds the sorted and indexed lists of versions from {@link Data#MINECRAFT}, so listing versions doesn't need to
+     * sort or parse anything.
+     */
+    static void indexMinecraftVersions() {
+        List<VersionManifestVersion> sorted = Data.MINECRAFT.values().stream()
+                .sorted(Comparator.comparingLong((VersionManifestVersion mv) -> mv.getReleaseTime().getMillis())
+                        .reversed())
+                .collect(Collectors.toList());
+
+        Map<VersionManifestVersionType, List<VersionManifestVersion>> byType = new EnumMap<>(
+                VersionManifestVersionType.class);
+        Map<String, List<VersionManifestVersion>> byMajorVersion = new HashMap<>();
+
+        for (VersionManifestVersion version : sorted) {
+            byType.computeIfAbsent(version.type, t -> new ArrayList<>()).add(version);
+
+            if (version.type == VersionManifestVersionType.RELEASE) {
+                byMajorVersion.computeIfAbsent(getMajorVersion(version.id), v -> new ArrayList<>()).add(version);
+            }
         }
 
-        return Data.MINECRAFT.values().stream().filter(mv -> !disabledVersions.contains(mv.id))
-                .sorted(Comparator.comparingLong((VersionManifestVersion mv) ->
-                    ISODateTimeFormat.dateTimeParser().parseDateTime(mv.releaseTime).getMillis() / 1000
-                ).reversed()).collect(Collectors.toList());
+        sortedVersions = sorted;
+        versionsByType = byType;
+        releasesByMajorVersion = byMajorVersion;
     }
 }
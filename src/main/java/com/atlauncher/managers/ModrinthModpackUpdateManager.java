@@ -27,12 +27,20 @@ import java.util.stream.Collectors;
 
 import com.atlauncher.data.Instance;
 import com.atlauncher.data.modrinth.ModrinthVersion;
+import com.atlauncher.network.JsonProjection;
 import com.atlauncher.utils.ModrinthApi;
 
 import io.reactivex.rxjava3.core.Observable;
 import io.reactivex.rxjava3.subjects.BehaviorSubject;
 
 public class ModrinthModpackUpdateManager {
+    /**
+     * Only what's needed to find and show the latest version, skipping each version's changelog, files and
+     * dependencies.
+     */
+    private static final JsonProjection LATEST_VERSION_PROJECTION = new JsonProjection().only(ModrinthVersion.class,
+        "id", "projectId", "name", "versionNumber", "versionType", "datePublished");
+
     /**
      * Modrinth instance update checking
      */
@@ -86,28 +94,26 @@ public class ModrinthModpackUpdateManager {
         PerformanceManager.start();
         LogManager.info("Checking for updates to Modrinth instances");
 
-        InstanceManager.getInstances().parallelStream()
+        // each project only needs checking once, no matter how many instances there are of it
+        Map<String, List<Instance>> instancesByProject = InstanceManager.getInstances().stream()
             .filter(i -> i.isModrinthPack() && i.launcher.modrinthProject.id != null
                 && !i.launcher.modrinthProject.id.isEmpty())
-            .map(i -> i.launcher.modrinthProject.id)
-            .distinct()
-            .collect(Collectors.toList())
-            .forEach(id -> {
-                List<ModrinthVersion> packVersions = ModrinthApi.getVersions(id);
-
-                if (packVersions == null) {
-                    return;
-                }
-
-                ModrinthVersion latestVersion = packVersions.stream()
-                    .sorted(Comparator.comparing((ModrinthVersion version) -> version.datePublished).reversed())
-                    .findFirst().orElse(null);
-
-                InstanceManager.getInstances().stream()
-                    .filter(i -> i.isModrinthPack() && i.launcher.modrinthProject.id.equals(id))
-                    .forEach(i -> getSubject(i).onNext(Optional.ofNullable(latestVersion)));
-            });
-        
+            .collect(Collectors.groupingBy(i -> i.launcher.modrinthProject.id));
+
+        ExternalPackUpdateManager.forEachConcurrently(instancesByProject.entrySet(), entry -> {
+            List<ModrinthVersion> packVersions = ModrinthApi.getVersionsCached(entry.getKey(),
+                LATEST_VERSION_PROJECTION);
+
+            if (packVersions == null) {
+                return;
+            }
+
+            ModrinthVersion latestVersion = packVersions.stream()
+                .max(Comparator.comparing((ModrinthVersion version) -> version.datePublished)).orElse(null);
+
+            entry.getValue().forEach(i -> getSubject(i).onNext(Optional.ofNullable(latestVersion)));
+        });
+
         PerformanceManager.end();
     }
 }
@@ -19,12 +19,12 @@ package com.atlauncher.managers;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public final class PerformanceManager {
 
-    private static final Map<String, Instant> times = new HashMap<>();
+    private static final Map<String, Instant> times = new ConcurrentHashMap<>();
 
     public static void start() {
         start(new Throwable().getStackTrace()[1].getMethodName());
@@ -41,10 +41,10 @@ public final class PerformanceManager {
     }
 
     public static void end(String name) {
-        if (LogManager.showDebug && times.containsKey(name)) {
-            long timeElapsed = Duration.between(times.get(name), Instant.now()).toMillis();
+        Instant start = times.remove(name);
 
-            times.remove(name);
+        if (LogManager.showDebug && start != null) {
+            long timeElapsed = Duration.between(start, Instant.now()).toMillis();
 
             LogManager.debug(name + " took " + timeElapsed + " ms", 5);
         }
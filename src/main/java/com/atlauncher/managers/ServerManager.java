@@ -17,18 +17,27 @@
  */
 package com.atlauncher.managers;
 
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
 import com.atlauncher.FileSystem;
 import com.atlauncher.Gsons;
 import com.atlauncher.data.MicrosoftAccount;
 import com.atlauncher.data.Server;
+import com.atlauncher.utils.DirectoryWatcher;
 import com.atlauncher.utils.FileUtils;
 import com.atlauncher.utils.Utils;
 
@@ -43,6 +52,22 @@ public class ServerManager {
      */
     private static final BehaviorSubject<List<Server>> SERVERS = BehaviorSubject.createDefault(new ArrayList<>());
 
+    /**
+     * Held while the servers list is being changed, see {@link #updateServers(Predicate)}.
+     */
+    private static final Object SERVERS_LOCK = new Object();
+
+    /**
+     * Watches the servers folder and each server's folder, so that changes made outside of the launcher only need the
+     * servers they touched to be reloaded.
+     */
+    private static final DirectoryWatcher WATCHER = new DirectoryWatcher("ServerWatcher");
+
+    /**
+     * When the launcher last saved each server.json, so its own saves aren't mistaken for changes made elsewhere.
+     */
+    private static final Map<Path, FileTime> SAVED_TIMES = new ConcurrentHashMap<>();
+
     /**
      * @return Observable list of servers.
      */
@@ -60,29 +85,166 @@ public class ServerManager {
 
         for (String folder : Optional.ofNullable(FileSystem.SERVERS.toFile().list(Utils.getServerFileFilter()))
                 .orElse(new String[0])) {
-            Path serverDir = FileSystem.SERVERS.resolve(folder);
-
-            Server server;
-
-            try (InputStreamReader fileReader = new InputStreamReader(
-                    Files.newInputStream(serverDir.resolve("server.json")),
-                    StandardCharsets.UTF_8)) {
-                server = Gsons.DEFAULT.fromJson(fileReader, Server.class);
-                server.ROOT = serverDir;
-                LogManager.debug("Loaded server from " + serverDir);
-            } catch (Exception e) {
-                LogManager.logStackTrace("Failed to load server in the folder " + serverDir, e);
-                continue;
-            }
-
-            servers.add(server);
+            loadServer(FileSystem.SERVERS.resolve(folder)).ifPresent(servers::add);
         }
 
-        SERVERS.onNext(servers);
+        updateServers(current -> {
+            current.clear();
+            current.addAll(servers);
+            return true;
+        });
+        watchServers();
         LogManager.debug("Finished loading servers");
         PerformanceManager.end();
     }
 
+    private static Optional<Server> loadServer(Path serverDir) {
+        try (InputStreamReader fileReader = new InputStreamReader(
+                Files.newInputStream(serverDir.resolve("server.json")),
+                StandardCharsets.UTF_8)) {
+            Server server = Gsons.DEFAULT.fromJson(fileReader, Server.class);
+            server.ROOT = serverDir;
+            LogManager.debug("Loaded server from " + serverDir);
+
+            return Optional.of(server);
+        } catch (Exception e) {
+            LogManager.logStackTrace("Failed to load server in the folder " + serverDir, e);
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Records that the launcher has just saved the given server's server.json.
+     */
+    public static void serverSaved(Server server) {
+        Path serverJson = server.getRoot().resolve("server.json");
+
+        try {
+            SAVED_TIMES.put(serverJson, Files.getLastModifiedTime(serverJson));
+        } catch (IOException e) {
+            SAVED_TIMES.remove(serverJson);
+        }
+    }
+
+    /**
+     * Watches the servers folder and the folders of any servers not yet being watched, and stops watching folders of
+     * servers which are gone.
+     */
+    private static synchronized void watchServers() {
+        if (!WATCHER.register(FileSystem.SERVERS,
+                (directory, changed, overflow) -> onServersChanged(overflow ? null : changed))) {
+            return;
+        }
+
+        List<Path> roots = new ArrayList<>();
+        for (Server server : new ArrayList<>(SERVERS.getValue())) {
+            roots.add(server.getRoot());
+            WATCHER.register(server.getRoot(), (directory, changed, overflow) -> {
+                if (overflow || changed.contains(directory.resolve("server.json"))) {
+                    onServerChanged(directory);
+                }
+            });
+        }
+
+        for (Path directory : WATCHER.getWatchedDirectories()) {
+            if (!directory.equals(FileSystem.SERVERS) && !roots.contains(directory)) {
+                WATCHER.unregister(directory);
+            }
+        }
+    }
+
+    /**
+     * Adds or removes servers whose folders were added to or removed from the servers folder.
+     *
+     * @param changed the folders which changed, or null to check every folder
+     */
+    private static void onServersChanged(Set<Path> changed) {
+        Set<Path> folders = changed;
+
+        if (folders == null) {
+            folders = new HashSet<>();
+            for (String folder : Optional.ofNullable(FileSystem.SERVERS.toFile().list(Utils.getServerFileFilter()))
+                    .orElse(new String[0])) {
+                folders.add(FileSystem.SERVERS.resolve(folder));
+            }
+            for (Server server : SERVERS.getValue()) {
+                folders.add(server.getRoot());
+            }
+        }
+
+        // load new servers before changing the list, so reading from disk doesn't hold up other changes to it
+        Map<Path, Server> loaded = new HashMap<>();
+        for (Path folder : folders) {
+            if (Files.exists(folder.resolve("server.json"))
+                    && SERVERS.getValue().stream().noneMatch(s -> s.getRoot().equals(folder))) {
+                loadServer(folder).ifPresent(server -> loaded.put(folder, server));
+            }
+        }
+
+        Set<Path> checkedFolders = folders;
+        boolean updated = updateServers(servers -> {
+            boolean result = false;
+
+            for (Path folder : checkedFolders) {
+                Optional<Server> existing = servers.stream().filter(s -> s.getRoot().equals(folder)).findFirst();
+                Server server = loaded.get(folder);
+
+                if (!Files.exists(folder.resolve("server.json"))) {
+                    if (existing.isPresent()) {
+                        LogManager.info("Server folder " + folder + " was removed");
+                        servers.remove(existing.get());
+                        result = true;
+                    }
+                } else if (!existing.isPresent() && server != null) {
+                    LogManager.info("Server folder " + folder + " was added");
+                    servers.add(server);
+                    result = true;
+                }
+            }
+
+            return result;
+        });
+
+        if (updated) {
+            watchServers();
+        }
+    }
+
+    /**
+     * Reloads a server whose server.json was changed outside of the launcher.
+     */
+    private static void onServerChanged(Path root) {
+        Path serverJson = root.resolve("server.json");
+
+        try {
+            if (!Files.exists(serverJson)
+                    || Files.getLastModifiedTime(serverJson).equals(SAVED_TIMES.get(serverJson))) {
+                return;
+            }
+        } catch (IOException e) {
+            return;
+        }
+
+        loadServer(root).ifPresent(server -> {
+            boolean replaced = updateServers(servers -> {
+                for (int i = 0; i < servers.size(); i++) {
+                    if (servers.get(i).getRoot().equals(root)) {
+                        servers.set(i, server);
+                        return true;
+                    }
+                }
+
+                return false;
+            });
+
+            if (replaced) {
+                LogManager.info("Reloaded server " + server.name + " as it was changed");
+                serverSaved(server);
+            }
+        });
+    }
+
     public static void setServerVisibility(Server server, boolean collapsed) {
         MicrosoftAccount selectedAccount = AccountManager.getSelectedAccount();
 
@@ -109,21 +271,45 @@ public class ServerManager {
      */
     @SuppressWarnings("ConstantConditions")
     public static boolean addServer(Server server) {
-        List<Server> servers = Optional.ofNullable(SERVERS.getValue()).orElse(new ArrayList<>());
+        boolean added = updateServers(servers -> {
+            // the server's folder may have already been picked up while it was being installed
+            servers.removeIf(s -> s.getRoot().equals(server.getRoot()));
+
+            return servers.add(server);
+        });
 
-        boolean added = servers.add(server);
         if (added) {
-            SERVERS.onNext(servers);
+            watchServers();
         }
         return added;
     }
 
     public static void removeServer(Server server) {
-        List<Server> servers = Optional.ofNullable(SERVERS.getValue()).orElse(new ArrayList<>());
-
-        if (servers.remove(server)) {
+        if (updateServers(servers -> servers.remove(server))) {
             FileUtils.delete(server.getRoot(), true);
+            watchServers();
+        }
+    }
+
+    /**
+     * Changes the servers list and publishes the result. The list is never changed in place, and every change goes
+     * through here, so changes made at the same time on different threads (such as from the watcher's thread) can't
+     * undo each other.
+     *
+     * @param update changes the given copy of the list, returning if anything was changed
+     * @return if anything was changed
+     */
+    private static boolean updateServers(Predicate<List<Server>> update) {
+        synchronized (SERVERS_LOCK) {
+            List<Server> servers = new ArrayList<>(Optional.ofNullable(SERVERS.getValue())
+                    .orElse(new ArrayList<>()));
+
+            if (!update.test(servers)) {
+                return false;
+            }
+
             SERVERS.onNext(servers);
+            return true;
         }
     }
 
@@ -17,10 +17,12 @@
  */
 package com.atlauncher.managers;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import com.atlauncher.Gsons;
 import com.atlauncher.data.Instance;
@@ -127,36 +129,47 @@ public class TechnicModpackUpdateManager {
         PerformanceManager.start();
         LogManager.info("Checking for updates to Technic Modpack instances");
 
-        InstanceManager.getInstances().parallelStream()
-            .filter(i -> i.isTechnicPack() && i.launcher.checkForUpdates).forEach(i -> {
-                TechnicModpack technicModpack = null;
+        // each modpack only needs checking once, no matter how many instances there are of it
+        Map<String, List<Instance>> instancesBySlug = InstanceManager.getInstances().stream()
+            .filter(i -> i.isTechnicPack() && i.launcher.checkForUpdates)
+            .collect(Collectors.groupingBy(i -> i.launcher.technicModpack.name));
 
-                try {
-                    technicModpack = TechnicApi.getModpackBySlugWithThrow(i.launcher.technicModpack.name);
-                } catch (DownloadException e) {
-                    if (e.response != null) {
-                        LogManager.debug(Gsons.DEFAULT.toJson(e.response));
-                    }
+        ExternalPackUpdateManager.forEachConcurrently(instancesBySlug.entrySet(), entry -> {
+            TechnicModpack technicModpack = null;
 
-                    if (e.statusCode == 404) {
+            try {
+                technicModpack = TechnicApi.getModpackBySlugWithThrow(entry.getKey());
+            } catch (DownloadException e) {
+                if (e.response != null) {
+                    LogManager.debug(Gsons.DEFAULT.toJson(e.response));
+                }
+
+                if (e.statusCode == 404) {
+                    entry.getValue().forEach(i -> {
                         LogManager.error(String.format(
                             "Technic pack with name of %s no longer exists, disabling update checks.",
                             i.launcher.technicModpack.displayName));
                         i.launcher.checkForUpdates = false;
                         i.save();
-                    }
+                    });
                 }
+            }
 
-                if (technicModpack != null && i.isTechnicSolderPack() && technicModpack.solder != null) {
-                    TechnicSolderModpack technicSolderModpack = TechnicApi.getSolderModpackBySlug(
-                        technicModpack.solder,
-                        technicModpack.name);
+            TechnicSolderModpack technicSolderModpack = null;
+            if (technicModpack != null && technicModpack.solder != null
+                && entry.getValue().stream().anyMatch(Instance::isTechnicSolderPack)) {
+                technicSolderModpack = TechnicApi.getSolderModpackBySlug(technicModpack.solder,
+                    technicModpack.name);
+            }
 
+            for (Instance i : entry.getValue()) {
+                if (technicModpack != null && i.isTechnicSolderPack() && technicModpack.solder != null) {
                     getSolderSubject(i).onNext(Optional.ofNullable(technicSolderModpack));
                 } else {
                     getSubject(i).onNext(Optional.ofNullable(technicModpack));
                 }
-            });
+            }
+        });
 
         PerformanceManager.end();
     }
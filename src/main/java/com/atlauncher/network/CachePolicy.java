@@ -0,0 +1,86 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.network;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.atlauncher.constants.Constants;
+
+import okhttp3.CacheControl;
+import okhttp3.HttpUrl;
+
+/**
+ * How long responses from each API are served from the http cache.
+ *
+ * Responses up to the ttl past their freshness lifetime (which is usually none for these APIs) are served from the
+ * cache without a request. Responses past that but within the stale while revalidate window are still served from the
+ * cache straight away, but a request is then made in the background to refresh them for next time. Older responses
+ * are revalidated (or downloaded again) before being used.
+ */
+public enum CachePolicy {
+    CURSEFORGE(10, 60, host(Constants.CURSEFORGE_CORE_API_URL)),
+    MODRINTH(10, 60, host(Constants.MODRINTH_API_URL)),
+    FTB(10, 60, host(Constants.FTB_API_URL)),
+    TECHNIC(10, 60, host(Constants.TECHNIC_API_URL)),
+
+    // the version manifest needs to be up to date when a new version is released, so only use Mojang's own headers
+    MOJANG(0, 0, host(Constants.LAUNCHER_META_MINECRAFT), "piston-meta.mojang.com"),
+
+    DEFAULT(0, 0);
+
+    private final long ttlSeconds;
+    private final long staleWhileRevalidateSeconds;
+    private final List<String> hosts;
+
+    CachePolicy(long ttlMinutes, long staleWhileRevalidateMinutes, String... hosts) {
+        this.ttlSeconds = TimeUnit.MINUTES.toSeconds(ttlMinutes);
+        this.staleWhileRevalidateSeconds = TimeUnit.MINUTES.toSeconds(staleWhileRevalidateMinutes);
+        this.hosts = Arrays.asList(hosts);
+    }
+
+    private static String host(String url) {
+        return HttpUrl.get(url).host();
+    }
+
+    public static CachePolicy forUrl(HttpUrl url) {
+        for (CachePolicy policy : values()) {
+            if (policy.hosts.contains(url.host())) {
+                return policy;
+            }
+        }
+
+        return DEFAULT;
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public long getStaleWhileRevalidateSeconds() {
+        return staleWhileRevalidateSeconds;
+    }
+
+    /**
+     * The cache control for requests to this API, accepting cached responses up to the ttl old.
+     */
+    public CacheControl getCacheControl() {
+        return new CacheControl.Builder().maxStale((int) ttlSeconds, TimeUnit.SECONDS).build();
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.network;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.atlauncher.Network;
+import com.atlauncher.managers.LogManager;
+
+import okhttp3.Cache;
+import okhttp3.CacheControl;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okio.Okio;
+
+/**
+ * Applies the {@link CachePolicy} for each request made through the cached client, serving stale responses while
+ * they're refreshed in the background, and forcing a request to the network for urls which have been invalidated.
+ *
+ * Invalidated urls are kept by their cache key, so invalidating a url doesn't need to go through every url in the
+ * cache. The next successful response for the url replaces the cached one. Only so many invalidated urls are kept,
+ * with any beyond that removed from the cache the slow way.
+ */
+public final class CachePolicyInterceptor implements Interceptor {
+    private static final int MAX_INVALIDATED = 1024;
+
+    // cache key to url, in the order they were invalidated
+    private static final Map<String, String> INVALIDATED = Collections
+        .synchronizedMap(new LinkedHashMap<String, String>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                if (size() <= MAX_INVALIDATED) {
+                    return false;
+                }
+
+                removeFromCache(eldest.getValue());
+                return true;
+            }
+        });
+    private static final Set<String> REVALIDATING = ConcurrentHashMap.newKeySet();
+
+    private static final AtomicLong STALE_HITS = new AtomicLong();
+    private static final AtomicLong REVALIDATIONS = new AtomicLong();
+    private static final AtomicLong INVALIDATIONS = new AtomicLong();
+
+    /**
+     * Marks background revalidation requests, so they aren't served stale themselves.
+     */
+    private static final class Revalidation {
+    }
+
+    public static void invalidate(String url) {
+        HttpUrl httpUrl = HttpUrl.parse(url);
+
+        if (httpUrl != null && INVALIDATED.putIfAbsent(Cache.key(httpUrl), url) == null) {
+            INVALIDATIONS.incrementAndGet();
+        }
+    }
+
+    private static void removeFromCache(String url) {
+        try {
+            Iterator<String> urls = Network.CACHE.urls();
+
+            while (urls.hasNext()) {
+                if (urls.next().equals(url)) {
+                    urls.remove();
+                }
+            }
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to remove " + url + " from the http cache", e, false);
+        }
+    }
+
+    /**
+     * A summary of how requests through the cache have been served since the launcher started.
+     */
+    public static String getStats(Cache cache) {
+        return String.format(Locale.ENGLISH,
+            "Http cache: %d requests, %d hits, %d network, %d stale hits, %d revalidations, %d invalidations",
+            cache.requestCount(), cache.hitCount(), cache.networkCount(), STALE_HITS.get(), REVALIDATIONS.get(),
+            INVALIDATIONS.get());
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+
+        if (!"GET".equals(request.method())) {
+            return chain.proceed(request);
+        }
+
+        String key = Cache.key(request.url());
+
+        if (INVALIDATED.containsKey(key)) {
+            Response response = chain.proceed(request.newBuilder().cacheControl(CacheControl.FORCE_NETWORK).build());
+
+            if (response.isSuccessful()) {
+                INVALIDATED.remove(key);
+            }
+
+            return response;
+        }
+
+        CachePolicy policy = CachePolicy.forUrl(request.url());
+
+        if (request.header("Cache-Control") == null && policy.getTtlSeconds() > 0) {
+            request = request.newBuilder().cacheControl(policy.getCacheControl()).build();
+        }
+
+        CacheControl cacheControl = request.cacheControl();
+        if (policy.getStaleWhileRevalidateSeconds() == 0 || request.tag(Revalidation.class) != null
+            || cacheControl.noCache() || cacheControl.onlyIfCached()) {
+            return chain.proceed(request);
+        }
+
+        // staleness is judged by OkHttp's own rules both times: a response the request's max stale accepts is fresh
+        // enough, otherwise one the stale while revalidate window on top of that accepts is served and refreshed
+        long ttlSeconds = Math.max(0, cacheControl.maxStaleSeconds());
+        Response fresh = proceedIfCached(chain, request, ttlSeconds);
+        if (fresh != null) {
+            return fresh;
+        }
+
+        Response stale = proceedIfCached(chain, request, ttlSeconds + policy.getStaleWhileRevalidateSeconds());
+        if (stale == null) {
+            return chain.proceed(request);
+        }
+
+        STALE_HITS.incrementAndGet();
+        revalidate(request, key);
+
+        return stale;
+    }
+
+    /**
+     * Gets the response from the cache if there's one no more than the given number of seconds past its freshness.
+     */
+    private static Response proceedIfCached(Chain chain, Request request, long maxStaleSeconds) throws IOException {
+        Response cached = chain.proceed(request.newBuilder().cacheControl(new CacheControl.Builder().onlyIfCached()
+            .maxStale((int) maxStaleSeconds, TimeUnit.SECONDS).build()).build());
+
+        // only if cached requests get a 504 response when there's no usable response in the cache
+        if (!cached.isSuccessful()) {
+            cached.close();
+            return null;
+        }
+
+        return cached;
+    }
+
+    private static void revalidate(Request request, String key) {
+        if (!REVALIDATING.add(key)) {
+            return;
+        }
+
+        // no-cache makes OkHttp go to the network, with a conditional request if the cached response allows it
+        Network.CACHED_CLIENT.newCall(request.newBuilder().cacheControl(new CacheControl.Builder().noCache().build())
+            .tag(Revalidation.class, new Revalidation()).build())
+            .enqueue(new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    REVALIDATING.remove(key);
+                    LogManager.debug("Failed to revalidate " + request.url() + ": " + e.getMessage());
+                }
+
+                @Override
+                public void onResponse(Call call, Response response) throws IOException {
+                    try {
+                        if (response.networkResponse() != null) {
+                            REVALIDATIONS.incrementAndGet();
+                        }
+
+                        // the body needs reading for the response to be written to the cache
+                        response.body().source().readAll(Okio.blackhole());
+                    } finally {
+                        REVALIDATING.remove(key);
+                        response.close();
+                    }
+                }
+            });
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.network;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.atlauncher.managers.LogManager;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Connection pool, dispatcher and protocol settings for the launchers http clients, sized to the concurrent
+ * connections setting so that bursts of small downloads (such as the thousands of asset objects for a Minecraft
+ * version) reuse already open connections rather than making a new connection and TLS handshake for most files.
+ */
+public final class ConnectionTuning {
+    /**
+     * OkHttp's default, which keeps fewer idle connections than downloads run at once by default.
+     */
+    private static final int MIN_IDLE_CONNECTIONS = 5;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+
+    /**
+     * Limit for asynchronous calls across all hosts. Downloads are synchronous calls made from the
+     * {@link DownloadScheduler}'s threads, so are limited by that instead.
+     */
+    private static final int MIN_MAX_REQUESTS = 64;
+
+    private ConnectionTuning() {
+    }
+
+    /**
+     * Applies the connection pool, dispatcher and protocols for the given settings to the builder.
+     */
+    public static OkHttpClient.Builder apply(OkHttpClient.Builder builder, boolean enableHttp2,
+        int concurrentConnections) {
+        return builder.protocols(protocols(enableHttp2))
+            .connectionPool(newConnectionPool(concurrentConnections))
+            .dispatcher(newDispatcher(concurrentConnections));
+    }
+
+    /**
+     * With HTTP/2 enabled, calls to the same host are multiplexed over a single connection, up to the number of
+     * concurrent streams the server allows, with HTTP/1.1 used for servers which don't support it.
+     */
+    public static List<Protocol> protocols(boolean enableHttp2) {
+        return enableHttp2 ? Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1)
+            : Collections.singletonList(Protocol.HTTP_1_1);
+    }
+
+    /**
+     * A pool which keeps at least one idle connection per concurrent download, so a burst of downloads to one host
+     * doesn't close connections it's about to need again.
+     */
+    public static ConnectionPool newConnectionPool(int concurrentConnections) {
+        return new ConnectionPool(Math.max(MIN_IDLE_CONNECTIONS, concurrentConnections), KEEP_ALIVE_MINUTES,
+            TimeUnit.MINUTES);
+    }
+
+    public static Dispatcher newDispatcher(int concurrentConnections) {
+        Dispatcher dispatcher = new Dispatcher();
+        setLimits(dispatcher, concurrentConnections);
+
+        return dispatcher;
+    }
+
+    public static void setLimits(Dispatcher dispatcher, int concurrentConnections) {
+        dispatcher.setMaxRequests(Math.max(MIN_MAX_REQUESTS, concurrentConnections * 2));
+        dispatcher.setMaxRequestsPerHost(Math.max(MIN_IDLE_CONNECTIONS, concurrentConnections));
+    }
+
+    /**
+     * Opens connections to the host of the given url in the background, so they're already in the pool (with the TLS
+     * handshake done) when downloads from it start. Only a single connection is opened when using HTTP/2, as every
+     * download to the host will share it.
+     *
+     * @param connections the number of downloads expected to run against the host at once
+     */
+    public static void prewarm(OkHttpClient client, String url, int connections) {
+        HttpUrl httpUrl = HttpUrl.parse(url);
+        if (httpUrl == null) {
+            return;
+        }
+
+        HttpUrl root = httpUrl.newBuilder().encodedPath("/").query(null).fragment(null).build();
+        int count = client.protocols().contains(Protocol.HTTP_2) ? 1
+            : Math.min(connections, client.dispatcher().getMaxRequestsPerHost());
+
+        // these reuse any idle connections to the host already in the pool, so only open the ones which are missing
+        for (int i = 0; i < count; i++) {
+            client.newCall(new Request.Builder().url(root).head().build()).enqueue(new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    LogManager.debug("Failed to prewarm connection to " + root.host() + ": " + e.getMessage());
+                }
+
+                @Override
+                public void onResponse(Call call, Response response) {
+                    response.close();
+                }
+            });
+        }
+    }
+}
@@ -17,18 +17,27 @@
  */
 package com.atlauncher.network;
 
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
 import java.net.SocketTimeoutException;
-import java.nio.channels.Channels;
+import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
-import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 import com.atlauncher.App;
 import com.atlauncher.FileSystem;
@@ -38,9 +47,12 @@ import com.atlauncher.managers.LogManager;
 import com.atlauncher.utils.ArchiveUtils;
 import com.atlauncher.utils.FileUtils;
 import com.atlauncher.utils.Hashing;
+import com.atlauncher.utils.MurmurHash2;
 import com.atlauncher.utils.Utils;
 import com.atlauncher.workers.InstanceInstaller;
 import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
 
 import okhttp3.CacheControl;
 import okhttp3.Headers;
@@ -52,6 +64,13 @@ import okhttp3.Response;
 // TODO: fuck this file, it's shit, I hate it
 public final class Download {
     public static final int MAX_ATTEMPTS = 3;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long RESUMABLE_MIN_SIZE = 5L * 1024 * 1024;
+    private static final long MIN_SEGMENT_SIZE = 4L * 1024 * 1024;
+    private static final Set<StandardOpenOption> PART_WRITE = EnumSet.of(StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    private static final Set<StandardOpenOption> PART_APPEND = EnumSet.of(StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.APPEND);
 
     // pre request
     String url;
@@ -67,6 +86,7 @@ public final class Download {
     private Long fingerprint = null;
     public long size = -1L;
     private boolean executable = false;
+    private boolean segmented = false;
     public InstanceInstaller instanceInstaller;
     private OkHttpClient httpClient = Network.CLIENT;
     private RequestBody post = null;
@@ -75,6 +95,8 @@ public final class Download {
 
     // generated on/after request
     public Response response;
+    private HashCode downloadedHash = null;
+    private Long downloadedFingerprint = null;
 
     public Download() {
 
@@ -210,6 +232,16 @@ public final class Download {
         return this;
     }
 
+    /**
+     * Allows this download to be split into multiple byte ranges downloaded at the same time, if it's large enough
+     * and the server supports range requests.
+     */
+    public Download segmented() {
+        this.segmented = true;
+
+        return this;
+    }
+
     public Download copyTo(Path copyTo) {
         this.copyTo = copyTo;
 
@@ -257,6 +289,17 @@ public final class Download {
             this.response.close();
         }
 
+        this.response = httpClient.newCall(this.newRequestBuilder().build()).execute();
+
+        if (this.response == null || (!this.ignoreFailures && !this.response.isSuccessful())) {
+            if (this.response != null && this.response.code() == 429) {
+                LogManager.info(this.response.headers().toString());
+            }
+            throw new DownloadException(this);
+        }
+    }
+
+    private Request.Builder newRequestBuilder() {
         Request.Builder builder = new Request.Builder().url(this.url);
 
         if (this.post != null) {
@@ -271,14 +314,7 @@ public final class Download {
             builder.cacheControl(this.cacheControl);
         }
 
-        this.response = httpClient.newCall(builder.build()).execute();
-
-        if (this.response == null || (!this.ignoreFailures && !this.response.isSuccessful())) {
-            if (this.response != null && this.response.code() == 429) {
-                LogManager.info(this.response.headers().toString());
-            }
-            throw new DownloadException(this);
-        }
+        return builder;
     }
 
     public int code() {
@@ -416,23 +452,368 @@ public final class Download {
                 instanceInstaller.addBytesToDownload(size);
             }
         }
-        try (FileChannel fc = FileChannel.open(this.to, Utils.WRITE);
-            ReadableByteChannel rbc = Channels.newChannel(this.response.body().byteStream())) {
-            fc.transferFrom(rbc, 0, Long.MAX_VALUE);
+
+        this.downloadedHash = null;
+        this.downloadedFingerprint = null;
+
+        if (this.shouldDownloadInSegments()) {
+            // no digest is computed for segmented downloads, so they're verified by hashing the file afterwards
+            if (this.downloadSegmented()) {
+                return;
+            }
+
+            LogManager.warn("Segmented download of " + this.to.getFileName()
+                + " failed, falling back to a single connection");
+
+            try {
+                this.execute();
+            } catch (IOException e) {
+                LogManager.logStackTrace("Failed to download file " + this.to, e, false);
+                return;
+            }
+        }
+
+        // hash the file as it's written to disk so we don't need to read it back in to verify it
+        Hasher hasher = this.fingerprint == null ? this.getHashType().newHasher() : null;
+        long nonWhitespaceBytes = 0;
+
+        byte[] buffer = new byte[BUFFER_SIZE];
+        ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+
+        // large files are downloaded to a '.part' file which can be resumed from if the download fails part way
+        boolean resumable = this.isResumable();
+        Path writeTo = resumable ? PartialDownload.getPartPath(this.to) : this.to;
+        long offset = resumable ? this.prepareResume() : 0L;
+
+        try (FileChannel fc = FileChannel.open(writeTo, offset == 0L ? (resumable ? PART_WRITE : Utils.WRITE)
+            : PART_APPEND); InputStream is = this.response.body().byteStream()) {
+            // the bytes we already have still need to go through the hash
+            if (offset != 0L) {
+                try (InputStream existing = Files.newInputStream(writeTo)) {
+                    int read;
+                    while ((read = existing.read(buffer)) != -1) {
+                        if (hasher != null) {
+                            hasher.putBytes(buffer, 0, read);
+                        } else {
+                            nonWhitespaceBytes += MurmurHash2.countNonWhitespace(buffer, 0, read);
+                        }
+                    }
+                }
+            }
+
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                if (hasher != null) {
+                    hasher.putBytes(buffer, 0, read);
+                } else {
+                    nonWhitespaceBytes += MurmurHash2.countNonWhitespace(buffer, 0, read);
+                }
+
+                byteBuffer.clear().limit(read);
+                while (byteBuffer.hasRemaining()) {
+                    fc.write(byteBuffer);
+                }
+            }
         } catch (Exception e) {
+            // the '.part' file and its metadata are left as they are, so the next attempt can resume from them
             LogManager.logStackTrace("Failed to download file " + this.to, e, false);
+            return;
+        }
+
+        if (hasher != null) {
+            this.downloadedHash = hasher.hash();
+        } else {
+            try {
+                // the murmur hash is seeded with the filtered length which we now know, so only one pass is needed
+                // over the just written (and so still cached) file
+                this.downloadedFingerprint = MurmurHash2.hashFile(writeTo, nonWhitespaceBytes);
+            } catch (IOException e) {
+                LogManager.logStackTrace("Error getting murmur hash", e, false);
+            }
+        }
+
+        if (resumable) {
+            try {
+                // a bad '.part' file can't be resumed from, so throw it away rather than replacing a file with it
+                if (!this.ignoreFailures && !this.isCompletePart(writeTo)) {
+                    PartialDownload.delete(this.to);
+                    this.downloadedHash = null;
+                    this.downloadedFingerprint = null;
+                    return;
+                }
+
+                Files.move(writeTo, this.to, StandardCopyOption.REPLACE_EXISTING);
+                PartialDownload.delete(this.to);
+            } catch (IOException e) {
+                LogManager.logStackTrace("Failed to move downloaded file " + writeTo + " to " + this.to, e, false);
+                this.downloadedHash = null;
+                this.downloadedFingerprint = null;
+            }
+        }
+    }
+
+    /**
+     * Checks a finished '.part' file has the expected size and hash before it's moved into place.
+     */
+    private boolean isCompletePart(Path partPath) throws IOException {
+        long partSize = Files.size(partPath);
+
+        if (this.size > 0L && partSize != this.size) {
+            LogManager.warn(String.format(Locale.ENGLISH, "Downloaded %s was %d bytes but expected %d",
+                this.to.getFileName(), partSize, this.size));
+            return false;
+        }
+
+        boolean matches = true;
+
+        if (this.fingerprint != null) {
+            matches = this.downloadedFingerprint == null || this.downloadedFingerprint.equals(this.fingerprint);
+        } else if (this.downloadedHash != null) {
+            HashCode expected = Hashing.toHashCode(this.getHash());
+            matches = expected.equals(Hashing.EMPTY_HASH_CODE) || expected.equals(this.downloadedHash);
+        }
+
+        if (!matches) {
+            LogManager.warn("Downloaded " + this.to.getFileName() + " didn't match the expected hash");
+        }
+
+        return matches;
+    }
+
+    private boolean shouldDownloadInSegments() {
+        if (!this.segmented || this.post != null || App.settings == null || !App.settings.enableSegmentedDownloads
+            || this.size < App.settings.segmentedDownloadMinSizeMb * 1024L * 1024L || this.getSegmentCount() < 2) {
+            return false;
+        }
+
+        // a segment waiting on other segments queued behind it on the scheduler would never finish
+        if (DownloadScheduler.isSchedulerThread()) {
+            return false;
         }
+
+        // let an existing partial download be resumed instead
+        if (Files.exists(PartialDownload.getPartPath(this.to))) {
+            return false;
+        }
+
+        return this.response != null && this.response.code() == 200
+            && "bytes".equalsIgnoreCase(this.response.header("Accept-Ranges"));
+    }
+
+    private int getSegmentCount() {
+        return (int) Math.min(Math.min(App.settings.maxDownloadSegments, DownloadScheduler.getParallelism()),
+            this.size / MIN_SEGMENT_SIZE);
+    }
+
+    /**
+     * Downloads the file as multiple byte ranges at the same time into a preallocated file. The first segment is read
+     * from the already open response, the rest are fetched with range requests on the download scheduler.
+     *
+     * @return if the whole file was downloaded
+     */
+    private boolean downloadSegmented() {
+        int segments = this.getSegmentCount();
+        long segmentSize = (this.size + segments - 1) / segments;
+        Path partPath = PartialDownload.getPartPath(this.to);
+        Response firstResponse = this.response;
+
+        // segments are meant to use separate connections, which HTTP/2 would multiplex over a single one
+        OkHttpClient segmentClient = this.httpClient.newBuilder()
+            .protocols(ConnectionTuning.protocols(false)).build();
+
+        LogManager.debug(String.format(Locale.ENGLISH, "Downloading %s in %d segments of %d bytes",
+            this.to.getFileName(), segments, segmentSize));
+
+        try (RandomAccessFile file = new RandomAccessFile(partPath.toFile(), "rw")) {
+            file.setLength(this.size);
+            FileChannel fc = file.getChannel();
+
+            List<Runnable> tasks = new ArrayList<>();
+            List<IOException> failures = Collections.synchronizedList(new ArrayList<>());
+            for (int i = 1; i < segments; i++) {
+                long start = i * segmentSize;
+                long end = Math.min(this.size, start + segmentSize) - 1;
+
+                tasks.add(() -> {
+                    try {
+                        this.downloadSegment(segmentClient, fc, start, end, null);
+                    } catch (IOException e) {
+                        failures.add(e);
+                    }
+                });
+            }
+
+            DownloadScheduler.Batch batch = DownloadScheduler.submit(tasks);
+
+            try {
+                this.downloadSegment(segmentClient, fc, 0, segmentSize - 1, firstResponse);
+
+                if (!batch.await(() -> this.instanceInstaller != null && this.instanceInstaller.isCancelled())) {
+                    throw new IOException("Segmented download of " + this.to.getFileName() + " was cancelled");
+                }
+            } finally {
+                // never close, delete or fall back from the file while other segments may still be writing to it
+                batch.cancel();
+                batch.awaitTermination();
+            }
+
+            if (!failures.isEmpty()) {
+                throw failures.get(0);
+            }
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed segmented download of " + this.to, e, false);
+            PartialDownload.delete(this.to);
+            return false;
+        }
+
+        try {
+            Files.move(partPath, this.to, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to move downloaded file " + partPath + " to " + this.to, e, false);
+            PartialDownload.delete(this.to);
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Downloads the bytes from start to end (inclusive) of the file, writing them at the same position in the given
+     * channel. If no response is given (or it fails), a range request is made for the remaining bytes.
+     */
+    private void downloadSegment(OkHttpClient client, FileChannel fc, long start, long end, Response initialResponse)
+        throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+        long position = start;
+
+        for (int attempt = 1; position <= end; attempt++) {
+            Response segmentResponse = attempt == 1 ? initialResponse : null;
+
+            try {
+                if (segmentResponse == null) {
+                    segmentResponse = client.newCall(
+                        this.newRequestBuilder().header("Range", "bytes=" + position + "-" + end).build()).execute();
+
+                    if (segmentResponse.code() != 206 || !String.valueOf(segmentResponse.header("Content-Range"))
+                        .startsWith("bytes " + position + "-")) {
+                        throw new IOException("Server didn't honour range request for " + this.url + ": "
+                            + segmentResponse);
+                    }
+                }
+
+                InputStream is = segmentResponse.body().byteStream();
+                while (position <= end) {
+                    if (this.instanceInstaller != null && this.instanceInstaller.isCancelled()) {
+                        throw new IOException("Download of " + this.to.getFileName() + " was cancelled");
+                    }
+
+                    int read = is.read(buffer, 0, (int) Math.min(buffer.length, end - position + 1));
+                    if (read == -1) {
+                        throw new EOFException("Unexpected end of stream downloading " + this.url);
+                    }
+
+                    byteBuffer.clear().limit(read);
+                    while (byteBuffer.hasRemaining()) {
+                        position += fc.write(byteBuffer, position);
+                    }
+                }
+            } catch (IOException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+
+                LogManager.debug(String.format(Locale.ENGLISH, "Retrying segment %d-%d of %s from %d", start, end,
+                    this.to.getFileName(), position));
+            } finally {
+                if (segmentResponse != null) {
+                    segmentResponse.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Only plain GET requests for large files are worth resuming.
+     */
+    private boolean isResumable() {
+        return this.post == null && this.size >= RESUMABLE_MIN_SIZE;
+    }
+
+    /**
+     * Checks for a partial download of this file, and if there is one that's still valid, replaces the open response
+     * with a range request for the rest of the file.
+     *
+     * @return the offset in the file the response starts from, or 0 if downloading from the start
+     */
+    private long prepareResume() {
+        PartialDownload current = PartialDownload.from(this.url, this.hash, this.fingerprint, this.size,
+            this.response);
+        PartialDownload existing = PartialDownload.read(this.to);
+        Path partPath = PartialDownload.getPartPath(this.to);
+
+        try {
+            long partSize = Files.exists(partPath) ? Files.size(partPath) : 0L;
+
+            if (partSize != 0L && partSize < this.size && current.isSameFileAs(existing)
+                && existing.getIfRange() != null) {
+                Request request = this.newRequestBuilder().header("Range", "bytes=" + partSize + "-")
+                    .header("If-Range", existing.getIfRange()).build();
+
+                this.response.close();
+                this.response = this.httpClient.newCall(request).execute();
+
+                if (this.response.code() == 206 && String.valueOf(this.response.header("Content-Range"))
+                    .startsWith("bytes " + partSize + "-")) {
+                    LogManager.info(String.format(Locale.ENGLISH, "Resuming download of %s from %d of %d bytes",
+                        this.to.getFileName(), partSize, this.size));
+                    return partSize;
+                }
+
+                // the server sent us the whole file (or an error), so start again from scratch
+                if (!this.response.isSuccessful()) {
+                    this.execute();
+                }
+
+                current = PartialDownload.from(this.url, this.hash, this.fingerprint, this.size, this.response);
+            }
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to resume download of " + this.to, e, false);
+        }
+
+        PartialDownload.delete(this.to);
+        current.write(this.to);
+
+        return 0L;
+    }
+
+    private HashFunction getHashType() {
+        if (this.md5()) {
+            return com.google.common.hash.Hashing.md5();
+        } else if (this.sha256()) {
+            return com.google.common.hash.Hashing.sha256();
+        } else if (this.sha512()) {
+            return com.google.common.hash.Hashing.sha512();
+        }
+
+        return com.google.common.hash.Hashing.sha1();
     }
 
     private boolean hashMatches() {
         if (Files.exists(this.to)) {
             if (this.fingerprint != null) {
+                if (this.downloadedFingerprint != null) {
+                    return this.downloadedFingerprint.equals(this.fingerprint);
+                }
+
                 try {
                     return Hashing.murmur(this.to) == this.fingerprint;
                 } catch (IOException e) {
                     LogManager.error("Error getting murmur hash");
                     return false;
                 }
+            } else if (this.downloadedHash != null) {
+                return this.downloadedHash.equals(Hashing.toHashCode(this.getHash()));
             } else if (this.md5()) {
                 return Hashing.md5(this.to).equals(Hashing.toHashCode(this.getHash()));
             } else if (this.sha256()) {
@@ -572,7 +953,7 @@ public final class Download {
                 if (e instanceof SocketTimeoutException && tries < 3) {
                     LogManager.warn(String.format("Failed to download %s from %s due to timeout. Attempting again.",
                         this.to.getFileName().toString(), this.url));
-                    downloadFile(tries++);
+                    downloadFile(tries + 1);
                     return;
                 }
 
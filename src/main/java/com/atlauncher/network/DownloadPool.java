@@ -20,17 +20,17 @@ package com.atlauncher.network;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.Locale;
 import java.util.stream.Collectors;
 
-import com.atlauncher.App;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.utils.FileUtils;
 
 public final class DownloadPool extends ArrayList<Download> {
     private final boolean wait;
+    private final List<DownloadFailure> failures = Collections.synchronizedList(new ArrayList<>());
 
     public DownloadPool(boolean wait) {
         this.wait = wait;
@@ -47,15 +47,23 @@ public final class DownloadPool extends ArrayList<Download> {
             }
         }
 
-        ExecutorService executor = Executors.newFixedThreadPool(App.settings.concurrentConnections);
+        failures.clear();
+
+        List<Downloader> tasks;
         synchronized (this) {
-            for (Download dl : this) {
-                executor.execute(new Downloader(dl));
-            }
+            tasks = this.stream().map(Downloader::new).collect(Collectors.toList());
         }
-        executor.shutdown();
+
+        DownloadScheduler.Batch batch = DownloadScheduler.submit(tasks);
+
         if (this.wait) {
-            while (!executor.isTerminated()) {
+            if (!batch.await(this::isCancelled)) {
+                LogManager.debug("Download pool was cancelled before all downloads finished");
+            }
+
+            if (!failures.isEmpty()) {
+                LogManager.warn(String.format(Locale.ENGLISH, "%d of %d downloads failed", failures.size(),
+                    tasks.size()));
             }
         }
     }
@@ -76,23 +84,18 @@ public final class DownloadPool extends ArrayList<Download> {
         final DownloadPool pool = new DownloadPool(this.wait);
         final List<Download> downloads = this.stream().distinct().collect(Collectors.toList());
 
-        ExecutorService executor = Executors.newFixedThreadPool(App.settings.concurrentConnections);
-        for (final Download dl : downloads) {
-            executor.submit(() -> {
-                if (dl.needToDownload()) {
-                    synchronized (pool) {
-                        pool.add(dl);
-                    }
-                } else {
-                    dl.copy();
-                    dl.runPostProcessors();
+        List<Runnable> tasks = downloads.stream().map(dl -> (Runnable) () -> {
+            if (dl.needToDownload()) {
+                synchronized (pool) {
+                    pool.add(dl);
                 }
-            });
-        }
+            } else {
+                dl.copy();
+                dl.runPostProcessors();
+            }
+        }).collect(Collectors.toList());
 
-        executor.shutdown();
-        while (!executor.isTerminated()) {
-        }
+        DownloadScheduler.runAll(tasks, this::isCancelled);
 
         return pool;
     }
@@ -109,7 +112,45 @@ public final class DownloadPool extends ArrayList<Download> {
         return false;
     }
 
-    private static final class Downloader implements Runnable {
+    /**
+     * If the install that the downloads in this pool belong to has been cancelled.
+     */
+    public boolean isCancelled() {
+        synchronized (this) {
+            for (Download dl : this) {
+                if (dl.instanceInstaller != null) {
+                    return dl.instanceInstaller.isCancelled();
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * The downloads that failed during the last call to {@link #downloadAll()}.
+     */
+    public List<DownloadFailure> getFailures() {
+        synchronized (failures) {
+            return new ArrayList<>(failures);
+        }
+    }
+
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+
+    public static final class DownloadFailure {
+        public final Download download;
+        public final Exception exception;
+
+        private DownloadFailure(Download download, Exception exception) {
+            this.download = download;
+            this.exception = exception;
+        }
+    }
+
+    private final class Downloader implements Runnable {
         private final Download dl;
 
         private Downloader(Download dl) {
@@ -124,7 +165,8 @@ public final class DownloadPool extends ArrayList<Download> {
                 } else {
                     this.dl.copy();
                 }
-            } catch (IOException e) {
+            } catch (IOException | RuntimeException e) {
+                failures.add(new DownloadFailure(this.dl, e));
                 LogManager.logStackTrace("Error trying to download " + this.dl.to.getFileName(), e);
             }
         }
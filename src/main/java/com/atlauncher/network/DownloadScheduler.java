@@ -0,0 +1,238 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.network;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import com.atlauncher.App;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Launcher wide scheduler for network and disk bound download work. All {@link DownloadPool}'s share the same bounded
+ * set of threads (sized to the concurrent connections setting), and waiting for a batch of work to complete is done
+ * with a latch rather than polling the executor.
+ */
+public final class DownloadScheduler {
+    private static final long CANCEL_CHECK_INTERVAL_MS = 250;
+    private static final String THREAD_NAME_PREFIX = "DownloadScheduler-";
+
+    private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(1, 1, 30L, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(),
+        new ThreadFactoryBuilder().setNameFormat(THREAD_NAME_PREFIX + "%d").setDaemon(true).build());
+
+    static {
+        EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    private DownloadScheduler() {
+    }
+
+    /**
+     * Resizes the shared executor if the concurrent connections setting has changed since it was last used.
+     */
+    private static synchronized ThreadPoolExecutor executor() {
+        int size = Math.max(1, App.settings == null ? 8 : App.settings.concurrentConnections);
+
+        if (EXECUTOR.getMaximumPoolSize() != size) {
+            // order matters here, as core size can never be larger than max size
+            if (size > EXECUTOR.getMaximumPoolSize()) {
+                EXECUTOR.setMaximumPoolSize(size);
+                EXECUTOR.setCorePoolSize(size);
+            } else {
+                EXECUTOR.setCorePoolSize(size);
+                EXECUTOR.setMaximumPoolSize(size);
+            }
+        }
+
+        return EXECUTOR;
+    }
+
+    /**
+     * The number of threads work submitted to this scheduler will be spread over.
+     */
+    public static int getParallelism() {
+        return executor().getMaximumPoolSize();
+    }
+
+    /**
+     * If the current thread belongs to this scheduler. Work running on the scheduler must not wait on other work
+     * submitted to it, as that work may be queued behind it.
+     */
+    public static boolean isSchedulerThread() {
+        return Thread.currentThread().getName().startsWith(THREAD_NAME_PREFIX);
+    }
+
+    /**
+     * Submits the given tasks to the shared executor without waiting for them.
+     */
+    public static Batch submit(Collection<? extends Runnable> tasks) {
+        ThreadPoolExecutor executor = executor();
+        Batch batch = new Batch(executor, tasks.size());
+
+        for (Runnable task : tasks) {
+            // done() is called on completion, failure and cancellation, so the latch always reaches zero
+            FutureTask<Void> future = new FutureTask<Void>(task, null) {
+                @Override
+                public void run() {
+                    try {
+                        super.run();
+                    } finally {
+                        batch.terminated.countDown();
+                    }
+                }
+
+                @Override
+                protected void done() {
+                    batch.latch.countDown();
+                }
+            };
+
+            batch.futures.add(future);
+            executor.execute(future);
+        }
+
+        return batch;
+    }
+
+    /**
+     * Submits the given tasks to the shared executor and waits for them all to finish, or for the cancelled check to
+     * return true (in which case all tasks not yet finished are cancelled).
+     *
+     * @return true if all the tasks ran to completion, false if cancelled or interrupted
+     */
+    public static boolean runAll(Collection<? extends Runnable> tasks, BooleanSupplier cancelled) {
+        return submit(tasks).await(cancelled);
+    }
+
+    /**
+     * A batch of tasks submitted together to the scheduler.
+     */
+    public static final class Batch {
+        private final ThreadPoolExecutor executor;
+        private final CountDownLatch latch;
+        // unlike the latch, which cancelling a task counts down straight away, only counted down once a task has
+        // actually stopped running (or been removed before it started)
+        private final CountDownLatch terminated;
+        private final List<FutureTask<?>> futures;
+
+        private Batch(ThreadPoolExecutor executor, int size) {
+            this.executor = executor;
+            this.latch = new CountDownLatch(size);
+            this.terminated = new CountDownLatch(size);
+            this.futures = new ArrayList<>(size);
+        }
+
+        /**
+         * Waits for all tasks in this batch to finish.
+         *
+         * @return true if all the tasks ran to completion, false if cancelled or interrupted
+         */
+        public boolean await(BooleanSupplier cancelled) {
+            try {
+                while (!latch.await(CANCEL_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                    if (cancelled != null && cancelled.getAsBoolean()) {
+                        cancel();
+                        return false;
+                    }
+                }
+            } catch (InterruptedException e) {
+                cancel();
+                Thread.currentThread().interrupt();
+                return false;
+            }
+
+            return true;
+        }
+
+        /**
+         * Cancels all tasks not yet finished, interrupting any that are running. Running tasks may still be going
+         * once this returns, see {@link #awaitTermination()}.
+         */
+        public void cancel() {
+            for (FutureTask<?> future : futures) {
+                // tasks removed before they've started will never run, so won't count themselves as terminated
+                if (executor.remove(future)) {
+                    terminated.countDown();
+                }
+
+                future.cancel(true);
+            }
+        }
+
+        /**
+         * Waits until none of the tasks in this batch are running, including any which have been cancelled but are
+         * still stopping. If interrupted, this carries on waiting and leaves the thread interrupted afterwards.
+         */
+        public void awaitTermination() {
+            boolean interrupted = false;
+
+            while (true) {
+                try {
+                    terminated.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        public boolean isDone() {
+            return latch.getCount() == 0;
+        }
+
+        /**
+         * Returns any exceptions thrown out of the tasks in this batch. Should only be called once the batch is done.
+         */
+        public List<Throwable> getFailures() {
+            List<Throwable> failures = new ArrayList<>();
+
+            for (Future<?> future : futures) {
+                if (!future.isDone()) {
+                    continue;
+                }
+
+                try {
+                    future.get();
+                } catch (CancellationException ignored) {
+                    // cancelled tasks aren't failures
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (Exception e) {
+                    failures.add(e.getCause() == null ? e : e.getCause());
+                }
+            }
+
+            return failures;
+        }
+    }
+}
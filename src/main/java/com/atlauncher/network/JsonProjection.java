@@ -0,0 +1,88 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.network;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.atlauncher.Gsons;
+import com.google.gson.ExclusionStrategy;
+import com.google.gson.FieldAttributes;
+import com.google.gson.Gson;
+
+/**
+ * Limits which fields of a class are read when deserializing a response. Fields which aren't read are skipped over
+ * as the response is streamed in, so large parts of a response which aren't needed (such as changelogs or the list of
+ * files in a jar) are never held in memory.
+ *
+ * Fields are given by their Java name, not their serialized name. A projection should be fully set up before it's
+ * first used, and is best kept in a constant so that its {@link Gson} is only created once.
+ */
+public final class JsonProjection {
+    private final Map<Class<?>, Set<String>> included = new HashMap<>();
+    private final Map<Class<?>, Set<String>> excluded = new HashMap<>();
+
+    private Gson gson;
+
+    /**
+     * Only read the given fields of the class, leaving the rest with their default values.
+     */
+    public JsonProjection only(Class<?> type, String... fields) {
+        included.computeIfAbsent(type, t -> new HashSet<>()).addAll(Arrays.asList(fields));
+        return this;
+    }
+
+    /**
+     * Don't read the given fields of the class, leaving them with their default values.
+     */
+    public JsonProjection without(Class<?> type, String... fields) {
+        excluded.computeIfAbsent(type, t -> new HashSet<>()).addAll(Arrays.asList(fields));
+        return this;
+    }
+
+    public synchronized Gson getGson() {
+        if (gson == null) {
+            gson = Gsons.DEFAULT.newBuilder().addDeserializationExclusionStrategy(new ExclusionStrategy() {
+                @Override
+                public boolean shouldSkipClass(Class<?> clazz) {
+                    return false;
+                }
+
+                @Override
+                public boolean shouldSkipField(FieldAttributes field) {
+                    return isSkipped(field.getDeclaringClass(), field.getName());
+                }
+            }).create();
+        }
+
+        return gson;
+    }
+
+    boolean isSkipped(Class<?> type, String field) {
+        Set<String> includedFields = included.get(type);
+        if (includedFields != null && !includedFields.contains(field)) {
+            return true;
+        }
+
+        Set<String> excludedFields = excluded.get(type);
+        return excludedFields != null && excludedFields.contains(field);
+    }
+}
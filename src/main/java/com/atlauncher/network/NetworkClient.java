@@ -18,6 +18,7 @@
 package com.atlauncher.network;
 
 import java.io.IOException;
+import java.io.Reader;
 import java.lang.reflect.Type;
 
 import javax.annotation.Nullable;
@@ -25,6 +26,8 @@ import javax.annotation.Nullable;
 import com.atlauncher.Gsons;
 import com.atlauncher.Network;
 import com.atlauncher.managers.LogManager;
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
 import com.google.gson.reflect.TypeToken;
 
 import okhttp3.CacheControl;
@@ -120,6 +123,20 @@ public class NetworkClient {
         }
     }
 
+    /**
+     * Like {@link #getCached(String, Headers, Type, CacheControl)}, but only reading the fields in the given
+     * projection, for large responses where only a small part is needed.
+     */
+    @Nullable
+    public static <T> T getCached(String url, @Nullable Headers headers, Type type,
+        @Nullable CacheControl cacheControl, JsonProjection projection) {
+        try {
+            return makeRequest(url, headers, null, type, cacheControl, projection.getGson());
+        } catch (DownloadException e) {
+            return null;
+        }
+    }
+
     @Nullable
     public static <T> T getCachedWithThrow(String url, Class<T> tClass, @Nullable CacheControl cacheControl)
         throws DownloadException {
@@ -189,6 +206,12 @@ public class NetworkClient {
     @Nullable
     private static <T> T makeRequest(String url, @Nullable Headers headers, @Nullable RequestBody requestBody,
         Type type, @Nullable CacheControl cacheControl) throws DownloadException {
+        return makeRequest(url, headers, requestBody, type, cacheControl, Gsons.DEFAULT);
+    }
+
+    @Nullable
+    private static <T> T makeRequest(String url, @Nullable Headers headers, @Nullable RequestBody requestBody,
+        Type type, @Nullable CacheControl cacheControl, Gson gson) throws DownloadException {
         Request.Builder builder = new Request.Builder().url(url);
 
         if (headers != null) {
@@ -221,10 +244,13 @@ public class NetworkClient {
                 return null;
             }
 
-            return Gsons.DEFAULT.fromJson(body.string(), type);
+            // deserialize straight from the response rather than reading it all into a string first
+            try (Reader reader = body.charStream()) {
+                return gson.fromJson(reader, type);
+            }
         } catch (DownloadException e) {
             throw e; // Re-throw DownloadException
-        } catch (IOException e) {
+        } catch (IOException | JsonIOException e) {
             LogManager.logStackTrace(String.format("Error calling %s", url), e, false);
             return null;
         }
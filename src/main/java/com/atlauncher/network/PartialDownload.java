@@ -0,0 +1,176 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.network;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.atlauncher.Gsons;
+import com.atlauncher.managers.LogManager;
+
+import okhttp3.Response;
+
+/**
+ * Metadata about a partially downloaded file, stored next to the '.part' file so that a later attempt (or a later
+ * launch of the launcher) can continue the download with a HTTP range request rather than starting again.
+ */
+public final class PartialDownload {
+    /**
+     * How long a partial download is kept around for to be resumed before it's assumed to have been abandoned.
+     */
+    public static final long STALE_AFTER_MS = 7L * 24 * 60 * 60 * 1000;
+
+    public String url;
+    public String hash;
+    public Long fingerprint;
+    public long size;
+    public String etag;
+    public String lastModified;
+
+    public static Path getPartPath(Path to) {
+        return to.resolveSibling(to.getFileName().toString() + ".part");
+    }
+
+    public static Path getMetadataPath(Path to) {
+        return to.resolveSibling(to.getFileName().toString() + ".part.json");
+    }
+
+    public static PartialDownload from(String url, String hash, Long fingerprint, long size, Response response) {
+        PartialDownload partialDownload = new PartialDownload();
+        partialDownload.url = url;
+        partialDownload.hash = hash;
+        partialDownload.fingerprint = fingerprint;
+        partialDownload.size = size;
+
+        if (response != null) {
+            partialDownload.etag = response.header("ETag");
+            partialDownload.lastModified = response.header("Last-Modified");
+        }
+
+        return partialDownload;
+    }
+
+    public static PartialDownload read(Path to) {
+        Path metadataPath = getMetadataPath(to);
+
+        if (!Files.exists(metadataPath)) {
+            return null;
+        }
+
+        try (InputStreamReader reader = new InputStreamReader(Files.newInputStream(metadataPath),
+            StandardCharsets.UTF_8)) {
+            return Gsons.DEFAULT_SLIM.fromJson(reader, PartialDownload.class);
+        } catch (Exception e) {
+            LogManager.logStackTrace("Failed to read partial download metadata for " + to, e, false);
+            return null;
+        }
+    }
+
+    public void write(Path to) {
+        try (OutputStreamWriter writer = new OutputStreamWriter(Files.newOutputStream(getMetadataPath(to)),
+            StandardCharsets.UTF_8)) {
+            Gsons.DEFAULT_SLIM.toJson(this, writer);
+        } catch (Exception e) {
+            LogManager.logStackTrace("Failed to write partial download metadata for " + to, e, false);
+        }
+    }
+
+    public static void delete(Path to) {
+        try {
+            Files.deleteIfExists(getPartPath(to));
+            Files.deleteIfExists(getMetadataPath(to));
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to delete partial download for " + to, e, false);
+        }
+    }
+
+    /**
+     * Deletes partial downloads under the given directory which haven't been touched in a while, such as those left
+     * behind by a cancelled install of a pack that was never tried again.
+     *
+     * @return the number of files deleted
+     */
+    public static int deleteStale(Path directory, long maxAgeMs) {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+
+        List<Path> files;
+        try (Stream<Path> stream = Files.walk(directory)) {
+            files = stream.filter(file -> {
+                String name = file.getFileName().toString();
+                return (name.endsWith(".part") || name.endsWith(".part.json")) && Files.isRegularFile(file);
+            }).collect(Collectors.toList());
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to look for partial downloads in " + directory, e, false);
+            return 0;
+        }
+
+        int deleted = 0;
+        long now = System.currentTimeMillis();
+
+        for (Path file : files) {
+            try {
+                if (now - Files.getLastModifiedTime(file).toMillis() > maxAgeMs) {
+                    Files.delete(file);
+                    deleted++;
+                }
+            } catch (IOException e) {
+                LogManager.logStackTrace("Failed to delete stale partial download " + file, e, false);
+            }
+        }
+
+        return deleted;
+    }
+
+    /**
+     * If a previously stored partial download is for the same file as this one.
+     */
+    public boolean isSameFileAs(PartialDownload other) {
+        if (other == null || !Objects.equals(url, other.url) || !Objects.equals(hash, other.hash)
+            || !Objects.equals(fingerprint, other.fingerprint) || size != other.size) {
+            return false;
+        }
+
+        // if the server has told us the file has changed since the partial download, then we can't resume
+        if (etag != null && other.etag != null && !etag.equals(other.etag)) {
+            return false;
+        }
+
+        return lastModified == null || other.lastModified == null || lastModified.equals(other.lastModified);
+    }
+
+    /**
+     * The value to send in the If-Range header, so the server only honours the range if the file hasn't changed.
+     */
+    public String getIfRange() {
+        if (etag != null && !etag.startsWith("W/")) {
+            return etag;
+        }
+
+        return lastModified;
+    }
+}
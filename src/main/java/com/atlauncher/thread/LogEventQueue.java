@@ -0,0 +1,259 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.thread;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.atlauncher.Gsons;
+import com.atlauncher.evnt.LogEvent;
+import com.atlauncher.evnt.LogEvent.LogType;
+
+/**
+ * Queue of log events with many producers and the single logging thread as its consumer.
+ *
+ * Producers never wait on the consumer. Events go into a large in memory queue, and if that's full they're either
+ * counted as dropped or, with spill to disk enabled, appended to a file. Once the consumer has emptied the in memory
+ * queue it reads the spilled events back in the order they were written, so nothing is lost or reordered. While any
+ * events are spilled, new events are spilled after them for the same reason.
+ */
+public final class LogEventQueue {
+    private static final long POLL_INTERVAL_MS = 250;
+
+    private final BlockingQueue<LogEvent> memory;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+
+    private final Object spillLock = new Object();
+    private Path spillFile = null;
+    private volatile boolean spilling = false;
+    private BufferedWriter spillWriter = null;
+
+    // only used by the consumer
+    private BufferedReader replayReader = null;
+    private Path replayFile = null;
+
+    private static final class SpilledEvent {
+        public LogType type;
+        public int meta;
+        public String body;
+    }
+
+    public LogEventQueue(int capacity) {
+        this.memory = new LinkedBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Enables spilling events to the given file when the in memory queue is full, or disables it if null.
+     */
+    public void setSpillFile(Path spillFile) {
+        synchronized (spillLock) {
+            this.spillFile = spillFile;
+        }
+    }
+
+    /**
+     * Adds an event without waiting.
+     *
+     * @return false if the event was dropped
+     */
+    public boolean offer(LogEvent event) {
+        if (!spilling && memory.offer(event)) {
+            return true;
+        }
+
+        synchronized (spillLock) {
+            if (!spilling && memory.offer(event)) {
+                return true;
+            }
+
+            if (spill(event)) {
+                return true;
+            }
+        }
+
+        dropped.addAndGet(event.getEvents().size());
+        return false;
+    }
+
+    /**
+     * Adds an event, waiting for room in the queue if it's full and spilling to disk isn't enabled.
+     */
+    public void put(LogEvent event) throws InterruptedException {
+        while (!offerWithoutDropping(event)) {
+            // wait for the logging thread to make room
+            if (memory.offer(event, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        }
+    }
+
+    private boolean offerWithoutDropping(LogEvent event) {
+        if (!spilling && memory.offer(event)) {
+            return true;
+        }
+
+        synchronized (spillLock) {
+            return (!spilling && memory.offer(event)) || spill(event);
+        }
+    }
+
+    private boolean spill(LogEvent event) {
+        if (spillFile == null) {
+            return false;
+        }
+
+        try {
+            if (spillWriter == null) {
+                spillWriter = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+            }
+
+            for (LogEvent single : event.getEvents()) {
+                SpilledEvent spilledEvent = new SpilledEvent();
+                spilledEvent.type = single.type;
+                spilledEvent.meta = single.meta;
+                spilledEvent.body = single.body;
+
+                spillWriter.write(Gsons.DEFAULT_SLIM.toJson(spilledEvent));
+                spillWriter.newLine();
+                spilled.incrementAndGet();
+            }
+            spillWriter.flush();
+
+            spilling = true;
+            return true;
+        } catch (IOException e) {
+            // can't log this, as that would come back to this queue
+            e.printStackTrace(System.err);
+            return false;
+        }
+    }
+
+    /**
+     * Takes up to the given number of events, in order, waiting until there's at least one.
+     */
+    public void drainTo(List<LogEvent> batch, int maxEvents) throws InterruptedException {
+        while (true) {
+            // spilled events being replayed are older than anything in memory
+            if (replayReader != null && replay(batch, maxEvents)) {
+                return;
+            }
+
+            if (memory.drainTo(batch, maxEvents) != 0) {
+                return;
+            }
+
+            if (spilling && startReplay()) {
+                continue;
+            }
+
+            LogEvent event = memory.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            if (event != null) {
+                batch.add(event);
+                memory.drainTo(batch, maxEvents - 1);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Stops spilling and starts reading back what's been spilled, which must only be done once the in memory queue
+     * is empty.
+     */
+    private boolean startReplay() {
+        synchronized (spillLock) {
+            if (!spilling || !memory.isEmpty()) {
+                return false;
+            }
+
+            try {
+                spillWriter.close();
+                spillWriter = null;
+
+                replayFile = spillFile.resolveSibling(spillFile.getFileName() + ".replay");
+                Files.move(spillFile, replayFile, StandardCopyOption.REPLACE_EXISTING);
+                replayReader = Files.newBufferedReader(replayFile, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                e.printStackTrace(System.err);
+                replayReader = null;
+            }
+
+            spilling = false;
+            return replayReader != null;
+        }
+    }
+
+    private boolean replay(List<LogEvent> batch, int maxEvents) {
+        int added = 0;
+
+        try {
+            String line;
+            while (added < maxEvents && (line = replayReader.readLine()) != null) {
+                SpilledEvent spilledEvent = Gsons.DEFAULT_SLIM.fromJson(line, SpilledEvent.class);
+                batch.add(new LogEvent(spilledEvent.type, spilledEvent.body, spilledEvent.meta));
+                added++;
+            }
+
+            if (added == maxEvents) {
+                return true;
+            }
+        } catch (Exception e) {
+            e.printStackTrace(System.err);
+        }
+
+        try {
+            replayReader.close();
+            Files.deleteIfExists(replayFile);
+        } catch (IOException e) {
+            e.printStackTrace(System.err);
+        }
+
+        replayReader = null;
+        return added != 0;
+    }
+
+    /**
+     * The number of events dropped because the queue was full and they couldn't be spilled to disk.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * The number of events that have been spilled to disk because the queue was full.
+     */
+    public long getSpilled() {
+        return spilled.get();
+    }
+
+    public int size() {
+        return memory.size();
+    }
+}
@@ -17,34 +17,48 @@
  */
 package com.atlauncher.thread;
 
-import java.util.concurrent.BlockingQueue;
+import java.util.ArrayList;
+import java.util.List;
 
 import com.atlauncher.evnt.LogEvent;
+import com.atlauncher.evnt.LogEvent.LogType;
 
 import org.apache.logging.log4j.Logger;
 
 public final class LoggingThread extends Thread {
-    private final BlockingQueue<LogEvent> queue;
+    private static final int MAX_BATCH_SIZE = 1024;
+
+    private final LogEventQueue queue;
     private static final Logger logger = org.apache.logging.log4j.LogManager.getLogger(LoggingThread.class);
+    private long droppedReported = 0;
 
-    public LoggingThread(BlockingQueue<LogEvent> queue) {
+    public LoggingThread(LogEventQueue queue) {
         this.queue = queue;
         this.setName("ATL-Logging-Thread");
     }
 
     @Override
     public void run() {
+        List<LogEvent> batch = new ArrayList<>(MAX_BATCH_SIZE);
+
         while (true) {
-            LogEvent next;
             try {
-                next = this.queue.take();
+                this.queue.drainTo(batch, MAX_BATCH_SIZE);
             } catch (InterruptedException ignored) {
                 Thread.currentThread().interrupt();
                 return;
             }
-            if (next != null) {
-                next.post(logger);
+
+            long dropped = this.queue.getDropped();
+            if (dropped != droppedReported) {
+                batch.add(new LogEvent(LogType.WARN, String.format(
+                    "%d log messages were dropped as they were logged faster than they could be written",
+                    dropped - droppedReported)));
+                droppedReported = dropped;
             }
+
+            LogEvent.postAll(batch, logger);
+            batch.clear();
         }
     }
 
@@ -0,0 +1,143 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.thread;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.atlauncher.evnt.LogEvent;
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.utils.LogRedactor;
+
+/**
+ * Processes the output of a running Minecraft process off of the thread reading it, so that reading the process's
+ * output never waits on redacting, classifying or displaying it.
+ *
+ * Lines are queued as they're read, then taken off the queue in batches, redacted, joined back up into log4j events
+ * where needed, classified and handed to the logging thread as a single batch.
+ */
+public final class MinecraftLogPump extends Thread {
+    private static final int QUEUE_SIZE = 8192;
+    private static final int MAX_BATCH_SIZE = 512;
+    private static final long FINISH_TIMEOUT_SECONDS = 10;
+
+    // marks the end of the output, compared by identity
+    private static final String END = new String("END");
+
+    private final BlockingQueue<String> lines = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    private final LogRedactor redactor;
+    private final StringBuilder log4jEvent = new StringBuilder();
+
+    public MinecraftLogPump(LogRedactor redactor) {
+        this.redactor = redactor;
+        this.setName("ATL-Minecraft-Log-Pump");
+        this.setDaemon(true);
+    }
+
+    /**
+     * Queues a line of output to be processed, waiting if the queue is full so that no output is lost.
+     */
+    public void add(String line) throws InterruptedException {
+        lines.put(line);
+    }
+
+    /**
+     * Waits for all queued output to be processed.
+     */
+    public void finish() throws InterruptedException {
+        lines.put(END);
+        this.join(TimeUnit.SECONDS.toMillis(FINISH_TIMEOUT_SECONDS));
+    }
+
+    @Override
+    public void run() {
+        List<String> batch = new ArrayList<>(MAX_BATCH_SIZE);
+
+        try {
+            while (true) {
+                batch.add(lines.take());
+                lines.drainTo(batch, MAX_BATCH_SIZE - 1);
+
+                List<LogEvent> events = new ArrayList<>(batch.size());
+                boolean ended = false;
+
+                for (String line : batch) {
+                    if (line == END) {
+                        ended = true;
+                        break;
+                    }
+
+                    // a bad line must never stop the pump, or reading Minecraft's output would block once the
+                    // queue fills up
+                    try {
+                        LogEvent event = process(line);
+                        if (event != null) {
+                            events.add(event);
+                        }
+                    } catch (RuntimeException e) {
+                        LogManager.logStackTrace("Failed to process Minecraft log line", e, false);
+                    }
+                }
+
+                try {
+                    LogManager.minecraft(events);
+                } catch (RuntimeException e) {
+                    LogManager.logStackTrace("Failed to log Minecraft output", e, false);
+                }
+                batch.clear();
+
+                if (ended) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private LogEvent process(String line) {
+        line = redactor.redact(line);
+
+        if (line.contains("log4j:")) {
+            try {
+                // start of a new event so clear string builder
+                if (line.contains("<log4j:Event>")) {
+                    log4jEvent.setLength(0);
+                }
+
+                log4jEvent.append(line);
+
+                // end of the xml object so parse it
+                if (line.contains("</log4j:Event>")) {
+                    LogEvent event = LogManager.prepareMinecraftLog4jEvent(log4jEvent.toString());
+                    log4jEvent.setLength(0);
+                    return event;
+                }
+
+                return null;
+            } catch (Exception e) {
+                // ignored
+            }
+        }
+
+        return LogManager.prepareMinecraftLogEvent(line);
+    }
+}
@@ -44,7 +44,32 @@ import org.zeroturnaround.zip.ZipUtil;
 import com.atlauncher.managers.LogManager;
 
 public class ArchiveUtils {
+    /**
+     * Gets the index of the given archive, so that single entries can be read without reading the whole archive.
+     *
+     * @return the index, or null if the archive isn't a local file or couldn't be indexed
+     */
+    private static @Nullable ZipIndex getIndex(Path archivePath) {
+        if (archivePath.toString().startsWith("file:")) {
+            return null;
+        }
+
+        try {
+            return ZipIndex.get(archivePath);
+        } catch (Throwable t) {
+            // allow this to fail as we can fallback to reading the whole archive
+            LogManager.debug("Failed to index " + archivePath.toAbsolutePath() + ": " + t.getMessage());
+        }
+
+        return null;
+    }
+
     public static boolean archiveContainsFile(Path archivePath, String file) {
+        ZipIndex index = getIndex(archivePath);
+        if (index != null) {
+            return index.contains(file);
+        }
+
         try {
             return ZipUtil.containsEntry(archivePath.toFile(), file);
         } catch (Throwable t) {
@@ -98,6 +123,19 @@ public class ArchiveUtils {
     }
 
     public static String getFile(Path archivePath, String file) {
+        ZipIndex index = getIndex(archivePath);
+        if (index != null) {
+            try {
+                byte[] contents = index.read(file);
+
+                return contents == null ? null : new String(contents, StandardCharsets.UTF_8);
+            } catch (Throwable t) {
+                // allow this to fail as we can fallback to reading the whole archive
+                LogManager.debug("Failed to read " + file + " from the index of " + archivePath.toAbsolutePath()
+                        + ". Trying fallback method");
+            }
+        }
+
         try {
             byte[] contents = ZipUtil.unpackEntry(createInputStream(archivePath), file);
 
@@ -0,0 +1,341 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.atlauncher.App;
+import com.atlauncher.Gsons;
+import com.atlauncher.managers.LogManager;
+import com.google.common.util.concurrent.Striped;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Global content addressed store of files (mods, libraries and the like) keyed by their sha1 hash, laid out the same
+ * way as the asset objects.
+ *
+ * When enabled (it's off by default), files are put into instances and servers as hard links to the stored object,
+ * so many instances of the same pack share one copy of each file on disk. Since linked files share their contents,
+ * anything changing one of them in place changes it in every instance linked to the same object. If a hard link can't
+ * be made (different drives, file systems without hard links) the file is copied instead.
+ *
+ * Every path hard linked to an object is recorded as a reference to it. An object is only removed by
+ * {@link #collectGarbage()} once none of the paths referencing it are still linked to it.
+ */
+public final class ArtifactStore {
+    private static final long TEMP_FILE_MAX_AGE_MS = 60 * 60 * 1000;
+
+    private static final Map<String, Set<String>> REFERENCES = new HashMap<>();
+    private static final Striped<Lock> ADD_LOCKS = Striped.lock(64);
+
+    private static Path root = null;
+    private static boolean loaded = false;
+    private static boolean dirty = false;
+
+    private ArtifactStore() {
+    }
+
+    public static final class GarbageCollectionResult {
+        public final int objectsRemoved;
+        public final long bytesFreed;
+
+        private GarbageCollectionResult(int objectsRemoved, long bytesFreed) {
+            this.objectsRemoved = objectsRemoved;
+            this.bytesFreed = bytesFreed;
+        }
+    }
+
+    /**
+     * Sets the directory the store lives in. References are loaded lazily on first use and saved on shutdown.
+     */
+    public static synchronized void setRoot(Path path) {
+        if (root == null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(ArtifactStore::save));
+        }
+
+        root = path;
+        loaded = false;
+        REFERENCES.clear();
+    }
+
+    public static boolean isEnabled() {
+        return root != null && App.settings != null && App.settings.useArtifactStore;
+    }
+
+    public static Path getObjectPath(String sha1) {
+        return root.resolve("objects").resolve(sha1.substring(0, 2)).resolve(sha1);
+    }
+
+    /**
+     * Puts the given file into the store if it's not already there.
+     *
+     * @return the sha1 hash the file is stored under
+     */
+    public static String add(Path file) throws IOException {
+        String sha1 = Hashing.sha1(file).toString();
+        if (sha1.equals(Hashing.EMPTY_HASH_CODE.toString())) {
+            throw new IOException("Failed to hash " + file + " to add it to the artifact store");
+        }
+
+        Path object = getObjectPath(sha1);
+
+        // only one add of the same object at a time, so an object is only ever created once and the paths linked to
+        // it all keep sharing it
+        Lock lock = ADD_LOCKS.get(sha1);
+        lock.lock();
+        try {
+            // objects share their contents with everything linked to them, so make sure it hasn't been changed in
+            // place. If it has, the paths still linked to it no longer have these contents anyway
+            if (Files.exists(object) && !Hashing.sha1(object).toString().equals(sha1)) {
+                LogManager.warn("Artifact store object " + sha1 + " no longer matches its hash, replacing it");
+                Files.delete(object);
+            }
+
+            if (!Files.exists(object)) {
+                Files.createDirectories(object.getParent());
+
+                // copy the file in rather than linking it, since whatever wrote it may write to it again
+                Path tempFile = Files.createTempFile(object.getParent(), sha1, ".tmp");
+                try {
+                    Files.copy(file, tempFile, StandardCopyOption.REPLACE_EXISTING);
+                    Files.move(tempFile, object);
+                } catch (FileAlreadyExistsException e) {
+                    // added by another launcher at the same time, keep the one already there
+                } finally {
+                    Files.deleteIfExists(tempFile);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        return sha1;
+    }
+
+    /**
+     * Puts the given file at the given path, as a hard link to the stored copy of it where possible.
+     *
+     * @return true if the file is now at the given path
+     */
+    public static boolean install(Path from, Path to) {
+        if (!isEnabled()) {
+            return FileUtils.copyFile(from, to, true);
+        }
+
+        try {
+            String sha1 = add(from);
+            Path object = getObjectPath(sha1);
+
+            if (Files.exists(to) && Files.isSameFile(object, to)) {
+                addReference(sha1, to);
+                return true;
+            }
+
+            Files.createDirectories(to.getParent());
+            Files.deleteIfExists(to);
+
+            try {
+                Files.createLink(to, object);
+                addReference(sha1, to);
+                return true;
+            } catch (IOException | UnsupportedOperationException e) {
+                LogManager.debug("Couldn't hard link " + to + " to artifact store, copying instead: " + e.getMessage());
+            }
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to install " + from + " to " + to + " from artifact store", e, false);
+        }
+
+        return FileUtils.copyFile(from, to, true);
+    }
+
+    /**
+     * Same as {@link Utils#copyFile(File, File)}, but installing through the store.
+     */
+    public static boolean installFile(File from, File toDirectory) {
+        return install(from.toPath(), toDirectory.toPath().resolve(from.getName()));
+    }
+
+    /**
+     * The number of paths still hard linked to the given object.
+     */
+    public static synchronized int getReferenceCount(String sha1) {
+        load();
+
+        Set<String> references = REFERENCES.get(sha1);
+        if (references == null) {
+            return 0;
+        }
+
+        Path object = getObjectPath(sha1);
+        return (int) references.stream().filter(reference -> isLinked(Paths.get(reference), object)).count();
+    }
+
+    /**
+     * Removes all objects no longer referenced by any instance or server, as well as any references to paths which
+     * have since been deleted or replaced.
+     */
+    public static synchronized GarbageCollectionResult collectGarbage() {
+        load();
+
+        Path objects = root.resolve("objects");
+        if (!Files.isDirectory(objects)) {
+            return new GarbageCollectionResult(0, 0);
+        }
+
+        List<Path> files;
+        try (Stream<Path> stream = Files.walk(objects)) {
+            files = stream.filter(Files::isRegularFile).collect(Collectors.toList());
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to list artifact store objects", e, false);
+            return new GarbageCollectionResult(0, 0);
+        }
+
+        int objectsRemoved = 0;
+        long bytesFreed = 0;
+
+        for (Path object : files) {
+            String sha1 = object.getFileName().toString();
+
+            // temp files from an add which is still running, or which was interrupted
+            if (sha1.endsWith(".tmp") && !isOlderThan(object, TEMP_FILE_MAX_AGE_MS)) {
+                continue;
+            }
+
+            Set<String> references = REFERENCES.get(sha1);
+
+            if (references != null) {
+                Iterator<String> iterator = references.iterator();
+                while (iterator.hasNext()) {
+                    if (!isLinked(Paths.get(iterator.next()), object)) {
+                        iterator.remove();
+                        dirty = true;
+                    }
+                }
+
+                if (!references.isEmpty()) {
+                    continue;
+                }
+            }
+
+            try {
+                long size = Files.size(object);
+                Files.delete(object);
+                objectsRemoved++;
+                bytesFreed += size;
+            } catch (IOException e) {
+                LogManager.logStackTrace("Failed to delete artifact store object " + object, e, false);
+            }
+        }
+
+        // drop references to objects which no longer exist
+        if (REFERENCES.keySet().removeIf(sha1 -> !Files.exists(getObjectPath(sha1)))) {
+            dirty = true;
+        }
+
+        save();
+
+        LogManager.info(String.format("Artifact store garbage collection removed %d objects freeing %d bytes",
+            objectsRemoved, bytesFreed));
+
+        return new GarbageCollectionResult(objectsRemoved, bytesFreed);
+    }
+
+    private static boolean isOlderThan(Path file, long ageMs) {
+        try {
+            return System.currentTimeMillis() - Files.getLastModifiedTime(file).toMillis() > ageMs;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static boolean isLinked(Path reference, Path object) {
+        try {
+            return Files.exists(reference) && Files.isSameFile(reference, object);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static synchronized void addReference(String sha1, Path path) {
+        load();
+
+        if (REFERENCES.computeIfAbsent(sha1, k -> new LinkedHashSet<>())
+            .add(path.toAbsolutePath().normalize().toString())) {
+            dirty = true;
+        }
+    }
+
+    private static Path getReferencesPath() {
+        return root.resolve("references.json");
+    }
+
+    private static void load() {
+        if (loaded || root == null) {
+            return;
+        }
+
+        loaded = true;
+
+        try {
+            Type referencesType = new TypeToken<Map<String, List<String>>>() {
+            }.getType();
+            Map<String, List<String>> references = FileUtils.readJson(getReferencesPath(), Gsons.DEFAULT_SLIM,
+                referencesType);
+
+            if (references != null) {
+                references.forEach((sha1, paths) -> REFERENCES.computeIfAbsent(sha1, k -> new LinkedHashSet<>())
+                    .addAll(paths));
+            }
+        } catch (Exception e) {
+            LogManager.logStackTrace("Exception loading artifact store references", e, false);
+        }
+    }
+
+    public static synchronized void save() {
+        if (!dirty || root == null || !Files.isDirectory(root)) {
+            return;
+        }
+
+        Map<String, List<String>> references = new HashMap<>();
+        REFERENCES.forEach((sha1, paths) -> references.put(sha1, new ArrayList<>(paths)));
+
+        try {
+            FileUtils.writeJsonAtomically(getReferencesPath(), Gsons.DEFAULT_SLIM, references);
+            dirty = false;
+        } catch (IOException e) {
+            LogManager.logStackTrace("Exception saving artifact store references", e, false);
+        }
+    }
+}
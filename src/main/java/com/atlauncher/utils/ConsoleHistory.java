@@ -0,0 +1,128 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Everything written to the console this session, kept on disk so the console itself only needs to hold the most
+ * recent lines in memory.
+ *
+ * The file is started fresh the first time something is written to it, and searching streams it back from disk a line
+ * at a time rather than loading it all at once.
+ */
+public final class ConsoleHistory {
+    private final Path file;
+    private BufferedWriter writer = null;
+    private volatile boolean started = false;
+    private volatile boolean failed = false;
+
+    public ConsoleHistory(Path file) {
+        this.file = file;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Appends text to the history. If the history can't be written it's disabled rather than failing the caller.
+     */
+    public synchronized void append(String text) {
+        if (failed) {
+            return;
+        }
+
+        try {
+            if (writer == null) {
+                Files.createDirectories(file.getParent());
+                writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                started = true;
+            }
+
+            writer.write(text);
+            writer.flush();
+        } catch (IOException e) {
+            // can't log this, as that would come back to the console
+            e.printStackTrace(System.err);
+            failed = true;
+        }
+    }
+
+    /**
+     * Whether the history has everything written to it so far.
+     */
+    public boolean isComplete() {
+        return !failed;
+    }
+
+    /**
+     * Reads back the whole history. Each append is flushed, so this doesn't need to wait on anything being written.
+     */
+    public String read() throws IOException {
+        if (!started) {
+            return "";
+        }
+
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Finds lines containing the given text, ignoring case.
+     *
+     * @param query      the text to look for
+     * @param maxResults the most lines to return, keeping the most recent ones if there are more matches
+     * @return the matching lines, oldest first
+     */
+    public List<String> search(String query, int maxResults) throws IOException {
+        Deque<String> results = new ArrayDeque<>();
+
+        if (!started || query.isEmpty() || maxResults <= 0) {
+            return new ArrayList<>(results);
+        }
+
+        String lowerCaseQuery = query.toLowerCase(Locale.ENGLISH);
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.toLowerCase(Locale.ENGLISH).contains(lowerCaseQuery)) {
+                    if (results.size() == maxResults) {
+                        results.removeFirst();
+                    }
+
+                    results.addLast(line);
+                }
+            }
+        }
+
+        return new ArrayList<>(results);
+    }
+}
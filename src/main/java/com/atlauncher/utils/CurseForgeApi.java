@@ -41,6 +41,8 @@ import com.atlauncher.data.curseforge.CurseForgeFingerprint;
 import com.atlauncher.data.curseforge.CurseForgeProject;
 import com.atlauncher.managers.ConfigManager;
 import com.atlauncher.managers.LogManager;
+import com.atlauncher.network.CachePolicy;
+import com.atlauncher.network.JsonProjection;
 import com.atlauncher.network.NetworkClient;
 import com.google.gson.reflect.TypeToken;
 
@@ -55,6 +57,13 @@ import okhttp3.RequestBody;
 public class CurseForgeApi {
     private final static Headers REQUEST_HEADERS = Headers.of("x-api-key", Constants.CURSEFORGE_CORE_API_KEY);
 
+    /**
+     * The modules (every file in the jar) and sortable game versions of files aren't used, and make up most of the
+     * response for projects with lots of files.
+     */
+    private static final JsonProjection PROJECT_FILES_PROJECTION = new JsonProjection()
+            .without(CurseForgeFile.class, "modules", "sortableGameVersions");
+
     public static List<CurseForgeProject> searchCurseForge(int sectionId, String query, int page,
             List<Integer> modLoaderTypes,
             String sort) {
@@ -101,7 +110,7 @@ public class CurseForgeApi {
             CurseForgeCoreApiResponse<List<CurseForgeProject>> response = NetworkClient.getCached(
                     url,
                     REQUEST_HEADERS,
-                    type, new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build());
+                    type, CachePolicy.CURSEFORGE.getCacheControl());
 
             if (response == null || response.data.isEmpty()) {
                 LogManager.warn("CurseForge API returned no results for " + url);
@@ -255,7 +264,8 @@ public class CurseForgeApi {
         CurseForgeCoreApiResponse<List<CurseForgeFile>> response = NetworkClient.getCached(
                 url,
                 REQUEST_HEADERS,
-                type, new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build());
+                type, CachePolicy.CURSEFORGE.getCacheControl(),
+                PROJECT_FILES_PROJECTION);
 
         if (response == null || response.data.isEmpty()) {
             LogManager.warn("CurseForge API returned no files for project " + projectId);
@@ -319,7 +329,7 @@ public class CurseForgeApi {
         CurseForgeCoreApiResponse<CurseForgeProject> response = NetworkClient.getCached(
                 url,
                 REQUEST_HEADERS,
-                type, new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build());
+                type, CachePolicy.CURSEFORGE.getCacheControl());
 
         if (response != null) {
             return response.data;
@@ -347,7 +357,7 @@ public class CurseForgeApi {
         CurseForgeCoreApiResponse<List<CurseForgeProject>> response = NetworkClient.getCached(
                 url,
                 REQUEST_HEADERS,
-                type, new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build());
+                type, CachePolicy.CURSEFORGE.getCacheControl());
 
         if (response == null || response.data.isEmpty()) {
             LogManager.warn("CurseForge API returned no results for " + url);
@@ -0,0 +1,216 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import com.atlauncher.managers.LogManager;
+
+/**
+ * Watches directories for files being added, changed or removed, without looking into sub directories.
+ *
+ * Changes are collected until no more have happened for a short while and then given to the directory's listener all
+ * at once, so that something like a file being written in several goes only results in one call. A directory which
+ * never stops changing, such as one a running game keeps writing to, still has its changes given to its listener every
+ * so often. Listeners are called on the watcher's own thread.
+ */
+public final class DirectoryWatcher {
+    private static final long QUIET_PERIOD_MS = 500;
+    private static final long MAX_DELAY_MS = 5000;
+
+    public interface Listener {
+        /**
+         * @param directory the directory which was registered
+         * @param changed   the files in the directory which were added, changed or removed
+         * @param overflow  if some changes were missed, so the directory should be rescanned fully
+         */
+        void onChanges(Path directory, Set<Path> changed, boolean overflow);
+    }
+
+    private final String name;
+    private final long quietPeriodMs;
+    private final long maxDelayMs;
+    private final Map<WatchKey, Path> directories = new ConcurrentHashMap<>();
+    private final Map<Path, WatchKey> keys = new ConcurrentHashMap<>();
+    private final Map<Path, Listener> listeners = new ConcurrentHashMap<>();
+
+    private WatchService watchService;
+    private Thread thread;
+
+    public DirectoryWatcher(String name) {
+        this(name, QUIET_PERIOD_MS, MAX_DELAY_MS);
+    }
+
+    DirectoryWatcher(String name, long quietPeriodMs, long maxDelayMs) {
+        this.name = name;
+        this.quietPeriodMs = quietPeriodMs;
+        this.maxDelayMs = maxDelayMs;
+    }
+
+    /**
+     * Starts watching the given directory, replacing its listener if it's already being watched.
+     *
+     * @return if the directory is now being watched
+     */
+    public synchronized boolean register(Path directory, Listener listener) {
+        if (!Files.isDirectory(directory)) {
+            return false;
+        }
+
+        listeners.put(directory, listener);
+
+        if (keys.containsKey(directory)) {
+            return true;
+        }
+
+        try {
+            start();
+
+            WatchKey key = directory.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+            directories.put(key, directory);
+            keys.put(directory, key);
+
+            return true;
+        } catch (IOException | ClosedWatchServiceException e) {
+            LogManager.logStackTrace("Failed to watch " + directory + " for changes", e, false);
+            listeners.remove(directory);
+
+            return false;
+        }
+    }
+
+    public synchronized void unregister(Path directory) {
+        listeners.remove(directory);
+        WatchKey key = keys.remove(directory);
+
+        if (key != null) {
+            key.cancel();
+            directories.remove(key);
+        }
+    }
+
+    public boolean isWatching(Path directory) {
+        return keys.containsKey(directory);
+    }
+
+    public Set<Path> getWatchedDirectories() {
+        return new HashSet<>(keys.keySet());
+    }
+
+    private void start() throws IOException {
+        if (watchService != null) {
+            return;
+        }
+
+        watchService = FileSystems.getDefault().newWatchService();
+
+        thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        // changed files for each directory in the order they were first seen, with null marking an overflow
+        Map<Path, Set<Path>> pending = new LinkedHashMap<>();
+        long firstPendingAt = 0L;
+
+        try {
+            while (true) {
+                WatchKey key;
+
+                if (pending.isEmpty()) {
+                    key = watchService.take();
+                    firstPendingAt = System.nanoTime();
+                } else {
+                    long untilMaxDelay = maxDelayMs
+                        - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - firstPendingAt);
+                    key = untilMaxDelay <= 0L ? null
+                        : watchService.poll(Math.min(quietPeriodMs, untilMaxDelay), TimeUnit.MILLISECONDS);
+                }
+
+                if (key == null) {
+                    dispatch(pending);
+                    pending.clear();
+                    continue;
+                }
+
+                Path directory = directories.get(key);
+
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (directory == null) {
+                        continue;
+                    }
+
+                    if (event.kind() == OVERFLOW) {
+                        pending.put(directory, null);
+                    } else if (!pending.containsKey(directory) || pending.get(directory) != null) {
+                        pending.computeIfAbsent(directory, d -> new HashSet<>())
+                            .add(directory.resolve((Path) event.context()));
+                    }
+                }
+
+                // the directory is no longer accessible, so let whoever was watching it know, then stop watching it
+                if (!key.reset() && directory != null) {
+                    pending.put(directory, null);
+                    synchronized (this) {
+                        if (keys.get(directory) == key) {
+                            keys.remove(directory);
+                        }
+                        directories.remove(key);
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void dispatch(Map<Path, Set<Path>> pending) {
+        pending.forEach((directory, changed) -> {
+            Listener listener = listeners.get(directory);
+
+            if (listener == null) {
+                return;
+            }
+
+            try {
+                listener.onChanges(directory, changed == null ? new HashSet<>() : changed, changed == null);
+            } catch (Exception e) {
+                LogManager.logStackTrace("Error handling changes to " + directory, e, false);
+            }
+        });
+    }
+}
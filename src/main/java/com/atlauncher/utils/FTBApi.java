@@ -27,6 +27,7 @@ import com.atlauncher.data.ftb.FTBPackList;
 import com.atlauncher.data.ftb.FTBPackManifest;
 import com.atlauncher.data.ftb.FTBPackVersionModsManifest;
 import com.atlauncher.managers.LogManager;
+import com.atlauncher.network.CachePolicy;
 import com.atlauncher.network.NetworkClient;
 
 import okhttp3.CacheControl;
@@ -43,7 +44,7 @@ public class FTBApi {
         }
 
         FTBPackList packList = NetworkClient.getCached(url, FTBPackList.class,
-                new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build());
+                CachePolicy.FTB.getCacheControl());
 
         if (packList == null || (packList.status != null && packList.status.equals("error"))) {
             return new ArrayList<>();
@@ -62,7 +63,7 @@ public class FTBApi {
     public static List<FTBPackManifest> getModPacks(int page, String sort) {
         FTBPackList packList = NetworkClient.getCached(String.format("%s/modpack/%s/1000", Constants.FTB_API_URL, sort),
                 FTBPackList.class,
-                new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build());
+                CachePolicy.FTB.getCacheControl());
 
         if (packList == null || (packList.status != null && packList.status.equals("error"))) {
             return new ArrayList<>();
@@ -85,7 +86,7 @@ public class FTBApi {
                             packId,
                             versionId),
                     FTBPackVersionModsManifest.class,
-                    new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build());
+                    CachePolicy.FTB.getCacheControl());
 
             if (modsManifest == null || (modsManifest.status != null && modsManifest.status.equals("error"))) {
                 return null;
@@ -0,0 +1,246 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.atlauncher.Gsons;
+import com.atlauncher.managers.LogManager;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Cache of file digests keyed by the files path, size and last modified time (and then by algorithm), so that checking
+ * files that haven't changed since they were last hashed only costs a stat call.
+ *
+ * Entries are kept in least recently used order and the least recently used entries are evicted once there are more
+ * than {@link #MAX_ENTRIES}. The cache is kept in memory and, once {@link #setStorage(Path)} has been called, is loaded
+ * from and saved to disk.
+ */
+public final class FileHashCache {
+    public static final int MAX_ENTRIES = 100_000;
+
+    /**
+     * Files modified more recently than this are not cached, as another write within the file systems timestamp
+     * resolution wouldn't change the last modified time.
+     */
+    private static final long MIN_AGE_MS = 2000;
+
+    private static final Map<String, Entry> CACHE = new LinkedHashMap<String, Entry>(1024, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private static Path storage = null;
+    private static boolean loaded = false;
+    private static boolean dirty = false;
+
+    private static long hits = 0;
+    private static long misses = 0;
+
+    private FileHashCache() {
+    }
+
+    @FunctionalInterface
+    public interface HashSupplier {
+        String get() throws IOException;
+    }
+
+    /**
+     * Sets where the cache is persisted to. The cache is loaded lazily on first use and saved on shutdown.
+     */
+    public static synchronized void setStorage(Path path) {
+        if (storage == null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(FileHashCache::save));
+        }
+
+        storage = path;
+        loaded = false;
+    }
+
+    /**
+     * Returns the cached hash for the given file and algorithm, or computes it with the given supplier and caches it.
+     */
+    public static String get(Path file, String algorithm, HashSupplier supplier) throws IOException {
+        BasicFileAttributes before = attributes(file);
+
+        if (before != null) {
+            String cached = getIfPresent(file, algorithm, before);
+
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        String hash = supplier.get();
+
+        put(file, algorithm, hash, before);
+
+        return hash;
+    }
+
+    /**
+     * Returns the cached hash for the given file and algorithm if the file still has the given attributes, otherwise
+     * null.
+     */
+    public static synchronized String getIfPresent(Path file, String algorithm, BasicFileAttributes attributes) {
+        load();
+
+        Entry entry = CACHE.get(key(file));
+        if (entry != null && entry.matches(attributes) && entry.hashes.containsKey(algorithm)) {
+            hits++;
+            return entry.hashes.get(algorithm);
+        }
+
+        misses++;
+        return null;
+    }
+
+    /**
+     * Caches the given hash for the file, as long as the file hasn't changed since the given attributes were read.
+     */
+    public static void put(Path file, String algorithm, String hash, BasicFileAttributes before) throws IOException {
+        if (before == null || hash == null
+            || System.currentTimeMillis() - before.lastModifiedTime().toMillis() < MIN_AGE_MS) {
+            return;
+        }
+
+        BasicFileAttributes after = attributes(file);
+        if (after == null || after.size() != before.size()
+            || after.lastModifiedTime().toMillis() != before.lastModifiedTime().toMillis()) {
+            return;
+        }
+
+        synchronized (FileHashCache.class) {
+            load();
+
+            String key = key(file);
+            Entry entry = CACHE.get(key);
+            if (entry == null || !entry.matches(after)) {
+                entry = new Entry(key, after);
+                CACHE.put(key, entry);
+            }
+
+            entry.hashes.put(algorithm, hash);
+            dirty = true;
+        }
+    }
+
+    /**
+     * Reads the attributes of the given file, or null if it doesn't exist or isn't a regular file.
+     */
+    public static BasicFileAttributes attributes(Path file) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+
+            return attributes.isRegularFile() ? attributes : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Removes all cached hashes for the given file.
+     */
+    public static synchronized void invalidate(Path file) {
+        if (CACHE.remove(key(file)) != null) {
+            dirty = true;
+        }
+    }
+
+    public static synchronized void clear() {
+        CACHE.clear();
+        dirty = true;
+    }
+
+    public static synchronized long getHits() {
+        return hits;
+    }
+
+    public static synchronized long getMisses() {
+        return misses;
+    }
+
+    private static String key(Path file) {
+        return file.toAbsolutePath().normalize().toString();
+    }
+
+    private static void load() {
+        if (loaded || storage == null) {
+            return;
+        }
+
+        loaded = true;
+
+        try {
+            Type entryListType = new TypeToken<List<Entry>>() {
+            }.getType();
+            List<Entry> entries = FileUtils.readJson(storage, Gsons.DEFAULT_SLIM, entryListType);
+
+            if (entries != null) {
+                for (Entry entry : entries) {
+                    if (entry.path != null && entry.hashes != null) {
+                        CACHE.putIfAbsent(entry.path, entry);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            LogManager.logStackTrace("Exception loading file hash cache", e, false);
+        }
+    }
+
+    public static synchronized void save() {
+        if (!dirty || storage == null || !Files.isDirectory(storage.getParent())) {
+            return;
+        }
+
+        try {
+            FileUtils.writeJsonAtomically(storage, Gsons.DEFAULT_SLIM, new ArrayList<>(CACHE.values()));
+            dirty = false;
+        } catch (IOException e) {
+            LogManager.logStackTrace("Exception saving file hash cache", e, false);
+        }
+    }
+
+    private static final class Entry {
+        public String path;
+        public long size;
+        public long lastModified;
+        public Map<String, String> hashes = new HashMap<>();
+
+        private Entry(String path, BasicFileAttributes attributes) {
+            this.path = path;
+            this.size = attributes.size();
+            this.lastModified = attributes.lastModifiedTime().toMillis();
+        }
+
+        private boolean matches(BasicFileAttributes attributes) {
+            return size == attributes.size() && lastModified == attributes.lastModifiedTime().toMillis();
+        }
+    }
+}
@@ -18,14 +18,24 @@
 package com.atlauncher.utils;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.util.stream.Stream;
 
+import javax.annotation.Nullable;
+
 import com.atlauncher.App;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.utils.walker.DeleteDirVisitor;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 
 public class FileUtils {
     public static boolean delete(Path path) {
@@ -212,4 +222,71 @@ public class FileUtils {
 
         return false;
     }
+
+    @FunctionalInterface
+    private interface StreamWriter {
+        void write(OutputStream outputStream) throws IOException;
+    }
+
+    /**
+     * Writes the file by writing to a temporary file next to it and then moving that into place, so the file is never
+     * left half written if the launcher is closed or crashes part way through.
+     */
+    private static void writeAtomically(Path file, StreamWriter writer) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path tempFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+
+        try {
+            try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+                writer.write(outputStream);
+            }
+
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Writes the bytes to the file, see {@link #writeAtomically(Path, StreamWriter)}.
+     */
+    public static void writeAtomically(Path file, byte[] bytes) throws IOException {
+        writeAtomically(file, outputStream -> outputStream.write(bytes));
+    }
+
+    /**
+     * Writes the object to the file as json, see {@link #writeAtomically(Path, StreamWriter)}.
+     */
+    public static void writeJsonAtomically(Path file, Gson gson, Object src) throws IOException {
+        writeAtomically(file, outputStream -> {
+            Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+
+            try {
+                gson.toJson(src, writer);
+            } catch (JsonParseException e) {
+                throw new IOException("Failed to write json to " + file, e);
+            }
+
+            writer.flush();
+        });
+    }
+
+    /**
+     * Reads json from the file, such as one written by {@link #writeJsonAtomically(Path, Gson, Object)}.
+     *
+     * @return the object read, or null if the file doesn't exist or is empty
+     * @throws IOException if the file couldn't be read or isn't valid json for the type
+     */
+    public static @Nullable <T> T readJson(Path file, Gson gson, Type type) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+
+        try (InputStreamReader reader = new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8)) {
+            return gson.fromJson(reader, type);
+        } catch (JsonParseException e) {
+            throw new IOException("Failed to read json from " + file, e);
+        }
+    }
 }
@@ -17,20 +17,81 @@
  */
 package com.atlauncher.utils;
 
-import java.io.BufferedInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.atlauncher.managers.LogManager;
 import com.google.common.hash.HashCode;
-import com.sangupta.murmur.Murmur2;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
 
 public final class Hashing {
     public static final HashCode EMPTY_HASH_CODE = HashCode.fromBytes(new byte[1]);
 
+    private static final AtomicLong BYTES_HASHED = new AtomicLong();
+    private static final AtomicLong NANOS_HASHING = new AtomicLong();
+
+    public enum HashType {
+        MD5("md5", com.google.common.hash.Hashing.md5()),
+        SHA1("sha1", com.google.common.hash.Hashing.sha1()),
+        SHA256("sha256", com.google.common.hash.Hashing.sha256()),
+        SHA512("sha512", com.google.common.hash.Hashing.sha512()),
+        // whitespace filtered Murmur2 as used for CurseForge fingerprints
+        MURMUR("murmur", null);
+
+        private final String name;
+        private final HashFunction function;
+
+        HashType(String name, HashFunction function) {
+            this.name = name;
+            this.function = function;
+        }
+    }
+
+    /**
+     * The digests of a single file, as returned by {@link #hashes(Path, HashType...)}.
+     */
+    public static final class FileHashes {
+        private final Map<HashType, String> hashes = new EnumMap<>(HashType.class);
+
+        /**
+         * How many bytes were read from disk to produce these hashes (0 if they all came from the cache).
+         */
+        public long bytesRead = 0;
+
+        /**
+         * How long it took to read and hash the file.
+         */
+        public long nanos = 0;
+
+        public HashCode get(HashType type) {
+            String hash = hashes.get(type);
+
+            if (hash == null || type == HashType.MURMUR) {
+                return EMPTY_HASH_CODE;
+            }
+
+            return HashCode.fromString(hash);
+        }
+
+        public long murmur() {
+            String hash = hashes.get(HashType.MURMUR);
+
+            return hash == null ? -1L : Long.parseLong(hash);
+        }
+    }
+
     public static HashCode md5(String str) {
         if (str == null || str.isEmpty()) {
             return EMPTY_HASH_CODE;
@@ -40,74 +101,159 @@ public final class Hashing {
     }
 
     public static HashCode md5(Path file) {
-        if (!Files.exists(file)) {
-            return EMPTY_HASH_CODE;
-        }
-
-        try {
-            return com.google.common.io.Files.asByteSource(file.toFile()).hash(com.google.common.hash.Hashing.md5());
-        } catch (IOException e) {
-            LogManager.logStackTrace("Error hashing (MD5) file " + file.toAbsolutePath().toString(), e);
-            return EMPTY_HASH_CODE;
-        }
+        return hash(file, HashType.MD5, "MD5", true);
     }
 
     public static HashCode sha1(Path file) {
-        if (!Files.exists(file)) {
-            return EMPTY_HASH_CODE;
-        }
+        return hash(file, HashType.SHA1, "SHA1", true);
+    }
 
-        try {
-            return com.google.common.io.Files.asByteSource(file.toFile()).hash(com.google.common.hash.Hashing.sha1());
-        } catch (IOException e) {
-            LogManager.logStackTrace("Error hashing (SHA1) file " + file.toAbsolutePath().toString(), e);
-            return EMPTY_HASH_CODE;
-        }
+    /**
+     * @param useCache if a previously cached hash can be used, which should be false when the hash is used to decide
+     *                 if the file's contents can be trusted, as the cache can't see a file replaced with one of the same
+     *                 size and last modified time
+     */
+    public static HashCode sha1(Path file, boolean useCache) {
+        return hash(file, HashType.SHA1, "SHA1", useCache);
     }
 
     public static HashCode sha256(Path file) {
+        return hash(file, HashType.SHA256, "SHA256", true);
+    }
+
+    public static HashCode sha512(Path file) {
+        return hash(file, HashType.SHA512, "SHA512", true);
+    }
+
+    public static long murmur(Path file) throws IOException {
         if (!Files.exists(file)) {
-            return EMPTY_HASH_CODE;
+            return -1L;
         }
 
-        try {
-            return com.google.common.io.Files.asByteSource(file.toFile()).hash(com.google.common.hash.Hashing.sha256());
-        } catch (IOException e) {
-            LogManager.logStackTrace("Error hashing (SHA256) file " + file.toAbsolutePath().toString(), e);
-            return EMPTY_HASH_CODE;
-        }
+        return hashes(file, HashType.MURMUR).murmur();
     }
 
-    public static HashCode sha512(Path file) {
+    private static HashCode hash(Path file, HashType type, String label, boolean useCache) {
         if (!Files.exists(file)) {
             return EMPTY_HASH_CODE;
         }
 
         try {
-            return com.google.common.io.Files.asByteSource(file.toFile()).hash(com.google.common.hash.Hashing.sha512());
+            return hashes(file, useCache, type).get(type);
         } catch (IOException e) {
-            LogManager.logStackTrace("Error hashing (SHA512) file " + file.toAbsolutePath().toString(), e);
+            LogManager.logStackTrace("Error hashing (" + label + ") file " + file.toAbsolutePath().toString(), e);
             return EMPTY_HASH_CODE;
         }
     }
 
-    public static long murmur(Path file) throws IOException {
-        if (!Files.exists(file)) {
-            return -1L;
+    /**
+     * Calculates all the given digests of a file with a single read of the file, using previously cached digests
+     * where the file hasn't changed.
+     *
+     * Since the murmur hash is seeded with the length of the whitespace filtered file, asking for it means a second
+     * pass over the file, but that pass is served from the OS page cache as the file was just read.
+     */
+    public static FileHashes hashes(Path file, HashType... types) throws IOException {
+        return hashes(file, true, types);
+    }
+
+    /**
+     * Calculates all the given digests of a file with a single read of the file.
+     *
+     * @param useCache if previously cached digests can be used, otherwise the file is always read, though the cache is
+     *                 still updated with what was read
+     */
+    public static FileHashes hashes(Path file, boolean useCache, HashType... types) throws IOException {
+        FileHashes fileHashes = new FileHashes();
+        BasicFileAttributes attributes = FileHashCache.attributes(file);
+
+        Set<HashType> needed = EnumSet.noneOf(HashType.class);
+        for (HashType type : types) {
+            String cached = attributes == null || !useCache ? null
+                : FileHashCache.getIfPresent(file, type.name, attributes);
+
+            if (cached == null) {
+                needed.add(type);
+            } else {
+                fileHashes.hashes.put(type, cached);
+            }
+        }
+
+        if (needed.isEmpty()) {
+            return fileHashes;
+        }
+
+        long start = System.nanoTime();
+        Map<HashType, Hasher> hashers = new EnumMap<>(HashType.class);
+        for (HashType type : needed) {
+            if (type.function != null) {
+                hashers.put(type, type.function.newHasher());
+            }
         }
 
-        try (ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
-            try (BufferedInputStream bis = new BufferedInputStream(Files.newInputStream(file))) {
-                int b;
-                while ((b = bis.read()) != -1) {
-                    if (b != 9 && b != 10 && b != 13 && b != 32) {
-                        bos.write(b);
-                    }
+        boolean murmur = needed.contains(HashType.MURMUR);
+        long nonWhitespaceBytes = 0;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            for (int read = MurmurHash2.readChunk(channel); read != -1; read = MurmurHash2.readChunk(channel)) {
+                byte[] chunk = MurmurHash2.chunk();
+
+                for (Hasher hasher : hashers.values()) {
+                    hasher.putBytes(chunk, 0, read);
                 }
+
+                if (murmur) {
+                    nonWhitespaceBytes += MurmurHash2.countNonWhitespace(chunk, 0, read);
+                }
+
+                fileHashes.bytesRead += read;
             }
 
-            return Murmur2.hash(bos.toByteArray(), bos.size(), 1L);
+            if (murmur) {
+                channel.position(0);
+                fileHashes.hashes.put(HashType.MURMUR,
+                    String.valueOf(MurmurHash2.hashChannel(file, channel, nonWhitespaceBytes)));
+            }
+        }
+
+        for (Map.Entry<HashType, Hasher> entry : hashers.entrySet()) {
+            fileHashes.hashes.put(entry.getKey(), entry.getValue().hash().toString());
         }
+
+        fileHashes.nanos = System.nanoTime() - start;
+        BYTES_HASHED.addAndGet(fileHashes.bytesRead);
+        NANOS_HASHING.addAndGet(fileHashes.nanos);
+
+        for (HashType type : needed) {
+            FileHashCache.put(file, type.name, fileHashes.hashes.get(type), attributes);
+        }
+
+        return fileHashes;
+    }
+
+    /**
+     * The total number of bytes read from disk for hashing since the launcher started.
+     */
+    public static long getBytesHashed() {
+        return BYTES_HASHED.get();
+    }
+
+    /**
+     * The average hashing throughput since the launcher started, in MB/s.
+     */
+    public static double getThroughput() {
+        long nanos = NANOS_HASHING.get();
+
+        return nanos == 0 ? 0 : (BYTES_HASHED.get() / (1024.0 * 1024.0)) / (nanos / 1_000_000_000.0);
+    }
+
+    /**
+     * Returns a human readable summary of how much has been hashed and how fast, for logging.
+     */
+    public static String getThroughputSummary() {
+        return String.format(Locale.ENGLISH, "%.2f MB hashed at %.2f MB/s, %d cache hits, %d cache misses",
+            BYTES_HASHED.get() / (1024.0 * 1024.0), getThroughput(), FileHashCache.getHits(),
+            FileHashCache.getMisses());
     }
 
     public static HashCode toHashCode(String hash) {
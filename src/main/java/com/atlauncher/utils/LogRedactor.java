@@ -0,0 +1,92 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Replaces sensitive values (usernames, uuids, access tokens and optionally IP addresses) in log lines.
+ *
+ * All the values are compiled into a single pattern up front, so each line is only scanned once no matter how many
+ * values are being redacted, and lines with nothing to redact are returned as is.
+ */
+public final class LogRedactor {
+    public static final String IP_ADDRESS_REPLACEMENT = "**IPADDRESS**";
+    private static final String IP_ADDRESS_PATTERN = "\\b(?:\\d{1,3}\\.){3}\\d{1,3}\\b";
+
+    private final Map<String, String> replacements;
+    private final Pattern pattern;
+
+    /**
+     * @param replacements      map of the exact values to redact to what to replace them with
+     * @param redactIpAddresses if anything that looks like an IPv4 address should be redacted
+     */
+    public LogRedactor(Map<String, String> replacements, boolean redactIpAddresses) {
+        this.replacements = new HashMap<>();
+        replacements.forEach((value, replacement) -> {
+            if (value != null && !value.isEmpty()) {
+                this.replacements.put(value, replacement);
+            }
+        });
+
+        // longest first so a value that contains another is replaced whole
+        List<String> alternatives = this.replacements.keySet().stream()
+            .sorted(Comparator.comparingInt(String::length).reversed()).map(Pattern::quote)
+            .collect(Collectors.toCollection(ArrayList::new));
+
+        if (redactIpAddresses) {
+            alternatives.add("(" + IP_ADDRESS_PATTERN + ")");
+        }
+
+        this.pattern = alternatives.isEmpty() ? null : Pattern.compile(String.join("|", alternatives));
+    }
+
+    public String redact(String line) {
+        if (pattern == null) {
+            return line;
+        }
+
+        Matcher matcher = pattern.matcher(line);
+        if (!matcher.find()) {
+            return line;
+        }
+
+        StringBuilder redacted = new StringBuilder(line.length());
+        int last = 0;
+        do {
+            redacted.append(line, last, matcher.start());
+
+            if (matcher.groupCount() != 0 && matcher.group(1) != null) {
+                redacted.append(IP_ADDRESS_REPLACEMENT);
+            } else {
+                redacted.append(replacements.get(matcher.group()));
+            }
+
+            last = matcher.end();
+        } while (matcher.find());
+
+        return redacted.append(line, last, line.length()).toString();
+    }
+}
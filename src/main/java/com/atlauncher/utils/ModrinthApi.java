@@ -46,6 +46,8 @@ import com.atlauncher.data.modrinth.ModrinthSearchResult;
 import com.atlauncher.data.modrinth.ModrinthVersion;
 import com.atlauncher.managers.ConfigManager;
 import com.atlauncher.managers.LogManager;
+import com.atlauncher.network.CachePolicy;
+import com.atlauncher.network.JsonProjection;
 import com.atlauncher.network.NetworkClient;
 import com.google.gson.reflect.TypeToken;
 
@@ -98,7 +100,7 @@ public class ModrinthApi {
             }
 
             return NetworkClient.getCached(url, getHeaders(), ModrinthSearchResult.class,
-                new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build());
+                CachePolicy.MODRINTH.getCacheControl());
         } catch (UnsupportedEncodingException e) {
             LogManager.logStackTrace(e);
         }
@@ -237,7 +239,7 @@ public class ModrinthApi {
         return NetworkClient.getCached(
             String.format("%s/project/%s", Constants.MODRINTH_API_URL, projectId.replace("local-", "")),
             getHeaders(), ModrinthProject.class,
-            new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build());
+            CachePolicy.MODRINTH.getCacheControl());
     }
 
     public static @Nullable List<ModrinthVersion> getVersions(String projectId) {
@@ -295,6 +297,24 @@ public class ModrinthApi {
             type);
     }
 
+    /**
+     * Gets all the versions of a project through the http cache, so repeat checks within a few minutes are served
+     * from the cache and later ones only download the versions again if they've changed.
+     *
+     * @param projection the fields of the versions to read, as projects can have thousands of versions
+     */
+    public static @Nullable List<ModrinthVersion> getVersionsCached(String projectId, JsonProjection projection) {
+        java.lang.reflect.Type type = new TypeToken<List<ModrinthVersion>>() {
+        }.getType();
+
+        return NetworkClient.getCached(
+            String.format("%s/project/%s/version", Constants.MODRINTH_API_URL, projectId),
+            getHeaders(),
+            type,
+            CachePolicy.MODRINTH.getCacheControl(),
+            projection);
+    }
+
     public static @Nonnull List<ModrinthCategory> getCategories() {
         java.lang.reflect.Type type = new TypeToken<List<ModrinthCategory>>() {
         }.getType();
@@ -360,7 +380,7 @@ public class ModrinthApi {
             String.format("%s/version_file/%s?algorithm=%s", Constants.MODRINTH_API_URL, hash,
                 algorithm),
             getHeaders(), ModrinthVersion.class,
-            new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build());
+            CachePolicy.MODRINTH.getCacheControl());
     }
 
     public static Map<String, ModrinthVersion> getVersionsFromSha1Hashes(String[] hashes) {
@@ -404,7 +424,7 @@ public class ModrinthApi {
             String.format("%s/projects?ids=%s", Constants.MODRINTH_API_URL,
                 Gsons.DEFAULT_SLIM.toJson(projectIds)),
             getHeaders(),
-            type, new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build());
+            type, CachePolicy.MODRINTH.getCacheControl());
     }
 
     public static Map<String, ModrinthProject> getProjectsAsMap(String[] projectIds) {
@@ -0,0 +1,216 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streaming implementation of the 32 bit MurmurHash2 variant used by CurseForge for file fingerprints, where all
+ * whitespace bytes (tab, newline, carriage return and space) are stripped from the input before hashing.
+ *
+ * Results are identical to {@code com.sangupta.murmur.Murmur2.hash(filteredBytes, filteredBytes.length, seed)},
+ * including its handling of the trailing bytes, but without needing the whole file in memory.
+ *
+ * Since the hash is seeded with the length of the filtered input, hashing a file takes two passes over it: one to
+ * count the non whitespace bytes and one to hash them. Both passes go through a small per thread buffer, and the
+ * second pass is almost always served by the OS page cache.
+ */
+public final class MurmurHash2 {
+    public static final long CURSEFORGE_SEED = 1L;
+
+    private static final int M = 0x5bd1e995;
+    private static final int R = 24;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final ThreadLocal<ByteBuffer> DIRECT_BUFFER = ThreadLocal
+        .withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+    private static final ThreadLocal<byte[]> CHUNK = ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
+
+    private final long length;
+    private long processed = 0;
+    private int h;
+    private final byte[] tail = new byte[4];
+    private int tailLength = 0;
+
+    /**
+     * @param length the number of non whitespace bytes that will be passed to {@link #update(byte[], int, int)}
+     * @param seed   the seed for the hash, CurseForge uses {@link #CURSEFORGE_SEED}
+     */
+    public MurmurHash2(long length, long seed) {
+        this.length = length;
+        this.h = (int) (seed ^ length);
+    }
+
+    public static boolean isWhitespace(byte b) {
+        return b == 9 || b == 10 || b == 13 || b == 32;
+    }
+
+    public static long countNonWhitespace(byte[] data, int offset, int length) {
+        long count = 0;
+
+        for (int i = offset; i < offset + length; i++) {
+            if (!isWhitespace(data[i])) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Feeds the given bytes into the hash, skipping over any whitespace.
+     */
+    public void update(byte[] data, int offset, int length) {
+        byte[] tail = this.tail;
+        int tailLength = this.tailLength;
+        int h = this.h;
+
+        for (int i = offset; i < offset + length; i++) {
+            byte b = data[i];
+
+            if (isWhitespace(b)) {
+                continue;
+            }
+
+            tail[tailLength++] = b;
+
+            if (tailLength == 4) {
+                int k = (tail[0] & 0xFF) | (tail[1] & 0xFF) << 8 | (tail[2] & 0xFF) << 16 | (tail[3] & 0xFF) << 24;
+                k *= M;
+                k ^= k >>> R;
+                k *= M;
+                h *= M;
+                h ^= k;
+
+                tailLength = 0;
+                this.processed += 4;
+            }
+        }
+
+        this.tailLength = tailLength;
+        this.h = h;
+    }
+
+    /**
+     * Finishes the hash and returns it as an unsigned 32 bit value.
+     */
+    public long finish() {
+        if (this.processed + this.tailLength != this.length) {
+            throw new IllegalStateException(
+                "Expected " + this.length + " bytes to be hashed but got " + (this.processed + this.tailLength));
+        }
+
+        int h = this.h;
+
+        // matches the reference implementation, which sign extends the trailing bytes
+        switch (this.tailLength) {
+            case 3:
+                h ^= tail[2] << 16;
+                // fall through
+            case 2:
+                h ^= tail[1] << 8;
+                // fall through
+            case 1:
+                h ^= tail[0];
+                h *= M;
+                break;
+            default:
+                break;
+        }
+
+        h ^= h >>> 13;
+        h *= M;
+        h ^= h >>> 15;
+
+        return h & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Calculates the CurseForge fingerprint of the given file using constant memory.
+     */
+    public static long hashFile(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = 0;
+
+            for (int read = readChunk(channel); read != -1; read = readChunk(channel)) {
+                length += countNonWhitespace(CHUNK.get(), 0, read);
+            }
+
+            channel.position(0);
+
+            return hashChannel(file, channel, length);
+        }
+    }
+
+    /**
+     * Calculates the CurseForge fingerprint of the given file when the number of non whitespace bytes in it is
+     * already known (such as when it was counted while the file was downloaded), needing only a single pass.
+     */
+    public static long hashFile(Path file, long nonWhitespaceLength) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return hashChannel(file, channel, nonWhitespaceLength);
+        }
+    }
+
+    static long hashChannel(Path file, FileChannel channel, long length) throws IOException {
+        MurmurHash2 murmur = new MurmurHash2(length, CURSEFORGE_SEED);
+
+        for (int read = readChunk(channel); read != -1; read = readChunk(channel)) {
+            murmur.update(CHUNK.get(), 0, read);
+        }
+
+        try {
+            return murmur.finish();
+        } catch (IllegalStateException e) {
+            throw new IOException("File " + file + " changed while it was being hashed", e);
+        }
+    }
+
+    /**
+     * Reads the next chunk of the channel through the per thread direct buffer into the per thread chunk array.
+     *
+     * @return the number of bytes put into the chunk array, or -1 at the end of the channel
+     */
+    static int readChunk(FileChannel channel) throws IOException {
+        ByteBuffer buffer = DIRECT_BUFFER.get();
+        buffer.clear();
+
+        int read = channel.read(buffer);
+
+        if (read == -1) {
+            return -1;
+        }
+
+        buffer.flip();
+        int size = buffer.remaining();
+        buffer.get(CHUNK.get(), 0, size);
+
+        return size;
+    }
+
+    /**
+     * The per thread chunk array that {@link #readChunk(FileChannel)} reads into.
+     */
+    static byte[] chunk() {
+        return CHUNK.get();
+    }
+}
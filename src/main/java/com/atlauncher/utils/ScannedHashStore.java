@@ -0,0 +1,206 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import com.atlauncher.managers.LogManager;
+import com.google.common.hash.HashCode;
+
+/**
+ * Set of sha1 hashes of files which have already been scanned, safe to check and add to from multiple threads.
+ *
+ * Hashes are stored on disk as raw 20 byte records in an append only file, so saving after a scan only writes the
+ * hashes added since the last save. The file is read the first time the set is used. Once the file holds more than
+ * the maximum number of hashes it's compacted down to only the most recently added ones, leaving room for more to be
+ * appended before it needs compacting again.
+ */
+public final class ScannedHashStore {
+    public static final int HASH_LENGTH = 20;
+
+    /**
+     * The share of the maximum number of hashes kept when compacting.
+     */
+    private static final double COMPACT_TO = 0.75;
+
+    private final Path file;
+    private final int maxEntries;
+
+    private final Set<HashCode> hashes = ConcurrentHashMap.newKeySet();
+    private final Queue<HashCode> unsaved = new ConcurrentLinkedQueue<>();
+    private volatile boolean loaded = false;
+    private long entriesOnDisk = 0;
+
+    public ScannedHashStore(Path file, int maxEntries) {
+        this.file = file;
+        this.maxEntries = maxEntries;
+    }
+
+    public boolean contains(HashCode hash) {
+        load();
+
+        return hashes.contains(hash);
+    }
+
+    public void add(HashCode hash) {
+        if (hash.bits() != HASH_LENGTH * 8) {
+            throw new IllegalArgumentException("Expected a sha1 hash but got " + hash.bits() + " bits");
+        }
+
+        load();
+
+        if (hashes.add(hash)) {
+            unsaved.add(hash);
+        }
+    }
+
+    public int size() {
+        load();
+
+        return hashes.size();
+    }
+
+    /**
+     * Imports hashes from an older format, which are saved with the next call to {@link #save()}.
+     */
+    public void addAll(List<String> hexHashes) {
+        for (String hexHash : hexHashes) {
+            try {
+                add(HashCode.fromString(hexHash));
+            } catch (IllegalArgumentException e) {
+                LogManager.debug("Ignoring invalid scanned hash " + hexHash);
+            }
+        }
+    }
+
+    private void load() {
+        if (loaded) {
+            return;
+        }
+
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+
+            if (Files.exists(file)) {
+                try {
+                    List<HashCode> onDisk = read();
+                    entriesOnDisk = onDisk.size();
+                    hashes.addAll(onDisk.subList(Math.max(0, onDisk.size() - maxEntries), onDisk.size()));
+                } catch (IOException e) {
+                    LogManager.logStackTrace("Exception loading scanned hashes from " + file, e, false);
+                }
+            }
+
+            loaded = true;
+        }
+    }
+
+    private List<HashCode> read() throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+
+        // a partial record at the end is from an interrupted write, so is ignored
+        List<HashCode> records = new ArrayList<>(bytes.length / HASH_LENGTH);
+        for (int offset = 0; offset + HASH_LENGTH <= bytes.length; offset += HASH_LENGTH) {
+            byte[] record = new byte[HASH_LENGTH];
+            System.arraycopy(bytes, offset, record, 0, HASH_LENGTH);
+            records.add(HashCode.fromBytes(record));
+        }
+
+        return records;
+    }
+
+    /**
+     * Appends any hashes added since the last save to the file, compacting it if it's grown past the maximum size.
+     */
+    public synchronized void save() {
+        if (!loaded || unsaved.isEmpty()) {
+            return;
+        }
+
+        List<HashCode> toSave = new ArrayList<>();
+        for (HashCode hash = unsaved.poll(); hash != null; hash = unsaved.poll()) {
+            toSave.add(hash);
+        }
+
+        try {
+            if (entriesOnDisk + toSave.size() > maxEntries) {
+                compact(toSave);
+                return;
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate(toSave.size() * HASH_LENGTH);
+            toSave.forEach(hash -> buffer.put(hash.asBytes()));
+            buffer.flip();
+
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+                // start at a record boundary in case the last write was interrupted
+                if (channel.size() % HASH_LENGTH != 0) {
+                    channel.truncate(channel.size() - channel.size() % HASH_LENGTH);
+                }
+
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+
+            entriesOnDisk += toSave.size();
+        } catch (IOException e) {
+            LogManager.logStackTrace("Exception saving scanned hashes to " + file, e, false);
+        }
+    }
+
+    /**
+     * Rewrites the file with only the most recently added hashes, dropping the oldest from memory as well.
+     */
+    private void compact(List<HashCode> toSave) throws IOException {
+        List<HashCode> all = Files.exists(file) ? read() : new ArrayList<>();
+        all.addAll(toSave);
+
+        int keep = (int) (maxEntries * COMPACT_TO);
+        List<HashCode> kept = all.subList(Math.max(0, all.size() - keep), all.size());
+        Set<HashCode> evicted = new HashSet<>(all.subList(0, all.size() - kept.size()));
+
+        ByteBuffer buffer = ByteBuffer.allocate(kept.size() * HASH_LENGTH);
+        kept.forEach(hash -> buffer.put(hash.asBytes()));
+
+        FileUtils.writeAtomically(file, buffer.array());
+
+        // only drop the evicted hashes, not any added since this save started, unless they've been added again
+        evicted.removeAll(kept);
+        evicted.removeAll(new HashSet<>(unsaved));
+        hashes.removeAll(evicted);
+        entriesOnDisk = kept.size();
+
+        LogManager.debug("Compacted scanned hashes in " + file + " from " + all.size() + " to " + kept.size());
+    }
+}
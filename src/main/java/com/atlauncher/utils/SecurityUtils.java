@@ -17,9 +17,7 @@
  */
 package com.atlauncher.utils;
 
-import java.io.IOException;
 import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
 import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -37,15 +35,20 @@ import com.atlauncher.FileSystem;
 import com.atlauncher.Gsons;
 import com.atlauncher.managers.LogManager;
 import com.google.common.hash.HashCode;
-import com.google.gson.JsonIOException;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.gson.reflect.TypeToken;
 
 import me.cortex.jarscanner.Detector;
 
 public class SecurityUtils {
-    // List of SHA1 hashes of files scanned as clean for Fractureiser
-    public static final List<String> FRACTURISER_SCANNED_HASHES = new ArrayList<>();
-    public static boolean hasLoadedFractureiserScannedHashes = false;
+    /**
+     * The most scanned hashes to remember. At 20 bytes each, this keeps the file at around 4MB.
+     */
+    private static final int MAX_FRACTURISER_SCANNED_HASHES = 200_000;
+
+    // SHA1 hashes of files scanned as clean for Fractureiser
+    public static final ScannedHashStore FRACTURISER_SCANNED_HASHES = new ScannedHashStore(
+        FileSystem.FRACTURISER_SCANNED_HASHES, MAX_FRACTURISER_SCANNED_HASHES);
 
     public static List<Path> scanForFractureiser(List<Path> paths) throws InterruptedException {
         Function<String, String> logOutput = outputString -> {
@@ -53,15 +56,19 @@ public class SecurityUtils {
             return outputString;
         };
 
-        loadFractureiserScannedHashes();
+        migrateLegacyFractureiserScannedHashes();
 
         List<Path> infectionsFound = Collections.synchronizedList(new ArrayList<>());
 
-        ExecutorService executor = Executors.newFixedThreadPool(4);
+        // scanning is mostly cpu bound, so use as many threads as there are cores
+        ExecutorService executor = Executors.newFixedThreadPool(
+            Math.max(1, Math.min(paths.size(), Runtime.getRuntime().availableProcessors())),
+            new ThreadFactoryBuilder().setNameFormat("FractureiserScanner-%d").setDaemon(true).build());
         for (final Path path : paths) {
             executor.submit(() -> {
-                HashCode fileHash = Hashing.sha1(path);
-                if (FRACTURISER_SCANNED_HASHES.contains(fileHash.toString())) {
+                // always hash the bytes about to be trusted, as the hash cache only looks at size and last modified
+                HashCode fileHash = Hashing.sha1(path, false);
+                if (FRACTURISER_SCANNED_HASHES.contains(fileHash)) {
                     LogManager.debug(String.format("%s has already been scanned for Fractureiser",
                         path.toAbsolutePath().toString()));
                     return;
@@ -72,8 +79,8 @@ public class SecurityUtils {
                 try (JarFile scannableJarFile = new JarFile(path.toFile())) {
                     if (Detector.scan(scannableJarFile, path, logOutput)) {
                         infectionsFound.add(path);
-                    } else {
-                        FRACTURISER_SCANNED_HASHES.add(fileHash.toString());
+                    } else if (!fileHash.equals(Hashing.EMPTY_HASH_CODE)) {
+                        FRACTURISER_SCANNED_HASHES.add(fileHash);
                     }
                 } catch (Exception e) {
                     LogManager.error(
@@ -85,36 +92,34 @@ public class SecurityUtils {
         executor.shutdown();
         executor.awaitTermination(5, TimeUnit.MINUTES);
 
-        saveFractureiserScannedHashes();
+        // only the hashes added by this scan are written out
+        FRACTURISER_SCANNED_HASHES.save();
 
         return infectionsFound;
     }
 
-    private static void loadFractureiserScannedHashes() {
-        if (!hasLoadedFractureiserScannedHashes && Files.exists(FileSystem.FRACTURISER_SCANNED_HASHES)) {
-            try (InputStreamReader fileReader = new InputStreamReader(
-                Files.newInputStream(FileSystem.FRACTURISER_SCANNED_HASHES), StandardCharsets.UTF_8)) {
-                Type stringListType = new TypeToken<List<String>>() {
-                }.getType();
-                List<String> scannedHashes = Gsons.DEFAULT.fromJson(fileReader, stringListType);
-
-                FRACTURISER_SCANNED_HASHES.addAll(scannedHashes);
-
-                hasLoadedFractureiserScannedHashes = true;
-            } catch (Exception e) {
-                LogManager.logStackTrace("Exception loading scanned Fracturiser hashes", e, false);
-            }
+    /**
+     * Moves hashes from the old json list of scanned hashes into the new format.
+     */
+    private static void migrateLegacyFractureiserScannedHashes() {
+        if (!Files.exists(FileSystem.LEGACY_FRACTURISER_SCANNED_HASHES)) {
+            return;
         }
-    }
 
-    private static void saveFractureiserScannedHashes() {
-        try (OutputStreamWriter fileWriter = new OutputStreamWriter(
-            Files.newOutputStream(FileSystem.FRACTURISER_SCANNED_HASHES), StandardCharsets.UTF_8)) {
+        try (InputStreamReader fileReader = new InputStreamReader(
+            Files.newInputStream(FileSystem.LEGACY_FRACTURISER_SCANNED_HASHES), StandardCharsets.UTF_8)) {
             Type stringListType = new TypeToken<List<String>>() {
             }.getType();
-            Gsons.DEFAULT.toJson(FRACTURISER_SCANNED_HASHES, stringListType, fileWriter);
-        } catch (JsonIOException | IOException e) {
-            LogManager.logStackTrace(e, false);
+            List<String> scannedHashes = Gsons.DEFAULT.fromJson(fileReader, stringListType);
+
+            if (scannedHashes != null) {
+                FRACTURISER_SCANNED_HASHES.addAll(scannedHashes);
+                FRACTURISER_SCANNED_HASHES.save();
+            }
+        } catch (Exception e) {
+            LogManager.logStackTrace("Exception loading scanned Fracturiser hashes", e, false);
         }
+
+        FileUtils.delete(FileSystem.LEGACY_FRACTURISER_SCANNED_HASHES);
     }
 }
@@ -0,0 +1,282 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Runs a set of named tasks, each of which can depend on other tasks, with every task started as soon as all of its
+ * dependencies have finished. Tasks that don't depend on each other run at the same time.
+ *
+ * The start and end of each task is recorded so the timeline of a run, and the chain of tasks which determined how
+ * long it took (its critical path), can be logged afterwards.
+ */
+public final class TaskGraph {
+    private static final long CANCEL_CHECK_INTERVAL_MS = 250;
+
+    private final String name;
+    private final int maxThreads;
+    private final Map<String, Node> nodes = new LinkedHashMap<>();
+    private long startNanos;
+    private long endNanos;
+
+    @FunctionalInterface
+    public interface Task {
+        void run() throws Exception;
+    }
+
+    public static final class Timing {
+        public final String name;
+        public final long startMs;
+        public final long durationMs;
+        public final String thread;
+
+        private Timing(String name, long startMs, long durationMs, String thread) {
+            this.name = name;
+            this.startMs = startMs;
+            this.durationMs = durationMs;
+            this.thread = thread;
+        }
+
+        public long getEndMs() {
+            return startMs + durationMs;
+        }
+    }
+
+    private static final class Node {
+        private final String name;
+        private final Task task;
+        private final List<String> dependencies;
+        private volatile long startNanos = -1;
+        private volatile long endNanos = -1;
+        private volatile String thread;
+
+        private Node(String name, Task task, List<String> dependencies) {
+            this.name = name;
+            this.task = task;
+            this.dependencies = dependencies;
+        }
+    }
+
+    public TaskGraph(String name) {
+        this(name, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param maxThreads the most tasks to run at the same time
+     */
+    public TaskGraph(String name, int maxThreads) {
+        this.name = name;
+        this.maxThreads = maxThreads;
+    }
+
+    /**
+     * Adds a task which will only be started once all the given tasks (which must already have been added) have
+     * finished.
+     */
+    public TaskGraph add(String name, Task task, String... dependsOn) {
+        if (nodes.containsKey(name)) {
+            throw new IllegalArgumentException("Task " + name + " has already been added to " + this.name);
+        }
+
+        for (String dependency : dependsOn) {
+            if (!nodes.containsKey(dependency)) {
+                throw new IllegalArgumentException(
+                    "Task " + name + " depends on " + dependency + " which hasn't been added to " + this.name);
+            }
+        }
+
+        nodes.put(name, new Node(name, task, Arrays.asList(dependsOn)));
+
+        return this;
+    }
+
+    /**
+     * Runs all the tasks. If a task fails, no more tasks are started and the exception is rethrown once the tasks
+     * already running have finished. The same happens if the cancelled check returns true, except nothing is thrown.
+     * Being interrupted is treated as being cancelled, except the running tasks are interrupted too, and the thread is
+     * left interrupted once they've finished.
+     *
+     * @return true if all tasks were run, false if cancelled
+     */
+    public boolean run(BooleanSupplier cancelled) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(maxThreads, nodes.size())),
+            new ThreadFactoryBuilder().setNameFormat(name + "-%d").setDaemon(true).build());
+        CompletionService<Node> completionService = new ExecutorCompletionService<>(executor);
+
+        List<Node> pending = new LinkedList<>(nodes.values());
+        List<String> finished = new ArrayList<>();
+        int running = 0;
+        Exception failure = null;
+        boolean wasCancelled = false;
+        boolean interrupted = false;
+
+        startNanos = System.nanoTime();
+
+        try {
+            while (!pending.isEmpty() || running != 0) {
+                if (failure == null && !wasCancelled) {
+                    for (Iterator<Node> iterator = pending.iterator(); iterator.hasNext();) {
+                        Node node = iterator.next();
+
+                        if (finished.containsAll(node.dependencies)) {
+                            iterator.remove();
+                            running++;
+                            completionService.submit(() -> {
+                                node.thread = Thread.currentThread().getName();
+                                node.startNanos = System.nanoTime();
+                                try {
+                                    node.task.run();
+                                } finally {
+                                    node.endNanos = System.nanoTime();
+                                }
+                                return node;
+                            });
+                        }
+                    }
+
+                    if (running == 0) {
+                        throw new IllegalStateException("Tasks " + pending.stream().map(n -> n.name)
+                            .collect(Collectors.joining(", ")) + " in " + name + " can never be started");
+                    }
+                } else if (running == 0) {
+                    break;
+                }
+
+                Future<Node> completed;
+                try {
+                    completed = completionService.poll(CANCEL_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    // treat being interrupted as being cancelled, letting the running tasks know so they can stop
+                    // early, but still wait for them to finish so nothing is left running after this returns
+                    if (!interrupted) {
+                        interrupted = true;
+                        wasCancelled = true;
+
+                        // tasks still queued behind the running ones are dropped and will never complete
+                        running -= executor.shutdownNow().size();
+                    }
+                    continue;
+                }
+
+                if (!wasCancelled && cancelled != null && cancelled.getAsBoolean()) {
+                    wasCancelled = true;
+                }
+
+                if (completed == null) {
+                    continue;
+                }
+
+                running--;
+
+                try {
+                    finished.add(completed.get().name);
+                } catch (ExecutionException e) {
+                    // once interrupted, tasks failing because of it aren't worth reporting
+                    if (failure == null && !interrupted) {
+                        failure = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                    }
+                }
+            }
+        } finally {
+            endNanos = System.nanoTime();
+            executor.shutdown();
+
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+
+        return !wasCancelled;
+    }
+
+    /**
+     * The timings of all the tasks which have been started, in the order they were started.
+     */
+    public List<Timing> getTimings() {
+        return nodes.values().stream().filter(n -> n.startNanos != -1)
+            .map(n -> new Timing(n.name, toMs(n.startNanos - startNanos),
+                toMs((n.endNanos == -1 ? System.nanoTime() : n.endNanos) - n.startNanos), n.thread))
+            .sorted(Comparator.comparingLong(t -> t.startMs)).collect(Collectors.toList());
+    }
+
+    /**
+     * The chain of tasks that finished last, following each task back to the dependency that finished last. Speeding
+     * up any task not on this path won't make the whole run any faster.
+     */
+    public List<String> getCriticalPath() {
+        LinkedList<String> path = new LinkedList<>();
+
+        Node node = nodes.values().stream().filter(n -> n.endNanos != -1)
+            .max(Comparator.comparingLong(n -> n.endNanos)).orElse(null);
+
+        while (node != null) {
+            path.addFirst(node.name);
+
+            node = node.dependencies.stream().map(nodes::get).filter(n -> n.endNanos != -1)
+                .max(Comparator.comparingLong(n -> n.endNanos)).orElse(null);
+        }
+
+        return path;
+    }
+
+    /**
+     * A human readable timeline of the last run, one line per task followed by the critical path.
+     */
+    public String getTimeline() {
+        StringBuilder timeline = new StringBuilder(String.format(Locale.ENGLISH, "%s took %d ms", name,
+            toMs(endNanos - startNanos)));
+
+        for (Timing timing : getTimings()) {
+            timeline.append(String.format(Locale.ENGLISH, "%n  %-24s +%6d ms  %6d ms  [%s]", timing.name,
+                timing.startMs, timing.durationMs, timing.thread));
+        }
+
+        timeline.append(String.format(Locale.ENGLISH, "%n  Critical path: %s",
+            String.join(" -> ", getCriticalPath())));
+
+        return timeline.toString();
+    }
+
+    private static long toMs(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
@@ -18,18 +18,16 @@
 package com.atlauncher.utils;
 
 import java.util.Locale;
-import java.util.concurrent.TimeUnit;
 
 import com.atlauncher.constants.Constants;
 import com.atlauncher.data.technic.TechnicModpack;
 import com.atlauncher.data.technic.TechnicSearchResults;
 import com.atlauncher.data.technic.TechnicSolderModpack;
 import com.atlauncher.data.technic.TechnicSolderModpackManifest;
+import com.atlauncher.network.CachePolicy;
 import com.atlauncher.network.DownloadException;
 import com.atlauncher.network.NetworkClient;
 
-import okhttp3.CacheControl;
-
 /**
  * Various utility methods for interacting with the CurseForge API.
  */
@@ -37,25 +35,25 @@ public class TechnicApi {
     public static TechnicSearchResults getTrendingModpacks() {
         return NetworkClient.getCached(String.format("%s/trending?build=%s", Constants.TECHNIC_API_URL,
                 Constants.LAUNCHER_NAME.toLowerCase(Locale.ENGLISH)), TechnicSearchResults.class,
-                new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build());
+                CachePolicy.TECHNIC.getCacheControl());
     }
 
     public static TechnicSearchResults searchModpacks(String query) {
         return NetworkClient.getCached(String.format("%s/search?q=%s&build=%s", Constants.TECHNIC_API_URL, query,
                 Constants.LAUNCHER_NAME.toLowerCase(Locale.ENGLISH)), TechnicSearchResults.class,
-                new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build());
+                CachePolicy.TECHNIC.getCacheControl());
     }
 
     public static TechnicModpack getModpackBySlug(String slug) {
         return NetworkClient.getCached(String.format("%s/modpack/%s?build=%s", Constants.TECHNIC_API_URL, slug,
                 Constants.LAUNCHER_NAME.toLowerCase(Locale.ENGLISH)), TechnicModpack.class,
-                new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build());
+                CachePolicy.TECHNIC.getCacheControl());
     }
 
     public static TechnicModpack getModpackBySlugWithThrow(String slug) throws DownloadException {
         return NetworkClient.getCachedWithThrow(String.format("%s/modpack/%s?build=%s", Constants.TECHNIC_API_URL, slug,
                 Constants.LAUNCHER_NAME.toLowerCase(Locale.ENGLISH)), TechnicModpack.class,
-                new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build());
+                CachePolicy.TECHNIC.getCacheControl());
     }
 
     private static Object normalizeSolderUrl(String solderUrl) {
@@ -69,12 +67,12 @@ public class TechnicApi {
     public static TechnicSolderModpack getSolderModpackBySlug(String solderUrl, String slug) {
         return NetworkClient.getCached(String.format("%s/modpack/%s", normalizeSolderUrl(solderUrl), slug),
                 TechnicSolderModpack.class,
-                new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build());
+                CachePolicy.TECHNIC.getCacheControl());
     }
 
     public static TechnicSolderModpackManifest getSolderModpackManifest(String solderUrl, String slug, String build) {
         return NetworkClient.getCached(String.format("%s/modpack/%s/%s", normalizeSolderUrl(solderUrl), slug, build),
                 TechnicSolderModpackManifest.class,
-                new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build());
+                CachePolicy.TECHNIC.getCacheControl());
     }
 }
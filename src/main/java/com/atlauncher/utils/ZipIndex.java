@@ -0,0 +1,363 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * The entries of a zip file, read from its central directory, so that checking for or reading a single entry only
+ * needs to read that entry rather than every entry before it.
+ *
+ * No file handle is kept open between reads. Indexes are cached by the archive's path, size and last modified time,
+ * so opening the same archive again doesn't need its central directory to be read again.
+ */
+public final class ZipIndex {
+    public static final int MAX_CACHED_ARCHIVES = 512;
+
+    /**
+     * Archives modified more recently than this are not cached, as another write within the file systems timestamp
+     * resolution wouldn't change the last modified time.
+     */
+    private static final long MIN_AGE_MS = 2000;
+
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06064b50;
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+
+    private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+    private static final int ZIP64_LOCATOR_SIZE = 20;
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+
+    private static final int STORED = 0;
+    private static final int DEFLATED = 8;
+
+    private static final Map<String, ZipIndex> CACHE = new LinkedHashMap<String, ZipIndex>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ZipIndex> eldest) {
+            return size() > MAX_CACHED_ARCHIVES;
+        }
+    };
+
+    private final Path archive;
+    private final long size;
+    private final long lastModified;
+    private final Map<String, Entry> entries;
+
+    private static final class Entry {
+        private final int method;
+        private final boolean encrypted;
+        private final long crc;
+        private final long compressedSize;
+        private final long uncompressedSize;
+        private final long localHeaderOffset;
+
+        private Entry(int method, boolean encrypted, long crc, long compressedSize, long uncompressedSize,
+            long localHeaderOffset) {
+            this.method = method;
+            this.encrypted = encrypted;
+            this.crc = crc;
+            this.compressedSize = compressedSize;
+            this.uncompressedSize = uncompressedSize;
+            this.localHeaderOffset = localHeaderOffset;
+        }
+    }
+
+    private ZipIndex(Path archive, BasicFileAttributes attributes, Map<String, Entry> entries) {
+        this.archive = archive;
+        this.size = attributes.size();
+        this.lastModified = attributes.lastModifiedTime().toMillis();
+        this.entries = entries;
+    }
+
+    /**
+     * Gets the index for the given archive, reading its central directory if it's not cached or has changed since.
+     *
+     * @throws IOException if the archive can't be read or isn't a zip file this can read
+     */
+    public static ZipIndex get(Path archive) throws IOException {
+        BasicFileAttributes attributes = FileHashCache.attributes(archive);
+        if (attributes == null) {
+            throw new IOException("No such archive " + archive);
+        }
+
+        String key = archive.toAbsolutePath().normalize().toString();
+
+        synchronized (CACHE) {
+            ZipIndex cached = CACHE.get(key);
+
+            if (cached != null && cached.size == attributes.size()
+                && cached.lastModified == attributes.lastModifiedTime().toMillis()) {
+                return cached;
+            }
+        }
+
+        ZipIndex index = new ZipIndex(archive, attributes, readCentralDirectory(archive, attributes.size()));
+
+        if (System.currentTimeMillis() - index.lastModified >= MIN_AGE_MS) {
+            synchronized (CACHE) {
+                CACHE.put(key, index);
+            }
+        }
+
+        return index;
+    }
+
+    public static void clearCache() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+
+    public boolean contains(String name) {
+        return entries.containsKey(name);
+    }
+
+    public Set<String> getEntryNames() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    /**
+     * Reads the contents of the given entry.
+     *
+     * @return the contents, or null if there's no such entry
+     * @throws IOException if the archive has changed since it was indexed, or the entry is corrupt or can't be read
+     *                     (such as an encrypted one), in which case the streaming readers should be used instead
+     */
+    public byte[] read(String name) throws IOException {
+        Entry entry = entries.get(name);
+
+        if (entry == null) {
+            return null;
+        }
+
+        if (entry.encrypted) {
+            throw new ZipException("Entry " + name + " in " + archive + " is encrypted");
+        }
+
+        if (entry.method != STORED && entry.method != DEFLATED) {
+            throw new ZipException("Entry " + name + " in " + archive + " uses unsupported compression method "
+                + entry.method);
+        }
+
+        if (entry.compressedSize > Integer.MAX_VALUE - 8 || entry.uncompressedSize > Integer.MAX_VALUE - 8) {
+            throw new ZipException("Entry " + name + " in " + archive + " is too large to read into memory");
+        }
+
+        try (FileChannel channel = FileChannel.open(archive, StandardOpenOption.READ)) {
+            if (channel.size() != size) {
+                throw new ZipException(archive + " has changed since it was indexed");
+            }
+
+            ByteBuffer localHeader = readFully(channel, entry.localHeaderOffset, 30);
+            if (localHeader.getInt(0) != LOCAL_HEADER_SIGNATURE) {
+                throw new ZipException("Invalid local header for " + name + " in " + archive);
+            }
+
+            long dataOffset = entry.localHeaderOffset + 30 + (localHeader.getShort(26) & 0xFFFF)
+                + (localHeader.getShort(28) & 0xFFFF);
+            ByteBuffer data = readFully(channel, dataOffset, (int) entry.compressedSize);
+
+            byte[] contents = entry.method == STORED ? data.array() : inflate(data, entry, name);
+
+            CRC32 crc = new CRC32();
+            crc.update(contents);
+            if (crc.getValue() != entry.crc) {
+                throw new ZipException("CRC mismatch for " + name + " in " + archive);
+            }
+
+            return contents;
+        }
+    }
+
+    private byte[] inflate(ByteBuffer data, Entry entry, String name) throws IOException {
+        Inflater inflater = new Inflater(true);
+
+        try {
+            // nowrap inflation can need an extra byte past the end of the compressed data
+            byte[] input = new byte[data.capacity() + 1];
+            System.arraycopy(data.array(), 0, input, 0, data.capacity());
+            inflater.setInput(input);
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream((int) entry.uncompressedSize);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int read = inflater.inflate(buffer);
+
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new ZipException("Truncated entry " + name + " in " + archive);
+                }
+
+                // don't trust the data to stop where the central directory says the entry does
+                if (output.size() + read > entry.uncompressedSize) {
+                    throw new ZipException("Entry " + name + " in " + archive + " is larger than its declared size");
+                }
+
+                output.write(buffer, 0, read);
+            }
+
+            return output.toByteArray();
+        } catch (DataFormatException e) {
+            throw new ZipException("Invalid compressed data for " + name + " in " + archive + ": " + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static Map<String, Entry> readCentralDirectory(Path archive, long fileSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(archive, StandardOpenOption.READ)) {
+            if (fileSize < END_OF_CENTRAL_DIRECTORY_SIZE) {
+                throw new ZipException(archive + " is too small to be a zip file");
+            }
+
+            // the end of central directory record is at the end of the file, followed only by an optional comment
+            int tailSize = (int) Math.min(fileSize, END_OF_CENTRAL_DIRECTORY_SIZE + MAX_COMMENT_SIZE);
+            long tailOffset = fileSize - tailSize;
+            ByteBuffer tail = readFully(channel, tailOffset, tailSize);
+
+            int eocd = -1;
+            for (int i = tailSize - END_OF_CENTRAL_DIRECTORY_SIZE; i >= 0; i--) {
+                if (tail.getInt(i) == END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+                    eocd = i;
+                    break;
+                }
+            }
+
+            if (eocd == -1) {
+                throw new ZipException("No end of central directory found in " + archive);
+            }
+
+            long entryCount = tail.getShort(eocd + 10) & 0xFFFF;
+            long directorySize = tail.getInt(eocd + 12) & 0xFFFFFFFFL;
+            long directoryOffset = tail.getInt(eocd + 16) & 0xFFFFFFFFL;
+
+            if (entryCount == 0xFFFF || directorySize == 0xFFFFFFFFL || directoryOffset == 0xFFFFFFFFL) {
+                int locator = eocd - ZIP64_LOCATOR_SIZE;
+                if (locator < 0 || tail.getInt(locator) != ZIP64_LOCATOR_SIGNATURE) {
+                    throw new ZipException("No zip64 end of central directory locator found in " + archive);
+                }
+
+                ByteBuffer zip64Eocd = readFully(channel, tail.getLong(locator + 8), 56);
+                if (zip64Eocd.getInt(0) != ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+                    throw new ZipException("Invalid zip64 end of central directory in " + archive);
+                }
+
+                entryCount = zip64Eocd.getLong(32);
+                directorySize = zip64Eocd.getLong(40);
+                directoryOffset = zip64Eocd.getLong(48);
+            }
+
+            if (directoryOffset + directorySize > fileSize || directorySize > Integer.MAX_VALUE) {
+                throw new ZipException("Invalid central directory in " + archive);
+            }
+
+            ByteBuffer directory = readFully(channel, directoryOffset, (int) directorySize);
+            Map<String, Entry> entries = new HashMap<>((int) Math.min(entryCount * 2, 1 << 20));
+
+            int position = 0;
+            for (long i = 0; i < entryCount; i++) {
+                if (position + 46 > directory.capacity() || directory.getInt(position) != CENTRAL_HEADER_SIGNATURE) {
+                    throw new ZipException("Invalid central directory entry in " + archive);
+                }
+
+                int flags = directory.getShort(position + 8) & 0xFFFF;
+                int method = directory.getShort(position + 10) & 0xFFFF;
+                long crc = directory.getInt(position + 16) & 0xFFFFFFFFL;
+                long compressedSize = directory.getInt(position + 20) & 0xFFFFFFFFL;
+                long uncompressedSize = directory.getInt(position + 24) & 0xFFFFFFFFL;
+                int nameLength = directory.getShort(position + 28) & 0xFFFF;
+                int extraLength = directory.getShort(position + 30) & 0xFFFF;
+                int commentLength = directory.getShort(position + 32) & 0xFFFF;
+                long localHeaderOffset = directory.getInt(position + 42) & 0xFFFFFFFFL;
+
+                if (position + 46 + nameLength + extraLength > directory.capacity()) {
+                    throw new ZipException("Invalid central directory entry in " + archive);
+                }
+
+                String name = new String(directory.array(), position + 46, nameLength, StandardCharsets.UTF_8);
+
+                // sizes and offsets too large for the central directory entry are in the zip64 extra field
+                int extra = position + 46 + nameLength;
+                int extraEnd = extra + extraLength;
+                while (extra + 4 <= extraEnd) {
+                    int headerId = directory.getShort(extra) & 0xFFFF;
+                    int dataSize = directory.getShort(extra + 2) & 0xFFFF;
+                    int field = extra + 4;
+
+                    if (headerId == 0x0001) {
+                        if (uncompressedSize == 0xFFFFFFFFL && field + 8 <= extraEnd) {
+                            uncompressedSize = directory.getLong(field);
+                            field += 8;
+                        }
+                        if (compressedSize == 0xFFFFFFFFL && field + 8 <= extraEnd) {
+                            compressedSize = directory.getLong(field);
+                            field += 8;
+                        }
+                        if (localHeaderOffset == 0xFFFFFFFFL && field + 8 <= extraEnd) {
+                            localHeaderOffset = directory.getLong(field);
+                        }
+                        break;
+                    }
+
+                    extra = field + dataSize;
+                }
+
+                // entries which can't be read, such as encrypted ones, are still indexed so they're known to exist
+                entries.putIfAbsent(name, new Entry(method, (flags & 0x1) != 0, crc, compressedSize,
+                    uncompressedSize, localHeaderOffset));
+
+                position += 46 + nameLength + extraLength + commentLength;
+            }
+
+            return entries;
+        }
+    }
+
+    /**
+     * Reads the given range of the file into a little endian buffer, which should only be accessed by index.
+     */
+    private static ByteBuffer readFully(FileChannel channel, long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) == -1) {
+                throw new ZipException("Unexpected end of zip file");
+            }
+        }
+
+        return buffer;
+    }
+}
@@ -45,7 +45,8 @@ public class NetworkSettingsViewModel implements SettingsListener {
             _proxyPort = BehaviorSubject.create(),
             _proxyType = BehaviorSubject.create();
 
-    private final BehaviorSubject<Boolean> _enableProxy = BehaviorSubject.create();
+    private final BehaviorSubject<Boolean> _enableHttp2 = BehaviorSubject.create(),
+            _enableProxy = BehaviorSubject.create();
 
     private final BehaviorSubject<String> _proxyHost = BehaviorSubject.create(),
             modrinthAPIKey = BehaviorSubject.create();
@@ -64,6 +65,7 @@ public class NetworkSettingsViewModel implements SettingsListener {
     public void onSettingsSaved() {
         _concurrentConnections.onNext(App.settings.concurrentConnections);
         _connectionTimeout.onNext(App.settings.connectionTimeout);
+        _enableHttp2.onNext(App.settings.enableHttp2);
         _proxyPort.onNext(App.settings.proxyPort);
         _enableProxy.onNext(App.settings.enableProxy);
         _proxyHost.onNext(App.settings.proxyHost);
@@ -72,8 +74,14 @@ public class NetworkSettingsViewModel implements SettingsListener {
     }
 
     public void setConcurrentConnections(int connections) {
+        boolean connectionsChanged = App.settings.concurrentConnections != connections;
+
         App.settings.concurrentConnections = connections;
         SettingsManager.post();
+
+        if (connectionsChanged) {
+            Network.setConnectionLimits();
+        }
     }
 
     public Observable<Integer> getConcurrentConnections() {
@@ -95,6 +103,21 @@ public class NetworkSettingsViewModel implements SettingsListener {
         return _connectionTimeout.observeOn(SwingSchedulers.edt());
     }
 
+    public void setEnableHttp2(boolean b) {
+        boolean http2Changed = App.settings.enableHttp2 != b;
+
+        App.settings.enableHttp2 = b;
+        SettingsManager.post();
+
+        if (http2Changed) {
+            Network.setProtocols();
+        }
+    }
+
+    public Observable<Boolean> getEnableHttp2() {
+        return _enableHttp2.observeOn(SwingSchedulers.edt());
+    }
+
     public void setEnableProxy(Boolean b) {
         App.settings.enableProxy = b;
         SettingsManager.post();
@@ -37,6 +37,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -130,11 +131,13 @@ import com.atlauncher.managers.MinecraftManager;
 import com.atlauncher.managers.ServerManager;
 import com.atlauncher.network.Analytics;
 import com.atlauncher.network.DownloadPool;
+import com.atlauncher.network.DownloadScheduler;
 import com.atlauncher.network.ErrorReporting;
 import com.atlauncher.network.GraphqlClient;
 import com.atlauncher.network.NetworkClient;
 import com.atlauncher.network.analytics.AnalyticsEvent;
 import com.atlauncher.utils.ArchiveUtils;
+import com.atlauncher.utils.ArtifactStore;
 import com.atlauncher.utils.CurseForgeApi;
 import com.atlauncher.utils.FTBApi;
 import com.atlauncher.utils.FileUtils;
@@ -143,6 +146,7 @@ import com.atlauncher.utils.Java;
 import com.atlauncher.utils.ModrinthApi;
 import com.atlauncher.utils.OS;
 import com.atlauncher.utils.Pair;
+import com.atlauncher.utils.TaskGraph;
 import com.atlauncher.utils.TechnicApi;
 import com.atlauncher.utils.Utils;
 import com.atlauncher.utils.walker.CaseFileVisitor;
@@ -157,6 +161,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
     protected double subPercent = 0.0; // Percent done sub installing
     protected double totalBytes = 0; // Total number of bytes to download
     protected double downloadedBytes = 0; // Total number of bytes downloaded
+    private volatile boolean runningStagesInParallel = false; // progress is combined while stages run in parallel
 
     public Instance instance = null;
     public final String name;
@@ -196,6 +201,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
     public List<Mod> selectedMods;
     public List<Mod> unselectedMods = new ArrayList<>();
     public List<DisableableMod> modsInstalled = new ArrayList<>();
+    private Map<DisableableMod, Hashing.FileHashes> installedModHashes = null;
 
     public boolean assetsMapToResources = false;
 
@@ -522,7 +528,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
                 serverPackDownload = serverPackDownload.fingerprint(version._curseForgeFile.packageFingerprint);
             }
 
-            serverPackDownload = serverPackDownload.withInstanceInstaller(this)
+            serverPackDownload = serverPackDownload.withInstanceInstaller(this).segmented()
                 .withHttpClient(Network.createProgressClient(this));
 
             this.setTotalBytes(version._curseForgeFile.fileLength);
@@ -994,7 +1000,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
         Path manifestFile = this.temp.resolve(filename);
 
         com.atlauncher.network.Download manifestDownload = com.atlauncher.network.Download.build().setUrl(file.url)
-            .downloadTo(manifestFile).withInstanceInstaller(this)
+            .downloadTo(manifestFile).withInstanceInstaller(this).segmented()
             .withHttpClient(Network.createProgressClient(this));
 
         if (file.hashes != null && file.hashes.containsKey("sha512")) {
@@ -2250,54 +2256,56 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
         return mod;
     }
 
-    private Boolean install() throws Exception {
-        this.instanceIsCorrupt = true; // From this point on the instance has become corrupt
-
-        determineMainClass();
-        determineArguments();
-
-        downloadResources();
-        if (isCancelled()) {
-            return false;
-        }
-
-        downloadMinecraft();
-        if (isCancelled()) {
-            return false;
-        }
-
-        downloadLoggingClient();
-        if (isCancelled()) {
-            return false;
-        }
+    /**
+     * Runs the download and install stages which don't depend on each other at the same time, such as downloading
+     * assets and mods while the loader is being installed.
+     *
+     * @return false if the install was cancelled
+     */
+    private boolean runInstallStages() throws Exception {
+        TaskGraph stages = new TaskGraph("InstallStage")
+            .add("resources", this::downloadResources)
+            .add("minecraft", this::downloadMinecraft)
+            .add("loggingClient", this::downloadLoggingClient)
+            .add("libraries", this::downloadLibraries)
+            .add("organiseLibraries", this::organiseLibraries, "libraries")
+            .add("runtime", this::downloadRuntime)
+            .add("loader", this::installLoader, "minecraft", "loggingClient", "organiseLibraries", "runtime")
+            .add("downloadMods", this::downloadMods)
+            .add("installMods", this::installMods, "loader", "downloadMods");
+
+        // the resources and libraries stages share the download threads, so warm up connections for half of them each
+        int connections = Math.max(1, DownloadScheduler.getParallelism() / 2);
+        if (!this.isServer && this.minecraftVersion.assetIndex != null) {
+            Network.prewarm(Constants.MINECRAFT_RESOURCES, connections);
+        }
+        Network.prewarm(Constants.MINECRAFT_LIBRARIES, connections);
+
+        this.runningStagesInParallel = true;
+        try {
+            if (!stages.run(this::isCancelled)) {
+                return false;
+            }
+        } finally {
+            this.runningStagesInParallel = false;
+            setTotalBytes(0);
+            hideSubProgressBar();
 
-        downloadLibraries();
-        if (isCancelled()) {
-            return false;
+            LogManager.debug(stages.getTimeline());
         }
 
-        organiseLibraries();
-        if (isCancelled()) {
-            return false;
-        }
+        LogManager.info("Install stages critical path: " + String.join(" -> ", stages.getCriticalPath()));
 
-        downloadRuntime();
-        if (isCancelled()) {
-            return false;
-        }
+        return !isCancelled();
+    }
 
-        installLoader();
-        if (isCancelled()) {
-            return false;
-        }
+    private Boolean install() throws Exception {
+        this.instanceIsCorrupt = true; // From this point on the instance has become corrupt
 
-        downloadMods();
-        if (isCancelled()) {
-            return false;
-        }
+        determineMainClass();
+        determineArguments();
 
-        installMods();
-        if (isCancelled()) {
+        if (!runInstallStages()) {
             return false;
         }
 
@@ -2691,7 +2699,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
 
         fireTask(GetText.tr("Organising Resources"));
         fireSubProgressUnknown();
-        this.totalBytes = this.downloadedBytes = 0;
+        this.setTotalBytes(0);
 
         MojangAssetIndex assetIndex = this.minecraftVersion.assetIndex;
 
@@ -2758,8 +2766,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
 
         fireTask(GetText.tr("Downloading Minecraft"));
         fireSubProgressUnknown();
-        totalBytes = 0;
-        downloadedBytes = 0;
+        setTotalBytes(0);
 
         MojangDownloads downloads = this.minecraftVersion.downloads;
 
@@ -2993,7 +3000,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
 
                     serverFile.getParentFile().mkdirs();
 
-                    Utils.copyFile(libraryFile, serverFile, true);
+                    ArtifactStore.install(libraryFile.toPath(), serverFile.toPath());
                 });
 
             if (this.loader != null && this.loader.getInstallLibraries() != null) {
@@ -3008,7 +3015,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
 
                             serverFile.getParentFile().mkdirs();
 
-                            Utils.copyFile(libraryFile, serverFile, true);
+                            ArtifactStore.install(libraryFile.toPath(), serverFile.toPath());
                         }
                     });
             }
@@ -3630,6 +3637,39 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
         }
     }
 
+    /**
+     * Hashes each installed mod once, getting every hash needed to look them up on both CurseForge and Modrinth.
+     */
+    private Map<DisableableMod, Hashing.FileHashes> getInstalledModHashes() {
+        if (this.installedModHashes == null) {
+            List<Hashing.HashType> hashTypes = new ArrayList<>();
+            if (!App.settings.dontCheckModsOnCurseForge) {
+                hashTypes.add(Hashing.HashType.MURMUR);
+            }
+            if (!App.settings.dontCheckModsOnModrinth) {
+                hashTypes.add(Hashing.HashType.SHA1);
+            }
+
+            Map<DisableableMod, Hashing.FileHashes> modHashes = new ConcurrentHashMap<>();
+            this.modsInstalled.parallelStream().forEach(dm -> {
+                File file = dm.getFile(root, this.packVersion.minecraft);
+
+                if (file != null && file.exists()) {
+                    try {
+                        modHashes.put(dm, Hashing.hashes(file.toPath(), hashTypes.toArray(new Hashing.HashType[0])));
+                    } catch (Throwable t) {
+                        LogManager.logStackTrace(t);
+                    }
+                }
+            });
+
+            LogManager.debug("Hashed installed mods: " + Hashing.getThroughputSummary());
+            this.installedModHashes = modHashes;
+        }
+
+        return this.installedModHashes;
+    }
+
     private void checkModsOnCurseForge() {
         if (App.settings.dontCheckModsOnCurseForge || this.modsInstalled.isEmpty()) {
             return;
@@ -3640,20 +3680,11 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
         fireSubProgressUnknown();
 
         Map<Long, DisableableMod> murmurHashes = new HashMap<>();
+        Map<DisableableMod, Hashing.FileHashes> modHashes = getInstalledModHashes();
 
         this.modsInstalled.stream().filter(dm -> dm.curseForgeProject == null && dm.curseForgeFile == null)
-            .filter(dm -> {
-                File file = dm.getFile(root, this.packVersion.minecraft);
-                return file != null && file.exists();
-            })
-            .forEach(dm -> {
-                try {
-                    long hash = Hashing.murmur(dm.getFile(root, this.packVersion.minecraft).toPath());
-                    murmurHashes.put(hash, dm);
-                } catch (Throwable t) {
-                    LogManager.logStackTrace(t);
-                }
-            });
+            .filter(modHashes::containsKey)
+            .forEach(dm -> murmurHashes.put(modHashes.get(dm).murmur(), dm));
 
         if (!murmurHashes.isEmpty()) {
             CurseForgeFingerprint fingerprintResponse = CurseForgeApi
@@ -3700,16 +3731,11 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
         fireSubProgressUnknown();
 
         Map<String, DisableableMod> sha1Hashes = new HashMap<>();
+        Map<DisableableMod, Hashing.FileHashes> modHashes = getInstalledModHashes();
 
         this.modsInstalled.stream().filter(dm -> dm.modrinthProject == null && dm.modrinthVersion == null)
-            .filter(dm -> dm.getFile(root, this.packVersion.minecraft) != null).forEach(dm -> {
-                try {
-                    sha1Hashes.put(Hashing.sha1(dm.getFile(root, this.packVersion.minecraft).toPath()).toString(),
-                        dm);
-                } catch (Throwable t) {
-                    LogManager.logStackTrace(t);
-                }
-            });
+            .filter(modHashes::containsKey)
+            .forEach(dm -> sha1Hashes.put(modHashes.get(dm).get(Hashing.HashType.SHA1).toString(), dm));
 
         if (!sha1Hashes.isEmpty()) {
             Set<String> keys = sha1Hashes.keySet();
@@ -4342,10 +4368,15 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
     }
 
     public void fireSubProgressUnknown() {
+        // the combined download progress of the stages is shown instead
+        if (runningStagesInParallel) {
+            return;
+        }
+
         firePropertyChange("subprogressint", null, null);
     }
 
-    protected void addPercent(double percent) {
+    protected synchronized void addPercent(double percent) {
         this.percent = this.percent + percent;
         if (this.percent > 100.0) {
             this.percent = 100.0;
@@ -4374,20 +4405,25 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
     }
 
     @Override
-    public void setTotalBytes(long bytes) {
-        this.downloadedBytes = 0L;
-        this.totalBytes = bytes;
+    public synchronized void setTotalBytes(long bytes) {
+        // stages running in parallel each add their own downloads to the total rather than starting again
+        if (runningStagesInParallel) {
+            this.totalBytes += bytes;
+        } else {
+            this.downloadedBytes = 0L;
+            this.totalBytes = bytes;
+        }
         this.updateProgressBar();
     }
 
     @Override
-    public void addDownloadedBytes(long bytes) {
+    public synchronized void addDownloadedBytes(long bytes) {
         this.downloadedBytes += bytes;
         this.updateProgressBar();
     }
 
     @Override
-    public void addBytesToDownload(long bytes) {
+    public synchronized void addBytesToDownload(long bytes) {
         this.totalBytes += bytes;
         this.updateProgressBar();
     }
@@ -4409,6 +4445,10 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
     }
 
     private void hideSubProgressBar() {
+        if (runningStagesInParallel) {
+            return;
+        }
+
         fireSubProgress(-1);
     }
 }
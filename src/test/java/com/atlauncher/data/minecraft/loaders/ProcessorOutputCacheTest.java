@@ -0,0 +1,150 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.data.minecraft.loaders;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import com.atlauncher.utils.Hashing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ProcessorOutputCacheTest {
+    private static final Map<String, String> NO_PLACEHOLDERS = Collections.emptyMap();
+
+    @TempDir
+    Path testStorage;
+
+    private ProcessorJob job(Path input, Path output) {
+        return new ProcessorJob("net.minecraftforge:installertools:1.0", "Main",
+            Collections.singletonList(testStorage.resolve("installertools.jar").toFile()),
+            Arrays.asList("--input", input.toString(), "--output", output.toString()));
+    }
+
+    private ProcessorOutputCache.Entry entry(Path input, Path output) {
+        ProcessorOutputCache.Entry entry = new ProcessorOutputCache.Entry();
+        entry.inputs.put(input.toString(), Hashing.sha1(input).toString());
+        entry.outputs.put(output.toString(), Hashing.sha1(output).toString());
+
+        return entry;
+    }
+
+    @Test
+    public void testUpToDateUntilInputOrOutputChanges() throws IOException {
+        Path input = testStorage.resolve("input.jar");
+        Path output = testStorage.resolve("output.jar");
+        Files.write(input, "input".getBytes(StandardCharsets.UTF_8));
+        Files.write(output, "output".getBytes(StandardCharsets.UTF_8));
+
+        ProcessorOutputCache cache = new ProcessorOutputCache();
+        ProcessorJob job = job(input, output);
+        assertFalse(cache.isUpToDate(job, NO_PLACEHOLDERS));
+
+        cache.record(job, entry(input, output), NO_PLACEHOLDERS);
+        assertTrue(cache.isUpToDate(job, NO_PLACEHOLDERS));
+
+        Files.write(input, "changed input".getBytes(StandardCharsets.UTF_8));
+        assertFalse(cache.isUpToDate(job, NO_PLACEHOLDERS));
+
+        cache.record(job, entry(input, output), NO_PLACEHOLDERS);
+        assertTrue(cache.isUpToDate(job, NO_PLACEHOLDERS));
+
+        Files.delete(output);
+        assertFalse(cache.isUpToDate(job, NO_PLACEHOLDERS));
+    }
+
+    @Test
+    public void testKeyDependsOnArguments() {
+        Path input = testStorage.resolve("input.jar");
+
+        assertNotEquals(ProcessorOutputCache.getKey(job(input, testStorage.resolve("client.jar")), NO_PLACEHOLDERS),
+            ProcessorOutputCache.getKey(job(input, testStorage.resolve("server.jar")), NO_PLACEHOLDERS));
+    }
+
+    @Test
+    public void testSavedCacheCanBeLoaded() throws IOException {
+        Path input = testStorage.resolve("input.jar");
+        Path output = testStorage.resolve("output.jar");
+        Files.write(input, "input".getBytes(StandardCharsets.UTF_8));
+        Files.write(output, "output".getBytes(StandardCharsets.UTF_8));
+
+        ProcessorOutputCache cache = new ProcessorOutputCache();
+        ProcessorJob job = job(input, output);
+        cache.record(job, entry(input, output), NO_PLACEHOLDERS);
+
+        Path file = testStorage.resolve("cache").resolve("processor_outputs.json");
+        cache.save(file);
+
+        assertTrue(ProcessorOutputCache.load(file).isUpToDate(job, NO_PLACEHOLDERS));
+        assertFalse(ProcessorOutputCache.load(testStorage.resolve("missing.json")).isUpToDate(job, NO_PLACEHOLDERS));
+    }
+
+    @Test
+    public void testUpToDateFromAnotherInstallsTempFolder() throws IOException {
+        Path firstTemp = Files.createDirectories(testStorage.resolve("temp").resolve("PackA_1"));
+        Path secondTemp = Files.createDirectories(testStorage.resolve("temp").resolve("PackB_1"));
+        Path output = testStorage.resolve("libraries").resolve("client-srg.jar");
+        Files.createDirectories(output.getParent());
+        Files.write(firstTemp.resolve("client.lzma"), "input".getBytes(StandardCharsets.UTF_8));
+        Files.write(secondTemp.resolve("client.lzma"), "input".getBytes(StandardCharsets.UTF_8));
+        Files.write(output, "output".getBytes(StandardCharsets.UTF_8));
+
+        Map<String, String> firstPlaceholders = Collections.singletonMap("${temp}", firstTemp.toString());
+        Map<String, String> secondPlaceholders = Collections.singletonMap("${temp}", secondTemp.toString());
+
+        ProcessorOutputCache.Entry entry = new ProcessorOutputCache.Entry();
+        entry.inputs.put(ProcessorOutputCache.normalise(firstTemp.resolve("client.lzma").toString(), firstPlaceholders),
+            Hashing.sha1(firstTemp.resolve("client.lzma")).toString());
+        entry.outputs.put(output.toString(), Hashing.sha1(output).toString());
+
+        ProcessorOutputCache cache = new ProcessorOutputCache();
+        cache.record(job(firstTemp.resolve("client.lzma"), output), entry, firstPlaceholders);
+
+        assertTrue(cache.isUpToDate(job(secondTemp.resolve("client.lzma"), output), secondPlaceholders));
+
+        Files.write(secondTemp.resolve("client.lzma"), "other input".getBytes(StandardCharsets.UTF_8));
+        assertFalse(cache.isUpToDate(job(secondTemp.resolve("client.lzma"), output), secondPlaceholders));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedRunsAreDropped() throws IOException {
+        Path input = testStorage.resolve("input.jar");
+        Path output = testStorage.resolve("output.jar");
+        Files.write(input, "input".getBytes(StandardCharsets.UTF_8));
+        Files.write(output, "output".getBytes(StandardCharsets.UTF_8));
+
+        ProcessorOutputCache cache = new ProcessorOutputCache();
+        for (int i = 0; i < 300; i++) {
+            cache.record(job(input, testStorage.resolve("output" + i + ".jar")), entry(input, output),
+                NO_PLACEHOLDERS);
+        }
+
+        assertEquals(256, cache.runs.size());
+    }
+}
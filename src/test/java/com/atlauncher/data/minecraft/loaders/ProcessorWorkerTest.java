@@ -0,0 +1,111 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.data.minecraft.loaders;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ProcessorWorkerTest {
+
+    @TempDir
+    Path testStorage;
+
+    /**
+     * A processor which writes its second argument to the file given by its first argument.
+     */
+    public static class WriteFileProcessor {
+        public static void main(String[] args) throws IOException {
+            Files.write(Paths.get(args[0]), args[1].getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static File getTestClasses() throws URISyntaxException {
+        return Paths.get(WriteFileProcessor.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+            .toFile();
+    }
+
+    @Test
+    public void testJobRoundTrip() throws IOException {
+        ProcessorJob job = new ProcessorJob("net.minecraftforge:installertools:1.0", "Main",
+            Arrays.asList(new File("installertools.jar").getAbsoluteFile(), new File("lib.jar").getAbsoluteFile()),
+            Arrays.asList("--task", "DOWNLOAD_MOJMAPS", "--output", "é中"));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ProcessorWorker.writeJob(new DataOutputStream(bytes), job);
+
+        ProcessorJob read = ProcessorWorker
+            .readJob(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(job.jar, read.jar);
+        assertEquals(job.mainClass, read.mainClass);
+        assertEquals(job.classpath, read.classpath);
+        assertEquals(job.args, read.args);
+    }
+
+    @Test
+    public void testServeRunsJobsUntilInputEnds() throws IOException, URISyntaxException {
+        Path client = testStorage.resolve("client.txt");
+        Path server = testStorage.resolve("server.txt");
+
+        ByteArrayOutputStream requests = new ByteArrayOutputStream();
+        DataOutputStream requestsOutput = new DataOutputStream(requests);
+        ProcessorWorker.writeJob(requestsOutput, new ProcessorJob("test", WriteFileProcessor.class.getName(),
+            Collections.singletonList(getTestClasses()), Arrays.asList(client.toString(), "client")));
+        ProcessorWorker.writeJob(requestsOutput, new ProcessorJob("test", "com.example.Missing",
+            Collections.singletonList(getTestClasses()), Collections.emptyList()));
+        ProcessorWorker.writeJob(requestsOutput, new ProcessorJob("test", WriteFileProcessor.class.getName(),
+            Collections.singletonList(getTestClasses()), Arrays.asList(server.toString(), "server")));
+
+        ByteArrayOutputStream responses = new ByteArrayOutputStream();
+        new ProcessorWorker().serve(new ByteArrayInputStream(requests.toByteArray()), responses);
+
+        DataInputStream responsesInput = new DataInputStream(new ByteArrayInputStream(responses.toByteArray()));
+        assertEquals(ProcessorWorker.HELLO, responsesInput.readInt());
+
+        assertTrue(responsesInput.readBoolean());
+        assertEquals("", ProcessorWorker.readString(responsesInput));
+
+        assertFalse(responsesInput.readBoolean());
+        assertTrue(ProcessorWorker.readString(responsesInput).contains("ClassNotFoundException"));
+
+        assertTrue(responsesInput.readBoolean());
+        assertEquals("", ProcessorWorker.readString(responsesInput));
+
+        assertEquals(-1, responsesInput.read());
+        assertEquals("client", new String(Files.readAllBytes(client), StandardCharsets.UTF_8));
+        assertEquals("server", new String(Files.readAllBytes(server), StandardCharsets.UTF_8));
+    }
+}
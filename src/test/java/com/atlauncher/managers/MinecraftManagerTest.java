@@ -0,0 +1,97 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.managers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.atlauncher.Data;
+import com.atlauncher.data.minecraft.VersionManifestVersion;
+import com.atlauncher.data.minecraft.VersionManifestVersionType;
+import com.atlauncher.exceptions.InvalidMinecraftVersion;
+
+public class MinecraftManagerTest {
+    @BeforeEach
+    public void initialize() {
+        Data.MINECRAFT.clear();
+        addVersion("1.2.5", VersionManifestVersionType.RELEASE, "2012-03-29T22:00:00+00:00");
+        addVersion("1.19", VersionManifestVersionType.RELEASE, "2022-06-07T09:42:18+00:00");
+        addVersion("1.19.1", VersionManifestVersionType.RELEASE, "2022-07-27T09:25:33+00:00");
+        addVersion("1.19.2", VersionManifestVersionType.RELEASE, "2022-08-05T11:57:05+00:00");
+        addVersion("22w42a", VersionManifestVersionType.SNAPSHOT, "2022-10-19T09:38:33+00:00");
+        addVersion("1.20", VersionManifestVersionType.RELEASE, "2023-06-02T08:36:17+00:00");
+        addVersion("1.20.1", VersionManifestVersionType.RELEASE, "2023-06-12T13:25:51+00:00");
+
+        Data.CONFIG = new HashMap<>();
+        Data.CONFIG_OVERRIDES = null;
+        MinecraftManager.invalidateDisabledVersions();
+        MinecraftManager.indexMinecraftVersions();
+    }
+
+    private void addVersion(String id, VersionManifestVersionType type, String releaseTime) {
+        VersionManifestVersion version = new VersionManifestVersion();
+        version.id = id;
+        version.type = type;
+        version.releaseTime = releaseTime;
+
+        Data.MINECRAFT.put(id, version);
+    }
+
+    private List<String> ids(List<VersionManifestVersion> versions) {
+        return versions.stream().map(mv -> mv.id).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testGetMajorMinecraftVersions() throws InvalidMinecraftVersion {
+        assertEquals(Arrays.asList("1.19.2", "1.19.1", "1.19"),
+                ids(MinecraftManager.getMajorMinecraftVersions("1.19.1")));
+        assertEquals(Arrays.asList("1.19.2", "1.19.1", "1.19"),
+                ids(MinecraftManager.getMajorMinecraftVersions("1.19")));
+        assertEquals(Collections.singletonList("1.2.5"), ids(MinecraftManager.getMajorMinecraftVersions("1.2.5")));
+        assertEquals(Collections.singletonList("22w42a"), ids(MinecraftManager.getMajorMinecraftVersions("22w42a")));
+    }
+
+    @Test
+    public void testGetFilteredMinecraftVersionsIsNewestFirst() {
+        assertEquals(Arrays.asList("1.20.1", "1.20", "1.19.2", "1.19.1", "1.19", "1.2.5"),
+                ids(MinecraftManager.getFilteredMinecraftVersions(VersionManifestVersionType.RELEASE)));
+        assertEquals(Arrays.asList("1.20.1", "1.20", "22w42a", "1.19.2", "1.19.1", "1.19", "1.2.5"),
+                ids(MinecraftManager.getFilteredMinecraftVersions(
+                        Arrays.asList(VersionManifestVersionType.RELEASE, VersionManifestVersionType.SNAPSHOT))));
+    }
+
+    @Test
+    public void testGetFilteredMinecraftVersionsSkipsDisabledVersions() {
+        Data.CONFIG.put("minecraft", Collections.singletonMap("release",
+                Collections.singletonMap("disabledVersions", Arrays.asList("1.19.1", "1.20"))));
+        MinecraftManager.invalidateDisabledVersions();
+
+        assertEquals(Arrays.asList("1.20.1", "1.19.2", "1.19", "1.2.5"),
+                ids(MinecraftManager.getFilteredMinecraftVersions(VersionManifestVersionType.RELEASE)));
+        assertEquals(Arrays.asList("1.20.1", "22w42a", "1.19.2", "1.19", "1.2.5"),
+                ids(MinecraftManager.getMinecraftVersions()));
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.network;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import okhttp3.HttpUrl;
+
+public class CachePolicyTest {
+    @Test
+    public void testForUrl() {
+        assertEquals(CachePolicy.CURSEFORGE, CachePolicy.forUrl(HttpUrl.get("https://api.curseforge.com/v1/mods/1")));
+        assertEquals(CachePolicy.MODRINTH,
+            CachePolicy.forUrl(HttpUrl.get("https://api.modrinth.com/v2/project/abc/version")));
+        assertEquals(CachePolicy.FTB,
+            CachePolicy.forUrl(HttpUrl.get("https://api.feed-the-beast.com/v1/modpacks/public/modpack/1")));
+        assertEquals(CachePolicy.TECHNIC, CachePolicy.forUrl(HttpUrl.get("https://api.technicpack.net/trending")));
+        assertEquals(CachePolicy.MOJANG,
+            CachePolicy.forUrl(HttpUrl.get("https://piston-meta.mojang.com/mc/game/version_manifest_v2.json")));
+        assertEquals(CachePolicy.DEFAULT, CachePolicy.forUrl(HttpUrl.get("https://example.com/solder/modpack/a")));
+    }
+
+    @Test
+    public void testCacheControl() {
+        assertEquals(600, CachePolicy.CURSEFORGE.getCacheControl().maxStaleSeconds());
+        assertEquals(0, CachePolicy.DEFAULT.getStaleWhileRevalidateSeconds());
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.network;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockserver.integration.ClientAndServer;
+import org.mockserver.model.HttpRequest;
+import org.mockserver.model.HttpResponse;
+import org.mockserver.socket.PortFactory;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Measures the number of small objects per second which can be downloaded in a burst (like Minecraft's assets) from a
+ * local mock server, with OkHttp's default connection pool and with the tuned one.
+ *
+ * Run with `./gradlew benchmark`.
+ */
+@Tag("benchmark")
+public class ConnectionTuningBenchmarkTest {
+    private static final int CONCURRENT_CONNECTIONS = 16;
+    private static final int OBJECTS = 4000;
+    private static final int OBJECT_SIZE = 2048;
+
+    private ClientAndServer mockServer;
+
+    @BeforeEach
+    public void setUp() {
+        mockServer = ClientAndServer.startClientAndServer(PortFactory.findFreePort());
+        mockServer.when(HttpRequest.request().withMethod("GET").withPath("/objects/.*"))
+            .respond(HttpResponse.response().withStatusCode(200).withBody(new byte[OBJECT_SIZE]));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        mockServer.stop(true);
+    }
+
+    private OkHttpClient.Builder newBuilder(AtomicInteger connections) {
+        return new OkHttpClient.Builder().proxy(Proxy.NO_PROXY).eventListener(new EventListener() {
+            @Override
+            public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+                connections.incrementAndGet();
+            }
+        });
+    }
+
+    private double downloadBurst(String name, OkHttpClient client, AtomicInteger connections) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_CONNECTIONS);
+
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+
+            long start = System.nanoTime();
+            for (int i = 0; i < OBJECTS; i++) {
+                String url = String.format(Locale.ENGLISH, "http://localhost:%d/objects/%02x/%d", mockServer.getPort(),
+                    i % 256, i);
+
+                futures.add(executor.submit(() -> {
+                    try (Response response = client.newCall(new Request.Builder().url(url).build()).execute()) {
+                        return response.body().bytes().length;
+                    } catch (IOException e) {
+                        return -1;
+                    }
+                }));
+            }
+
+            for (Future<Integer> future : futures) {
+                assertEquals(OBJECT_SIZE, future.get().intValue());
+            }
+            long took = System.nanoTime() - start;
+
+            double objectsPerSecond = OBJECTS / (took / 1e9d);
+            System.out.println(String.format(Locale.ENGLISH, "%s: %.0f objects/sec, %d connections opened", name,
+                objectsPerSecond, connections.get()));
+
+            return objectsPerSecond;
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void benchmarkSmallObjectBursts() throws Exception {
+        AtomicInteger defaultConnections = new AtomicInteger();
+        OkHttpClient defaultClient = newBuilder(defaultConnections)
+            .protocols(ConnectionTuning.protocols(false)).build();
+
+        AtomicInteger tunedConnections = new AtomicInteger();
+        OkHttpClient tunedClient = ConnectionTuning
+            .apply(newBuilder(tunedConnections), false, CONCURRENT_CONNECTIONS).build();
+
+        // warm up the JIT and the mock server before measuring
+        AtomicInteger warmupConnections = new AtomicInteger();
+        downloadBurst("warmup", newBuilder(warmupConnections).build(), warmupConnections);
+
+        downloadBurst("default pool", defaultClient, defaultConnections);
+        downloadBurst("tuned pool", tunedClient, tunedConnections);
+
+        // the tuned pool keeps a connection per concurrent download, so never needs to reconnect mid burst
+        assertTrue(tunedConnections.get() <= CONCURRENT_CONNECTIONS);
+        assertTrue(tunedConnections.get() <= defaultConnections.get());
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.network;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.reflect.TypeToken;
+
+public class JsonProjectionTest {
+    private static final String JSON = "[{\"id\":\"a\",\"version_number\":\"1.0\",\"changelog\":\"lots of text\","
+        + "\"files\":[{\"url\":\"https://example.com/a.jar\",\"size\":1}]},"
+        + "{\"id\":\"b\",\"version_number\":\"2.0\",\"changelog\":\"more text\",\"files\":[]}]";
+
+    private static class Version {
+        public String id;
+
+        @SerializedName("version_number")
+        public String versionNumber;
+
+        public String changelog;
+
+        public List<File> files;
+    }
+
+    private static class File {
+        public String url;
+        public int size;
+    }
+
+    private static List<Version> parse(JsonProjection projection) {
+        return projection.getGson().fromJson(new StringReader(JSON), new TypeToken<List<Version>>() {
+        }.getType());
+    }
+
+    @Test
+    public void testOnly() {
+        List<Version> versions = parse(new JsonProjection().only(Version.class, "id", "versionNumber"));
+
+        assertEquals(2, versions.size());
+        assertEquals("a", versions.get(0).id);
+        assertEquals("2.0", versions.get(1).versionNumber);
+        assertNull(versions.get(0).changelog);
+        assertNull(versions.get(0).files);
+    }
+
+    @Test
+    public void testWithout() {
+        List<Version> versions = parse(new JsonProjection().without(Version.class, "changelog")
+            .without(File.class, "url"));
+
+        assertEquals("a", versions.get(0).id);
+        assertNull(versions.get(0).changelog);
+        assertEquals(1, versions.get(0).files.size());
+        assertNull(versions.get(0).files.get(0).url);
+        assertEquals(1, versions.get(0).files.get(0).size);
+    }
+
+    @Test
+    public void testGsonIsReused() {
+        JsonProjection projection = new JsonProjection().only(Version.class, "id");
+
+        assertSame(projection.getGson(), projection.getGson());
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.atlauncher.App;
+import com.atlauncher.data.Settings;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ArtifactStoreTest {
+
+    @TempDir
+    Path testStorage;
+
+    private Settings previousSettings;
+
+    @BeforeEach
+    public void enableStore() {
+        previousSettings = App.settings;
+
+        App.settings = new Settings();
+        App.settings.useArtifactStore = true;
+    }
+
+    @AfterEach
+    public void restoreSettings() {
+        App.settings = previousSettings;
+    }
+
+    @Test
+    public void testInstall() throws IOException {
+        ArtifactStore.setRoot(testStorage.resolve("artifacts"));
+
+        Path download = testStorage.resolve("downloads/mod.jar");
+        Files.createDirectories(download.getParent());
+        Files.write(download, "mod contents".getBytes(StandardCharsets.UTF_8));
+
+        Path first = testStorage.resolve("instances/first/mods/mod.jar");
+        Path second = testStorage.resolve("instances/second/mods/mod.jar");
+
+        assertTrue(ArtifactStore.install(download, first));
+        assertTrue(ArtifactStore.install(download, second));
+
+        String sha1 = Hashing.sha1(download).toString();
+        Path object = ArtifactStore.getObjectPath(sha1);
+
+        assertTrue(Files.exists(object));
+        assertEquals("mod contents", new String(Files.readAllBytes(first), StandardCharsets.UTF_8));
+        assertTrue(Files.isSameFile(object, first));
+        assertTrue(Files.isSameFile(object, second));
+        assertEquals(2, ArtifactStore.getReferenceCount(sha1));
+    }
+
+    @Test
+    public void testInstallCopiesWhenDisabled() throws IOException {
+        ArtifactStore.setRoot(testStorage.resolve("artifacts"));
+        App.settings = null;
+
+        Path download = testStorage.resolve("mod.jar");
+        Files.write(download, "mod contents".getBytes(StandardCharsets.UTF_8));
+
+        Path installed = testStorage.resolve("instances/first/mods/mod.jar");
+        assertTrue(ArtifactStore.install(download, installed));
+
+        assertEquals("mod contents", new String(Files.readAllBytes(installed), StandardCharsets.UTF_8));
+        assertFalse(Files.exists(ArtifactStore.getObjectPath(Hashing.sha1(download).toString())));
+    }
+
+    @Test
+    public void testConcurrentAddsKeepExistingObject() throws Exception {
+        ArtifactStore.setRoot(testStorage.resolve("artifacts"));
+
+        Path download = testStorage.resolve("shared.jar");
+        Files.write(download, "shared mod contents".getBytes(StandardCharsets.UTF_8));
+
+        Path installed = testStorage.resolve("instances/first/mods/shared.jar");
+        assertTrue(ArtifactStore.install(download, installed));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> adds = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                adds.add(executor.submit(() -> ArtifactStore.add(download)));
+            }
+
+            for (Future<String> add : adds) {
+                add.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        String sha1 = Hashing.sha1(download).toString();
+        assertTrue(Files.isSameFile(ArtifactStore.getObjectPath(sha1), installed));
+        assertEquals(1, ArtifactStore.getReferenceCount(sha1));
+    }
+
+    @Test
+    public void testCollectGarbage() throws IOException {
+        ArtifactStore.setRoot(testStorage.resolve("artifacts"));
+
+        Path download = testStorage.resolve("mod.jar");
+        Files.write(download, "other mod contents".getBytes(StandardCharsets.UTF_8));
+
+        Path installed = testStorage.resolve("instances/first/mods/mod.jar");
+        assertTrue(ArtifactStore.install(download, installed));
+
+        String sha1 = Hashing.sha1(download).toString();
+        Path object = ArtifactStore.getObjectPath(sha1);
+
+        // still referenced, so nothing is removed
+        assertEquals(0, ArtifactStore.collectGarbage().objectsRemoved);
+        assertTrue(Files.exists(object));
+
+        Files.delete(installed);
+
+        ArtifactStore.GarbageCollectionResult result = ArtifactStore.collectGarbage();
+        assertEquals(1, result.objectsRemoved);
+        assertEquals(Files.size(download), result.bytesFreed);
+        assertFalse(Files.exists(object));
+        assertEquals(0, ArtifactStore.getReferenceCount(sha1));
+    }
+}
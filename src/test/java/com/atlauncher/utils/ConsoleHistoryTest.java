@@ -0,0 +1,67 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ConsoleHistoryTest {
+
+    @TempDir
+    Path testStorage;
+
+    @Test
+    public void testAppendStartsFresh() throws IOException {
+        Path file = testStorage.resolve("logs").resolve("console.log");
+        Files.createDirectories(file.getParent());
+        Files.write(file, "last session\n".getBytes(StandardCharsets.UTF_8));
+
+        ConsoleHistory history = new ConsoleHistory(file);
+        assertEquals("", history.read());
+
+        history.append("[12:00:00] Starting\n");
+        history.append("[12:00:01] Started\n");
+
+        assertEquals("[12:00:00] Starting\n[12:00:01] Started\n", history.read());
+        assertTrue(history.isComplete());
+    }
+
+    @Test
+    public void testSearch() throws IOException {
+        ConsoleHistory history = new ConsoleHistory(testStorage.resolve("console.log"));
+
+        for (int i = 0; i < 10; i++) {
+            history.append("[main/INFO] Loading mod " + i + "\n");
+            history.append("[main/WARN] Mod " + i + " is missing a dependency\n");
+        }
+
+        assertEquals(Arrays.asList("[main/WARN] Mod 8 is missing a dependency",
+            "[main/WARN] Mod 9 is missing a dependency"), history.search("MISSING", 2));
+        assertEquals(10, history.search("loading mod", 100).size());
+        assertTrue(history.search("crashed", 100).isEmpty());
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class DirectoryWatcherTest {
+
+    @TempDir
+    Path testStorage;
+
+    @Test
+    public void testChangesAreBatched() throws Exception {
+        DirectoryWatcher watcher = new DirectoryWatcher("DirectoryWatcherTest", 500, 5000);
+        BlockingQueue<Set<Path>> calls = new LinkedBlockingQueue<>();
+
+        assertTrue(watcher.register(testStorage, (directory, changed, overflow) -> calls.add(changed)));
+        assertTrue(watcher.isWatching(testStorage));
+
+        Files.write(testStorage.resolve("a.txt"), "a".getBytes(StandardCharsets.UTF_8));
+        Files.write(testStorage.resolve("b.txt"), "b".getBytes(StandardCharsets.UTF_8));
+        Files.createDirectory(testStorage.resolve("folder"));
+
+        Set<Path> changed = calls.poll(10, TimeUnit.SECONDS);
+        assertNotNull(changed);
+        assertEquals(new HashSet<>(Arrays.asList(testStorage.resolve("a.txt"), testStorage.resolve("b.txt"),
+            testStorage.resolve("folder"))), changed);
+    }
+
+    @Test
+    public void testDirectoryWhichKeepsChangingIsStillDispatched() throws Exception {
+        DirectoryWatcher watcher = new DirectoryWatcher("DirectoryWatcherTest", 500, 1000);
+        BlockingQueue<Set<Path>> calls = new LinkedBlockingQueue<>();
+        AtomicBoolean writing = new AtomicBoolean(true);
+
+        assertTrue(watcher.register(testStorage, (directory, changed, overflow) -> calls.add(changed)));
+
+        // keeps writing more often than the quiet period, like a running game writing its logs
+        Thread writer = new Thread(() -> {
+            try {
+                Path log = testStorage.resolve("latest.log");
+                for (int i = 0; i < 100 && writing.get(); i++) {
+                    Files.write(log, ("line " + i + "\n").getBytes(StandardCharsets.UTF_8),
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                    Thread.sleep(100);
+                }
+            } catch (IOException | InterruptedException ignored) {
+            }
+        });
+        writer.start();
+
+        try {
+            Set<Path> changed = calls.poll(5, TimeUnit.SECONDS);
+
+            assertNotNull(changed);
+            assertTrue(changed.contains(testStorage.resolve("latest.log")));
+            assertTrue(writer.isAlive());
+        } finally {
+            writing.set(false);
+            writer.join();
+        }
+    }
+
+    @Test
+    public void testUnregisteredDirectoryIsNoLongerWatched() throws Exception {
+        DirectoryWatcher watcher = new DirectoryWatcher("DirectoryWatcherTest", 100, 1000);
+        BlockingQueue<Set<Path>> calls = new LinkedBlockingQueue<>();
+
+        assertFalse(watcher.register(testStorage.resolve("missing"), (directory, changed, overflow) -> {
+        }));
+        assertTrue(watcher.register(testStorage, (directory, changed, overflow) -> calls.add(changed)));
+
+        watcher.unregister(testStorage);
+        assertFalse(watcher.isWatching(testStorage));
+
+        Files.write(testStorage.resolve("a.txt"), "a".getBytes(StandardCharsets.UTF_8));
+
+        assertNull(calls.poll(1, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class FileHashCacheTest {
+
+    @TempDir
+    Path testStorage;
+
+    private static void writeOldFile(Path file, String contents) throws IOException {
+        Files.write(file, contents.getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(file,
+            FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(5)));
+    }
+
+    @Test
+    public void testGet() throws IOException {
+        Path file = testStorage.resolve("test.jar");
+        writeOldFile(file, "hello");
+
+        AtomicInteger computed = new AtomicInteger();
+        FileHashCache.HashSupplier supplier = () -> String.valueOf(computed.incrementAndGet());
+
+        assertEquals("1", FileHashCache.get(file, "sha1", supplier));
+        assertEquals("1", FileHashCache.get(file, "sha1", supplier));
+        assertEquals(1, computed.get());
+
+        // different algorithms are cached separately
+        assertEquals("2", FileHashCache.get(file, "md5", supplier));
+
+        // changing the file invalidates the cached hashes
+        writeOldFile(file, "hello world");
+        assertEquals("3", FileHashCache.get(file, "sha1", supplier));
+
+        FileHashCache.invalidate(file);
+        assertEquals("4", FileHashCache.get(file, "sha1", supplier));
+    }
+
+    @Test
+    public void testThatRecentlyModifiedFilesAreNotCached() throws IOException {
+        Path file = testStorage.resolve("recent.jar");
+        Files.write(file, "hello".getBytes(StandardCharsets.UTF_8));
+
+        AtomicInteger computed = new AtomicInteger();
+        FileHashCache.HashSupplier supplier = () -> String.valueOf(computed.incrementAndGet());
+
+        assertEquals("1", FileHashCache.get(file, "sha1", supplier));
+        assertEquals("2", FileHashCache.get(file, "sha1", supplier));
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sangupta.murmur.Murmur2;
+
+public class HashingTest {
+
+    @TempDir
+    Path testStorage;
+
+    private static long referenceMurmur(byte[] bytes) {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        for (byte b : bytes) {
+            if (b != 9 && b != 10 && b != 13 && b != 32) {
+                bos.write(b);
+            }
+        }
+
+        return Murmur2.hash(bos.toByteArray(), bos.size(), 1L);
+    }
+
+    @Test
+    public void testMurmur() throws IOException {
+        Random random = new Random(1234);
+
+        // covers every tail length, whitespace only files and files larger than the read buffer
+        for (int size : new int[] { 0, 1, 2, 3, 4, 5, 6, 7, 63, 1024, 65535, 65536, 65537, 300001 }) {
+            byte[] bytes = new byte[size];
+            random.nextBytes(bytes);
+
+            for (int i = 0; i < size; i += 7) {
+                bytes[i] = (byte) (i % 2 == 0 ? ' ' : '\n');
+            }
+
+            Path file = testStorage.resolve("file-" + size);
+            Files.write(file, bytes);
+
+            assertEquals(referenceMurmur(bytes), Hashing.murmur(file), "murmur of " + size + " bytes");
+        }
+    }
+
+    @Test
+    public void testHashes() throws IOException {
+        byte[] bytes = new byte[200000];
+        new Random(5678).nextBytes(bytes);
+
+        Path file = testStorage.resolve("file.jar");
+        Files.write(file, bytes);
+
+        Hashing.FileHashes hashes = Hashing.hashes(file, Hashing.HashType.MD5, Hashing.HashType.SHA1,
+            Hashing.HashType.SHA256, Hashing.HashType.SHA512, Hashing.HashType.MURMUR);
+
+        assertEquals(com.google.common.hash.Hashing.md5().hashBytes(bytes), hashes.get(Hashing.HashType.MD5));
+        assertEquals(com.google.common.hash.Hashing.sha1().hashBytes(bytes), hashes.get(Hashing.HashType.SHA1));
+        assertEquals(com.google.common.hash.Hashing.sha256().hashBytes(bytes), hashes.get(Hashing.HashType.SHA256));
+        assertEquals(com.google.common.hash.Hashing.sha512().hashBytes(bytes), hashes.get(Hashing.HashType.SHA512));
+        assertEquals(referenceMurmur(bytes), hashes.murmur());
+        assertEquals(bytes.length, hashes.bytesRead);
+    }
+
+    @Test
+    public void testSha1WithoutCache() throws IOException {
+        byte[] original = new byte[1024];
+        byte[] replaced = new byte[1024];
+        new Random(1).nextBytes(original);
+        new Random(2).nextBytes(replaced);
+
+        Path file = testStorage.resolve("file.jar");
+        Files.write(file, original);
+        FileTime lastModified = Files.getLastModifiedTime(file);
+        assertEquals(com.google.common.hash.Hashing.sha1().hashBytes(original), Hashing.sha1(file));
+
+        // replaced in place with the same size and last modified time, which the cache can't tell apart
+        Files.write(file, replaced);
+        Files.setLastModifiedTime(file, lastModified);
+
+        assertEquals(com.google.common.hash.Hashing.sha1().hashBytes(replaced), Hashing.sha1(file, false));
+    }
+
+    @Test
+    public void testMurmurWithNoFile() throws IOException {
+        assertEquals(-1L, Hashing.murmur(testStorage.resolve("doesnotexist")));
+    }
+}
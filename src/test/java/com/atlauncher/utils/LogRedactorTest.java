@@ -0,0 +1,68 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class LogRedactorTest {
+
+    private static LogRedactor redactor(boolean redactIpAddresses) {
+        Map<String, String> redactions = new HashMap<>();
+        redactions.put("Steve", "**MINECRAFTUSERNAME**");
+        redactions.put("Steve.Jobs", "**MINECRAFTUSERNAME**");
+        redactions.put("069a79f4-44e9-4726-a5be-fca90e38aaf5", "**UUID**");
+        redactions.put("069a79f444e94726a5befca90e38aaf5", "**UUID**");
+        redactions.put("", "**EMPTY**");
+        redactions.put(null, "**NULL**");
+
+        return new LogRedactor(redactions, redactIpAddresses);
+    }
+
+    @Test
+    public void testRedact() {
+        LogRedactor redactor = redactor(true);
+
+        assertEquals("[main/INFO]: Setting user: **MINECRAFTUSERNAME**",
+            redactor.redact("[main/INFO]: Setting user: Steve"));
+        assertEquals("**MINECRAFTUSERNAME** (**UUID**) connected from **IPADDRESS**",
+            redactor.redact("Steve.Jobs (069a79f444e94726a5befca90e38aaf5) connected from 192.168.0.1"));
+        assertEquals("uuid **UUID**", redactor.redact("uuid 069a79f4-44e9-4726-a5be-fca90e38aaf5"));
+
+        // values are matched exactly, not as regular expressions, so "Steve.Jobs" doesn't match here
+        assertEquals("**MINECRAFTUSERNAME**XJobs", redactor.redact("SteveXJobs"));
+    }
+
+    @Test
+    public void testRedactWithoutIpAddresses() {
+        assertEquals("**MINECRAFTUSERNAME** joined from 10.0.0.1",
+            redactor(false).redact("Steve joined from 10.0.0.1"));
+    }
+
+    @Test
+    public void testRedactWithNothingToRedact() {
+        String line = "[main/INFO]: Loading 120 mods";
+
+        assertSame(line, redactor(true).redact(line));
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.google.common.hash.HashCode;
+
+public class ScannedHashStoreTest {
+
+    @TempDir
+    Path testStorage;
+
+    private static HashCode sha1(String contents) {
+        return com.google.common.hash.Hashing.sha1().hashString(contents, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testSave() throws IOException {
+        Path file = testStorage.resolve("scanned.bin");
+
+        ScannedHashStore store = new ScannedHashStore(file, 100);
+        store.add(sha1("a"));
+        store.add(sha1("b"));
+        store.add(sha1("a"));
+        store.save();
+
+        assertEquals(2 * ScannedHashStore.HASH_LENGTH, Files.size(file));
+
+        // only new hashes are appended
+        store.add(sha1("c"));
+        store.save();
+        assertEquals(3 * ScannedHashStore.HASH_LENGTH, Files.size(file));
+
+        // a partially written record is ignored
+        Files.write(file, new byte[] { 1, 2, 3 }, StandardOpenOption.APPEND);
+
+        ScannedHashStore reloaded = new ScannedHashStore(file, 100);
+        assertEquals(3, reloaded.size());
+        assertTrue(reloaded.contains(sha1("a")));
+        assertTrue(reloaded.contains(sha1("c")));
+        assertFalse(reloaded.contains(sha1("d")));
+
+        reloaded.add(sha1("d"));
+        reloaded.save();
+        assertEquals(4 * ScannedHashStore.HASH_LENGTH, Files.size(file));
+    }
+
+    @Test
+    public void testSaveCompactsOnceFull() throws IOException {
+        Path file = testStorage.resolve("scanned.bin");
+
+        ScannedHashStore store = new ScannedHashStore(file, 4);
+        store.add(sha1("a"));
+        store.add(sha1("b"));
+        store.save();
+
+        store.add(sha1("c"));
+        store.add(sha1("d"));
+        store.add(sha1("e"));
+        store.save();
+
+        // compacted down to 75% of the maximum
+        assertEquals(3 * ScannedHashStore.HASH_LENGTH, Files.size(file));
+        assertFalse(store.contains(sha1("a")));
+        assertFalse(store.contains(sha1("b")));
+        assertTrue(store.contains(sha1("c")));
+        assertTrue(store.contains(sha1("e")));
+
+        // so the next save can append again
+        store.add(sha1("f"));
+        store.save();
+        assertEquals(4 * ScannedHashStore.HASH_LENGTH, Files.size(file));
+
+        ScannedHashStore reloaded = new ScannedHashStore(file, 4);
+        assertEquals(4, reloaded.size());
+        assertFalse(reloaded.contains(sha1("a")));
+        assertTrue(reloaded.contains(sha1("f")));
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class TaskGraphTest {
+
+    @Test
+    public void testRun() throws Exception {
+        List<String> order = new CopyOnWriteArrayList<>();
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        TaskGraph graph = new TaskGraph("Test")
+            .add("a", () -> {
+                bothStarted.countDown();
+                assertTrue(bothStarted.await(5, TimeUnit.SECONDS));
+                order.add("a");
+            })
+            .add("b", () -> {
+                bothStarted.countDown();
+                assertTrue(bothStarted.await(5, TimeUnit.SECONDS));
+                Thread.sleep(50);
+                order.add("b");
+            })
+            .add("c", () -> order.add("c"), "a", "b");
+
+        // a and b can only finish if they're running at the same time
+        assertTrue(graph.run(() -> false));
+        assertEquals(Arrays.asList("a", "b", "c"), order);
+        assertEquals(3, graph.getTimings().size());
+        assertEquals(Arrays.asList("b", "c"), graph.getCriticalPath());
+    }
+
+    @Test
+    public void testRunWithMaxThreads() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger mostRunning = new AtomicInteger();
+
+        TaskGraph graph = new TaskGraph("Test", 2);
+        for (String name : Arrays.asList("a", "b", "c", "d", "e")) {
+            graph.add(name, () -> {
+                mostRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(50);
+                running.decrementAndGet();
+            });
+        }
+
+        assertTrue(graph.run(null));
+        assertEquals(5, graph.getTimings().size());
+        assertTrue(mostRunning.get() <= 2);
+    }
+
+    @Test
+    public void testRunWithFailure() {
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        TaskGraph graph = new TaskGraph("Test")
+            .add("a", () -> {
+                throw new IOException("failed");
+            })
+            .add("b", () -> order.add("b"), "a");
+
+        assertThrows(IOException.class, () -> graph.run(() -> false));
+        assertTrue(order.isEmpty());
+    }
+
+    @Test
+    public void testRunWhenCancelled() throws Exception {
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        TaskGraph graph = new TaskGraph("Test")
+            .add("a", () -> Thread.sleep(500))
+            .add("b", () -> order.add("b"), "a");
+
+        assertFalse(graph.run(() -> true));
+        assertTrue(order.isEmpty());
+    }
+
+    @Test
+    public void testRunWhenInterrupted() throws Exception {
+        List<String> order = new CopyOnWriteArrayList<>();
+        CountDownLatch started = new CountDownLatch(1);
+        Thread runner = Thread.currentThread();
+
+        TaskGraph graph = new TaskGraph("Test")
+            .add("a", () -> {
+                started.countDown();
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException e) {
+                    // keep going for a bit after being interrupted, which the graph must wait for
+                    long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200);
+                    while (System.nanoTime() < until) {
+                        Thread.yield();
+                    }
+                    order.add("a");
+                }
+            })
+            .add("b", () -> order.add("b"), "a");
+
+        Thread interrupter = new Thread(() -> {
+            try {
+                started.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            runner.interrupt();
+        });
+        interrupter.start();
+
+        assertFalse(graph.run(() -> false));
+        assertTrue(Thread.interrupted());
+        assertEquals(Arrays.asList("a"), order);
+        interrupter.join();
+    }
+
+    @Test
+    public void testRunWhenInterruptedWithTasksQueued() throws Exception {
+        List<String> order = new CopyOnWriteArrayList<>();
+        CountDownLatch started = new CountDownLatch(2);
+        Thread runner = Thread.currentThread();
+
+        // more tasks ready to run than there are threads, so some are still queued when interrupted
+        TaskGraph graph = new TaskGraph("Test", 2);
+        for (String name : Arrays.asList("a", "b", "c", "d")) {
+            graph.add(name, () -> {
+                started.countDown();
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException e) {
+                    order.add(name);
+                }
+            });
+        }
+
+        Thread interrupter = new Thread(() -> {
+            try {
+                started.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            runner.interrupt();
+        });
+        interrupter.start();
+
+        long start = System.nanoTime();
+        assertFalse(graph.run(() -> false));
+        assertTrue(Thread.interrupted());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 4000);
+        assertEquals(2, order.size());
+        interrupter.join();
+    }
+
+    @Test
+    public void testAddWithUnknownDependency() {
+        assertThrows(IllegalArgumentException.class, () -> new TaskGraph("Test").add("a", () -> {
+        }, "b"));
+    }
+}
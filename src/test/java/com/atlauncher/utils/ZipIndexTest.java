@@ -0,0 +1,192 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ZipIndexTest {
+
+    @TempDir
+    Path testStorage;
+
+    @AfterEach
+    public void clearCache() {
+        ZipIndex.clearCache();
+    }
+
+    private static void writeOldZip(Path file, String deflatedContents) throws IOException {
+        try (OutputStream os = Files.newOutputStream(file); ZipOutputStream zos = new ZipOutputStream(os)) {
+            zos.putNextEntry(new ZipEntry("folder/"));
+            zos.closeEntry();
+
+            zos.putNextEntry(new ZipEntry("folder/deflated.txt"));
+            zos.write(deflatedContents.getBytes(StandardCharsets.UTF_8));
+            zos.closeEntry();
+
+            byte[] stored = "stored".getBytes(StandardCharsets.UTF_8);
+            CRC32 crc = new CRC32();
+            crc.update(stored);
+            ZipEntry storedEntry = new ZipEntry("stored.txt");
+            storedEntry.setMethod(ZipEntry.STORED);
+            storedEntry.setSize(stored.length);
+            storedEntry.setCrc(crc.getValue());
+            zos.putNextEntry(storedEntry);
+            zos.write(stored);
+            zos.closeEntry();
+
+            zos.setComment("a comment at the end of the archive");
+        }
+
+        Files.setLastModifiedTime(file,
+            FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(5)));
+    }
+
+    @Test
+    public void testContains() throws IOException {
+        Path file = testStorage.resolve("test.jar");
+        writeOldZip(file, "hello");
+
+        ZipIndex index = ZipIndex.get(file);
+
+        assertTrue(index.contains("folder/"));
+        assertTrue(index.contains("folder/deflated.txt"));
+        assertTrue(index.contains("stored.txt"));
+        assertFalse(index.contains("missing.txt"));
+        assertEquals(3, index.getEntryNames().size());
+    }
+
+    @Test
+    public void testRead() throws IOException {
+        Path file = testStorage.resolve("test.jar");
+        writeOldZip(file, "hello hello hello hello");
+
+        ZipIndex index = ZipIndex.get(file);
+
+        assertArrayEquals("hello hello hello hello".getBytes(StandardCharsets.UTF_8),
+            index.read("folder/deflated.txt"));
+        assertArrayEquals("stored".getBytes(StandardCharsets.UTF_8), index.read("stored.txt"));
+        assertEquals(0, index.read("folder/").length);
+        assertNull(index.read("missing.txt"));
+    }
+
+    @Test
+    public void testUnreadableEntriesAreIndexed() throws IOException {
+        Path file = testStorage.resolve("test.jar");
+        writeOldZip(file, "hello");
+
+        // mark the deflated entry as encrypted and the stored entry as using a compression method this can't read
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i + 46 <= bytes.length; i++) {
+            if (buffer.getInt(i) == 0x02014b50) {
+                String name = new String(bytes, i + 46, buffer.getShort(i + 28), StandardCharsets.UTF_8);
+
+                if (name.equals("folder/deflated.txt")) {
+                    buffer.putShort(i + 8, (short) (buffer.getShort(i + 8) | 0x1));
+                } else if (name.equals("stored.txt")) {
+                    buffer.putShort(i + 10, (short) 12);
+                }
+            }
+        }
+        Files.write(file, bytes);
+
+        ZipIndex index = ZipIndex.get(file);
+
+        assertTrue(index.contains("folder/deflated.txt"));
+        assertTrue(index.contains("stored.txt"));
+        assertEquals(3, index.getEntryNames().size());
+        assertThrows(ZipException.class, () -> index.read("folder/deflated.txt"));
+        assertThrows(ZipException.class, () -> index.read("stored.txt"));
+        assertEquals(0, index.read("folder/").length);
+    }
+
+    @Test
+    public void testReadLargerThanDeclaredSize() throws IOException {
+        Path file = testStorage.resolve("test.jar");
+        writeOldZip(file, "hello hello hello hello");
+
+        // declare the deflated entry as smaller than what its data inflates to
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i + 46 <= bytes.length; i++) {
+            if (buffer.getInt(i) == 0x02014b50) {
+                String name = new String(bytes, i + 46, buffer.getShort(i + 28), StandardCharsets.UTF_8);
+
+                if (name.equals("folder/deflated.txt")) {
+                    buffer.putInt(i + 24, 5);
+                }
+            }
+        }
+        Files.write(file, bytes);
+
+        ZipIndex index = ZipIndex.get(file);
+
+        assertThrows(ZipException.class, () -> index.read("folder/deflated.txt"));
+        assertArrayEquals("stored".getBytes(StandardCharsets.UTF_8), index.read("stored.txt"));
+    }
+
+    @Test
+    public void testCache() throws IOException {
+        Path file = testStorage.resolve("test.jar");
+        writeOldZip(file, "hello");
+
+        ZipIndex index = ZipIndex.get(file);
+        assertSame(index, ZipIndex.get(file));
+
+        // changing the archive invalidates the cached index
+        writeOldZip(file, "hello world");
+        ZipIndex changed = ZipIndex.get(file);
+
+        assertNotSame(index, changed);
+        assertArrayEquals("hello world".getBytes(StandardCharsets.UTF_8), changed.read("folder/deflated.txt"));
+    }
+
+    @Test
+    public void testNotAZip() throws IOException {
+        Path file = testStorage.resolve("test.jar");
+        Files.write(file, "not a zip file, but long enough to look for one".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IOException.class, () -> ZipIndex.get(file));
+        assertThrows(IOException.class, () -> ZipIndex.get(testStorage.resolve("missing.jar")));
+    }
+}